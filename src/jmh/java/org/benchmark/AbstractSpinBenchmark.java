@@ -0,0 +1,71 @@
+package org.benchmark;
+
+import org.config.model.GameConfig;
+import org.generator.GameProcessor;
+import org.generator.SpinContext;
+import org.generator.random.RngAlgorithm;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks every stage of a spin and a full spin. Stage benchmarks cycle through a pool of pre-played boards,
+ * so evaluation and reward see the same mix of winning and losing boards as real spins.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public abstract class AbstractSpinBenchmark {
+
+    private static final int POOL_SIZE = 1024;
+    private static final double BET_AMOUNT = 100;
+
+    private GameProcessor processor;
+    private SpinContext spinContext;
+    private SpinContext[] pool;
+    private int next;
+
+    protected abstract GameConfig config() throws Exception;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        var config = config();
+        processor = new GameProcessor(RngAlgorithm.DEFAULT.create(42));
+        spinContext = processor.createContext(config);
+        pool = new SpinContext[POOL_SIZE];
+        for (int i = 0; i < POOL_SIZE; i++) {
+            pool[i] = processor.createContext(config);
+            processor.spin(pool[i], BET_AMOUNT);
+        }
+    }
+
+    private SpinContext nextBoard() {
+        return pool[next++ & (POOL_SIZE - 1)];
+    }
+
+    @Benchmark
+    public int generateMatrix() {
+        processor.generateMatrix(spinContext);
+        return spinContext.getSymbolAt(0);
+    }
+
+    @Benchmark
+    public int checkWinningCombinations() {
+        var context = nextBoard();
+        processor.checkWinningCombinations(context);
+        return context.getWinCount();
+    }
+
+    @Benchmark
+    public double calculateReward() {
+        return processor.calculateReward(nextBoard(), BET_AMOUNT);
+    }
+
+    @Benchmark
+    public double spin() {
+        return processor.spin(spinContext, BET_AMOUNT);
+    }
+}
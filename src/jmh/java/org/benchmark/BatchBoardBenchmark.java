@@ -0,0 +1,64 @@
+package org.benchmark;
+
+import org.config.compiled.CompiledGame;
+import org.generator.GameProcessor;
+import org.generator.SpinContext;
+import org.generator.batch.BatchBoardGenerator;
+import org.generator.batch.BoardBatch;
+import org.generator.random.RngAlgorithm;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Board generation per board: one board at a time against batches from the vector and the scalar generator
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BatchBoardBenchmark {
+
+    private static final int BATCH_SIZE = 256;
+
+    @Param({"3", "7"})
+    public int boardSize;
+
+    private GameProcessor processor;
+    private SpinContext spinContext;
+    private BatchBoardGenerator vectorGenerator;
+    private BatchBoardGenerator scalarGenerator;
+    private BoardBatch batch;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        var game = CompiledGame.compile(BenchmarkConfigs.generated(boardSize, 6, 8));
+        processor = new GameProcessor(RngAlgorithm.DEFAULT.create(42));
+        spinContext = new SpinContext(game);
+        vectorGenerator = BatchBoardGenerator.create(game, RngAlgorithm.DEFAULT.create(42));
+        scalarGenerator = BatchBoardGenerator.scalar(game, RngAlgorithm.DEFAULT.create(42));
+        batch = new BoardBatch(game.getCellCount(), BATCH_SIZE);
+    }
+
+    @Benchmark
+    public int generateMatrix() {
+        processor.generateMatrix(spinContext);
+        return spinContext.getSymbolAt(0);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public int vectorBatch() {
+        vectorGenerator.generate(batch);
+        return batch.getSymbol(0, 0);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public int scalarBatch() {
+        scalarGenerator.generate(batch);
+        return batch.getSymbol(0, 0);
+    }
+}
@@ -0,0 +1,92 @@
+package org.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.config.model.GameConfig;
+import org.config.parser.Parser;
+
+import java.io.IOException;
+
+/**
+ * Configs the benchmarks run on: the bundled config.json and generated square boards
+ */
+final class BenchmarkConfigs {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private BenchmarkConfigs() {
+    }
+
+    static GameConfig bundled() throws IOException {
+        return Parser.parseConfig(System.getProperty("benchmark.config", "config.json"));
+    }
+
+    /**
+     * Square board with {@code symbols} standard symbols of growing weight and the bundled bonus symbols.
+     * Combinations are same symbols counts from 3 up, then horizontal, vertical and diagonal lines until {@code combinations} is reached.
+     */
+    static GameConfig generated(int size, int symbols, int combinations) {
+        var root = MAPPER.createObjectNode();
+        root.put("rows", size);
+        root.put("columns", size);
+
+        var symbolsNode = root.putObject("symbols");
+        for (int symbol = 0; symbol < symbols; symbol++) {
+            symbolsNode.putObject("S" + symbol)
+                    .put("reward_multiplier", 1 + (symbols - symbol) * 0.5)
+                    .put("type", "standard");
+        }
+        symbolsNode.putObject("10x").put("reward_multiplier", 10).put("type", "bonus").put("impact", "multiply_reward");
+        symbolsNode.putObject("+500").put("extra", 500).put("type", "bonus").put("impact", "extra_bonus");
+        symbolsNode.putObject("MISS").put("type", "bonus").put("impact", "miss");
+
+        var probabilities = root.putObject("probabilities");
+        var standard = probabilities.putArray("standard_symbols");
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                var cell = standard.addObject().put("row", row).put("column", col);
+                var weights = cell.putObject("symbols");
+                for (int symbol = 0; symbol < symbols; symbol++) {
+                    weights.put("S" + symbol, symbol + 1);
+                }
+            }
+        }
+        probabilities.putObject("bonus_symbols").putObject("symbols").put("10x", 1).put("+500", 2).put("MISS", 5);
+
+        var winCombinations = root.putObject("win_combinations");
+        var added = 0;
+        for (int count = 3; count <= size * size && added < combinations / 2; count++, added++) {
+            winCombinations.putObject("same_symbol_" + count + "_times")
+                    .put("reward_multiplier", count - 2)
+                    .put("when", "same_symbols")
+                    .put("count", count)
+                    .put("group", "same_symbols");
+        }
+        for (int line = 0; added < combinations; line++, added++) {
+            addLine(winCombinations, size, line);
+        }
+        return MAPPER.convertValue(root, GameConfig.class);
+    }
+
+    private static void addLine(ObjectNode winCombinations, int size, int line) {
+        // every line is its own combination: rows, columns, both diagonals, then shifted rows again
+        var kind = line % (2 * size + 2);
+        var areas = winCombinations.putObject("line_" + line)
+                .put("reward_multiplier", 2)
+                .put("when", "linear_symbols")
+                .put("group", "line_" + line)
+                .putArray("covered_areas");
+        var area = areas.addArray();
+        for (int i = 0; i < size; i++) {
+            if (kind < size) {
+                area.add(kind + ":" + i);
+            } else if (kind < 2 * size) {
+                area.add(i + ":" + (kind - size));
+            } else if (kind == 2 * size) {
+                area.add(i + ":" + i);
+            } else {
+                area.add(i + ":" + (size - 1 - i));
+            }
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package org.benchmark;
+
+import org.config.model.GameConfig;
+
+/**
+ * Spin stages on the bundled config.json
+ */
+public class BundledConfigBenchmark extends AbstractSpinBenchmark {
+
+    @Override
+    protected GameConfig config() throws Exception {
+        return BenchmarkConfigs.bundled();
+    }
+}
@@ -0,0 +1,24 @@
+package org.benchmark;
+
+import org.config.model.GameConfig;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Spin stages on generated square boards of growing size, symbol count and combination count
+ */
+public class GeneratedConfigBenchmark extends AbstractSpinBenchmark {
+
+    @Param({"3", "4", "5", "6", "7"})
+    public int boardSize;
+
+    @Param({"6", "24"})
+    public int symbols;
+
+    @Param({"8", "32"})
+    public int combinations;
+
+    @Override
+    protected GameConfig config() {
+        return BenchmarkConfigs.generated(boardSize, symbols, combinations);
+    }
+}
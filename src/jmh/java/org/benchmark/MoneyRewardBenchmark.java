@@ -0,0 +1,74 @@
+package org.benchmark;
+
+import org.config.compiled.CompiledGame;
+import org.generator.GameProcessor;
+import org.generator.SpinContext;
+import org.generator.random.RngAlgorithm;
+import org.money.DecimalRewards;
+import org.money.FixedPointRewards;
+import org.money.MoneyScale;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reward calculation of the same evaluated winning boards: double, fixed point long and BigDecimal
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MoneyRewardBenchmark {
+
+    private static final int POOL_SIZE = 1024;
+    private static final long BET_MINOR = 1_00;
+
+    private GameProcessor processor;
+    private SpinContext[] pool;
+    private FixedPointRewards fixedPointRewards;
+    private DecimalRewards decimalRewards;
+    private BigDecimal bet;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        var game = CompiledGame.compile(BenchmarkConfigs.bundled());
+        var scale = new MoneyScale(2);
+        processor = new GameProcessor(RngAlgorithm.DEFAULT.create(42));
+        fixedPointRewards = new FixedPointRewards(game, scale);
+        decimalRewards = new DecimalRewards(game, scale);
+        bet = scale.toDecimal(BET_MINOR);
+
+        // winning boards only, the reward of a losing one is a no-op in every variant
+        pool = new SpinContext[POOL_SIZE];
+        for (int i = 0; i < POOL_SIZE; i++) {
+            pool[i] = new SpinContext(game);
+            do {
+                processor.spin(pool[i], 1);
+            } while (pool[i].getWinCount() == 0);
+        }
+    }
+
+    private SpinContext nextContext() {
+        next = (next + 1) & (POOL_SIZE - 1);
+        return pool[next];
+    }
+
+    @Benchmark
+    public double doubleReward() {
+        return processor.calculateReward(nextContext(), BET_MINOR / 100.0);
+    }
+
+    @Benchmark
+    public long fixedPointReward() {
+        return fixedPointRewards.calculate(nextContext(), BET_MINOR);
+    }
+
+    @Benchmark
+    public BigDecimal decimalReward() {
+        return decimalRewards.calculate(nextContext(), bet);
+    }
+}
@@ -0,0 +1,1001 @@
+package org.config.compiled;
+
+import org.config.model.GameConfig;
+import org.generator.sampler.AliasSampler;
+import org.generator.sampler.CumulativeSampler;
+import org.generator.sampler.WeightedSampler;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+import static org.config.compiled.CompiledGameFile.*;
+
+/**
+ * Immutable, index-based view of a {@link GameConfig} built once at load time.
+ * Symbols and win combinations get int ids, cells are addressed as {@code row * columns + column},
+ * so the spin pipeline works on arrays only. Arrays returned by getters are shared and must not be modified.
+ */
+public final class CompiledGame {
+
+    public static final String MISS = "MISS";
+
+    /**
+     * We assume that bonus symbol possibility is 10% when the config does not set "bonus_possibility"
+     */
+    private static final int BONUS_SYMBOL_POSSIBILITY = 10;
+
+    private static final int CASCADE_STEPS = 20;
+
+    private final GameConfig source;
+    private final int rows;
+    private final int columns;
+    private final String rng;
+    private final int bonusPossibility;
+    /**
+     * Refills a spin may take after its first board, 0 when the game does not cascade
+     */
+    private final int cascadeSteps;
+
+    private final String[] symbolNames;
+    private final Map<String, Integer> symbolIds;
+    private final boolean[] declared;
+    private final boolean[] bonus;
+    /**
+     * Standard symbols which stand in for any other standard symbol in ways wins
+     */
+    private final boolean[] wild;
+    private final double[] rewardMultipliers;
+    private final Impact[] impacts;
+    private final int[] extras;
+    /**
+     * Free spins every symbol triggers, 0 for symbols without the free_spins impact
+     */
+    private final int[] freeSpins;
+    /**
+     * Bonus symbols which change the reward, derived from the impacts so they are not part of the file format
+     */
+    private final boolean[] bonusEffects;
+    private final int missSymbol;
+
+    /**
+     * Symbol ids of the strip of every column, empty when cells are drawn from their own weights
+     */
+    private final int[][] reelStrips;
+
+    /**
+     * Empty for reel strip games
+     */
+    private final AliasSampler[] cellSamplers;
+
+    private final AliasSampler bonusSampler;
+
+    private final String[] combinationNames;
+    private final Map<String, Integer> combinationIds;
+    private final WinKind[] combinationKinds;
+    private final double[] combinationMultipliers;
+    private final int[] combinationCounts;
+
+    private final int[] sameSymbolsByCount;
+    private final int[][] areaCells;
+    private final int[] areaCombinations;
+    /**
+     * Covered areas as one bit per cell, only for boards of up to 64 cells
+     */
+    private final long[] areaMasks;
+    /**
+     * Covered areas every cell belongs to, in area order, derived from the areas so it is not part of the file format
+     */
+    private final int[][] cellAreas;
+    /**
+     * Cluster combination applied to a cluster of every size, or -1, derived from the combinations so it is not part
+     * of the file format
+     */
+    private final int[] clusterBySize;
+    /**
+     * Ways combination applied to a symbol on every number of consecutive reels, or -1, derived from the combinations
+     * so it is not part of the file format
+     */
+    private final int[] waysByLength;
+
+    /**
+     * Game the free spins rounds are played on, null when no symbol triggers free spins
+     */
+    private final CompiledGame freeSpinsGame;
+
+    /**
+     * @param freeSpinsRound whether this is the game of a free spins round, which does not trigger further rounds
+     */
+    private CompiledGame(GameConfig config, SharedTables tables, boolean freeSpinsRound) {
+        this.source = config;
+        this.rows = config.getRows();
+        this.columns = config.getColumns();
+        this.rng = config.getRng();
+        if (rows <= 0 || columns <= 0) {
+            throw new IllegalArgumentException("Board size must be positive: " + rows + "x" + columns);
+        }
+        var cascade = config.getCascade();
+        if (cascade != null && cascade.getMaxSteps() != null && cascade.getMaxSteps() <= 0) {
+            throw new IllegalArgumentException("max_steps of cascade must be positive: " + cascade.getMaxSteps());
+        }
+        this.cascadeSteps = cascade == null ? 0 : cascade.getMaxSteps() == null ? CASCADE_STEPS : cascade.getMaxSteps();
+
+        // Reel strip games land bonus symbols from their strips, the probabilities are not used then
+        var strips = config.getReelStrips();
+        var probabilities = config.getProbabilities();
+        List<GameConfig.StandardSymbol> standardSymbols;
+        Map<String, Integer> bonusWeights;
+        if (strips != null) {
+            if (config.getBonusPossibility() != null) {
+                throw new IllegalArgumentException("bonus_possibility does not apply to reel strips, put bonus symbols on the strips");
+            }
+            if (strips.size() != columns) {
+                throw new IllegalArgumentException("Expected " + columns + " reel strips, one per column, got " + strips.size());
+            }
+            this.bonusPossibility = 0;
+            standardSymbols = List.of();
+            bonusWeights = Map.of();
+        } else {
+            if (probabilities == null || probabilities.getStandardSymbols() == null) {
+                throw new IllegalArgumentException("Standard symbol probabilities are missing");
+            }
+            var possibility = config.getBonusPossibility();
+            if (possibility != null && (possibility < 0 || possibility > 100)) {
+                throw new IllegalArgumentException("bonus_possibility must be a percentage between 0 and 100: " + possibility);
+            }
+            this.bonusPossibility = possibility == null ? BONUS_SYMBOL_POSSIBILITY : possibility;
+            standardSymbols = probabilities.getStandardSymbols();
+            bonusWeights = probabilities.getBonusSymbols() == null ? Map.of() : probabilities.getBonusSymbols().getSymbols();
+        }
+
+        // Declared symbols come first, then symbols only referenced by probabilities
+        var names = new ArrayList<String>();
+        var ids = new HashMap<String, Integer>();
+        var configSymbols = config.getSymbols() == null ? Map.<String, GameConfig.Symbol>of() : config.getSymbols();
+        configSymbols.keySet().forEach(name -> intern(name, names, ids));
+        for (GameConfig.StandardSymbol cellConfig : standardSymbols) {
+            if (cellConfig.getSymbols() == null) {
+                throw new IllegalArgumentException("Missing standard symbol probabilities for cell " + cellConfig.getRow() + ":" + cellConfig.getColumn());
+            }
+            cellConfig.getSymbols().keySet().forEach(name -> intern(name, names, ids));
+        }
+        bonusWeights.keySet().forEach(name -> intern(name, names, ids));
+        this.reelStrips = new int[strips == null ? 0 : columns][];
+        for (int col = 0; col < reelStrips.length; col++) {
+            var strip = strips.get(col);
+            if (strip == null || strip.isEmpty()) {
+                throw new IllegalArgumentException("Empty reel strip for column " + col);
+            }
+            reelStrips[col] = new int[strip.size()];
+            for (int i = 0; i < reelStrips[col].length; i++) {
+                if (strip.get(i) == null) {
+                    throw new IllegalArgumentException("Missing symbol at position " + i + " of reel strip " + col);
+                }
+                reelStrips[col][i] = intern(strip.get(i), names, ids);
+            }
+        }
+        this.missSymbol = intern(MISS, names, ids);
+
+        var symbolCount = names.size();
+        this.symbolNames = tables.names(names.toArray(String[]::new));
+        this.symbolIds = Map.copyOf(ids);
+        this.declared = new boolean[symbolCount];
+        this.bonus = new boolean[symbolCount];
+        this.wild = new boolean[symbolCount];
+        this.rewardMultipliers = new double[symbolCount];
+        this.impacts = new Impact[symbolCount];
+        this.extras = new int[symbolCount];
+        this.freeSpins = new int[symbolCount];
+        Arrays.fill(impacts, Impact.NONE);
+
+        for (Map.Entry<String, GameConfig.Symbol> entry : configSymbols.entrySet()) {
+            var id = ids.get(entry.getKey());
+            var symbol = entry.getValue();
+            declared[id] = true;
+            rewardMultipliers[id] = symbol.getRewardMultiplier();
+            if (!"standard".equals(symbol.getType()) && !"bonus".equals(symbol.getType())) {
+                throw new IllegalArgumentException("unknown type of symbol " + entry.getKey() + ": " + symbol.getType());
+            }
+            if (Boolean.TRUE.equals(symbol.getWild())) {
+                if (!"standard".equals(symbol.getType())) {
+                    throw new IllegalArgumentException("only standard symbols can be wild: " + entry.getKey());
+                }
+                wild[id] = true;
+            }
+            if ("bonus".equals(symbol.getType())) {
+                bonus[id] = true;
+                impacts[id] = Impact.of(symbol.getImpact());
+                if (impacts[id] == Impact.EXTRA_BONUS) {
+                    if (symbol.getExtra() == null) {
+                        throw new IllegalArgumentException("extra is required for extra_bonus symbol " + entry.getKey());
+                    }
+                    extras[id] = symbol.getExtra();
+                }
+                if (impacts[id] == Impact.FREE_SPINS) {
+                    if (symbol.getSpins() == null || symbol.getSpins() <= 0) {
+                        throw new IllegalArgumentException("spins must be positive for free_spins symbol " + entry.getKey() + ": " + symbol.getSpins());
+                    }
+                    if (symbol.getRewardMultiplier() <= 0) {
+                        throw new IllegalArgumentException("reward_multiplier must be positive for free_spins symbol " + entry.getKey());
+                    }
+                    freeSpins[id] = symbol.getSpins();
+                }
+            }
+        }
+        this.bonusEffects = bonusEffects(bonus, impacts);
+
+        var cells = rows * columns;
+        var sampledCells = reelStrips.length > 0 ? 0 : cells;
+        this.cellSamplers = new AliasSampler[sampledCells];
+        for (GameConfig.StandardSymbol cellConfig : standardSymbols) {
+            var row = cellConfig.getRow();
+            var col = cellConfig.getColumn();
+            if (row == null || col == null || row < 0 || row >= rows || col < 0 || col >= columns) {
+                continue;
+            }
+            var cell = row * columns + col;
+            // the first entry for a cell wins, as the original lookup did
+            if (cellSamplers[cell] != null) {
+                continue;
+            }
+            var weights = cellConfig.getSymbols();
+            var symbols = symbolIds(weights, ids);
+            var values = weightValues(weights, "cell " + row + ":" + col);
+            if (Arrays.stream(values).asLongStream().sum() <= 0) {
+                throw new IllegalArgumentException("Standard symbol weights must be positive for cell " + row + ":" + col);
+            }
+            cellSamplers[cell] = tables.aliasSampler(symbols, values);
+        }
+        for (int cell = 0; cell < sampledCells; cell++) {
+            if (cellSamplers[cell] == null) {
+                throw new IllegalArgumentException("Missing standard symbol probabilities for cell " + (cell / columns) + ":" + (cell % columns));
+            }
+        }
+
+        // Without bonus weights every bonus draw is a miss
+        var bonusValues = weightValues(bonusWeights, "bonus symbols");
+        if (Arrays.stream(bonusValues).asLongStream().sum() > 0) {
+            var bonusSymbols = symbolIds(bonusWeights, ids);
+            this.bonusSampler = tables.aliasSampler(bonusSymbols, bonusValues);
+        } else {
+            this.bonusSampler = null;
+        }
+
+        // Same symbol combinations are evaluated before area based ones, so they get the lowest ids
+        var combinations = config.getWinCombinations() == null ? Map.<String, GameConfig.WinCombination>of() : config.getWinCombinations();
+        var ordered = new ArrayList<Map.Entry<String, GameConfig.WinCombination>>();
+        for (Map.Entry<String, GameConfig.WinCombination> entry : combinations.entrySet()) {
+            if (WinKind.of(entry.getValue().getWhen()) == null) {
+                throw new IllegalArgumentException("unknown when of win combination " + entry.getKey() + ": " + entry.getValue().getWhen());
+            }
+        }
+        for (WinKind kind : WinKind.values()) {
+            for (Map.Entry<String, GameConfig.WinCombination> entry : combinations.entrySet()) {
+                if (WinKind.of(entry.getValue().getWhen()) == kind) {
+                    ordered.add(entry);
+                }
+            }
+        }
+
+        var combinationCount = ordered.size();
+        var comboNames = new String[combinationCount];
+        this.combinationKinds = new WinKind[combinationCount];
+        this.combinationMultipliers = new double[combinationCount];
+        this.combinationCounts = new int[combinationCount];
+        var comboIds = new HashMap<String, Integer>();
+        var areas = new ArrayList<int[]>();
+        var areaOwners = new ArrayList<Integer>();
+
+        for (int id = 0; id < combinationCount; id++) {
+            var name = ordered.get(id).getKey();
+            var combination = ordered.get(id).getValue();
+            if (combination.getRewardMultiplier() == null) {
+                throw new IllegalArgumentException("reward_multiplier is required for win combination " + name);
+            }
+            comboNames[id] = name;
+            comboIds.put(name, id);
+            combinationKinds[id] = WinKind.of(combination.getWhen());
+            combinationMultipliers[id] = combination.getRewardMultiplier();
+
+            switch (combinationKinds[id]) {
+                case SAME_SYMBOLS, CLUSTER, WAYS -> {
+                    if (combination.getCount() == null) {
+                        throw new IllegalArgumentException("count is required for win combination " + name);
+                    }
+                    combinationCounts[id] = combination.getCount();
+                }
+                case LINEAR_SYMBOLS -> {
+                    if (combination.getCoveredAreas() == null) {
+                        throw new IllegalArgumentException("covered_areas is required for win combination " + name);
+                    }
+                    for (List<String> area : combination.getCoveredAreas()) {
+                        if (area.isEmpty()) {
+                            throw new IllegalArgumentException("Empty covered area in win combination " + name);
+                        }
+                        var indices = new int[area.size()];
+                        for (int i = 0; i < indices.length; i++) {
+                            indices[i] = parseCell(area.get(i));
+                        }
+                        areas.add(indices);
+                        areaOwners.add(id);
+                    }
+                }
+            }
+        }
+        this.combinationNames = tables.names(comboNames);
+        this.combinationIds = Map.copyOf(comboIds);
+        this.areaCells = areas.toArray(int[][]::new);
+        this.areaCombinations = areaOwners.stream().mapToInt(Integer::intValue).toArray();
+        this.areaMasks = new long[cells <= Long.SIZE ? areaCells.length : 0];
+        for (int area = 0; area < areaMasks.length; area++) {
+            for (int cell : areaCells[area]) {
+                areaMasks[area] |= 1L << cell;
+            }
+        }
+        this.cellAreas = cellAreas(areaCells, cells);
+
+        this.sameSymbolsByCount = bestByCount(WinKind.SAME_SYMBOLS, combinationKinds, combinationCounts, cells);
+        this.clusterBySize = bestByCount(WinKind.CLUSTER, combinationKinds, combinationCounts, cells);
+        this.waysByLength = bestByCount(WinKind.WAYS, combinationKinds, combinationCounts, columns);
+
+        var triggered = Arrays.stream(freeSpins).anyMatch(spins -> spins > 0);
+        if (config.getFreeSpins() != null && !triggered) {
+            throw new IllegalArgumentException("free_spins tables are set but no symbol has the free_spins impact");
+        }
+        this.freeSpinsGame = triggered && !freeSpinsRound ? new CompiledGame(config.toFreeSpinsRound(), tables, true) : null;
+    }
+
+    private CompiledGame(ByteBuffer in, SharedTables tables) {
+        if (!hasMagic(in)) {
+            throw new IllegalArgumentException("Not a compiled config file");
+        }
+        in.getInt();
+        var version = in.getInt();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Compiled config version " + version + " is not supported, compile the config again");
+        }
+
+        this.source = null;
+        this.rows = in.getInt();
+        this.columns = in.getInt();
+        this.rng = readString(in);
+        this.bonusPossibility = in.getInt();
+        this.cascadeSteps = in.getInt();
+
+        this.symbolNames = tables.names(readStrings(in));
+        var ids = new HashMap<String, Integer>();
+        for (int symbol = 0; symbol < symbolNames.length; symbol++) {
+            ids.put(symbolNames[symbol], symbol);
+        }
+        this.symbolIds = Map.copyOf(ids);
+        this.declared = readBooleans(in);
+        this.bonus = readBooleans(in);
+        this.wild = readBooleans(in);
+        this.rewardMultipliers = readDoubles(in);
+        var impactOrdinals = readInts(in);
+        this.impacts = new Impact[impactOrdinals.length];
+        for (int symbol = 0; symbol < impacts.length; symbol++) {
+            impacts[symbol] = Impact.values()[impactOrdinals[symbol]];
+        }
+        this.extras = readInts(in);
+        this.freeSpins = readInts(in);
+        this.bonusEffects = bonusEffects(bonus, impacts);
+        this.missSymbol = in.getInt();
+
+        this.reelStrips = new int[in.getInt()][];
+        for (int col = 0; col < reelStrips.length; col++) {
+            reelStrips[col] = readInts(in);
+        }
+
+        var sampledCells = reelStrips.length > 0 ? 0 : rows * columns;
+        this.cellSamplers = new AliasSampler[sampledCells];
+        for (int cell = 0; cell < sampledCells; cell++) {
+            cellSamplers[cell] = readSampler(in, tables);
+        }
+        this.bonusSampler = in.get() != 0 ? readSampler(in, tables) : null;
+
+        this.combinationNames = tables.names(readStrings(in));
+        var comboIds = new HashMap<String, Integer>();
+        for (int combination = 0; combination < combinationNames.length; combination++) {
+            comboIds.put(combinationNames[combination], combination);
+        }
+        this.combinationIds = Map.copyOf(comboIds);
+        var kindOrdinals = readInts(in);
+        this.combinationKinds = new WinKind[kindOrdinals.length];
+        for (int combination = 0; combination < combinationKinds.length; combination++) {
+            combinationKinds[combination] = WinKind.values()[kindOrdinals[combination]];
+        }
+        this.combinationMultipliers = readDoubles(in);
+        this.combinationCounts = readInts(in);
+
+        this.sameSymbolsByCount = readInts(in);
+        this.areaCells = new int[in.getInt()][];
+        for (int area = 0; area < areaCells.length; area++) {
+            areaCells[area] = readInts(in);
+        }
+        this.areaCombinations = readInts(in);
+        this.areaMasks = readLongs(in);
+        this.cellAreas = cellAreas(areaCells, rows * columns);
+        this.clusterBySize = bestByCount(WinKind.CLUSTER, combinationKinds, combinationCounts, rows * columns);
+        this.waysByLength = bestByCount(WinKind.WAYS, combinationKinds, combinationCounts, columns);
+        this.freeSpinsGame = in.get() != 0 ? new CompiledGame(in, tables) : null;
+    }
+
+    private static boolean[] bonusEffects(boolean[] bonus, Impact[] impacts) {
+        var effects = new boolean[bonus.length];
+        for (int symbol = 0; symbol < effects.length; symbol++) {
+            effects[symbol] = bonus[symbol] && (impacts[symbol] == Impact.MULTIPLY_REWARD || impacts[symbol] == Impact.EXTRA_BONUS);
+        }
+        return effects;
+    }
+
+    /**
+     * Best combination of a kind for every possible count: the highest count wins, ties keep config order
+     */
+    private static int[] bestByCount(WinKind kind, WinKind[] kinds, int[] counts, int cells) {
+        var byCount = new int[cells + 1];
+        Arrays.fill(byCount, -1);
+        for (int count = 1; count <= cells; count++) {
+            for (int id = 0; id < kinds.length; id++) {
+                if (kinds[id] != kind || count < counts[id]) {
+                    continue;
+                }
+                var best = byCount[count];
+                if (best < 0 || counts[best] < counts[id]) {
+                    byCount[count] = id;
+                }
+            }
+        }
+        return byCount;
+    }
+
+    private static int[][] cellAreas(int[][] areaCells, int cells) {
+        var counts = new int[cells];
+        for (int[] area : areaCells) {
+            for (int cell : area) {
+                counts[cell]++;
+            }
+        }
+        var cellAreas = new int[cells][];
+        for (int cell = 0; cell < cells; cell++) {
+            cellAreas[cell] = new int[counts[cell]];
+        }
+        Arrays.fill(counts, 0);
+        for (int area = 0; area < areaCells.length; area++) {
+            for (int cell : areaCells[area]) {
+                // an area listing a cell twice is indexed once for it
+                if (counts[cell] == 0 || cellAreas[cell][counts[cell] - 1] != area) {
+                    cellAreas[cell][counts[cell]++] = area;
+                }
+            }
+        }
+        for (int cell = 0; cell < cells; cell++) {
+            if (counts[cell] < cellAreas[cell].length) {
+                cellAreas[cell] = Arrays.copyOf(cellAreas[cell], counts[cell]);
+            }
+        }
+        return cellAreas;
+    }
+
+    /**
+     * Compiles a single game, cells with the same weights still share their samplers
+     */
+    public static CompiledGame compile(GameConfig config) {
+        return compile(config, new SharedTables());
+    }
+
+    /**
+     * Compiles a game which shares equal tables with the other games compiled or loaded with {@code tables}
+     */
+    public static CompiledGame compile(GameConfig config, SharedTables tables) {
+        return new CompiledGame(config, tables, false);
+    }
+
+    /**
+     * Loads a file written by {@link #write(Path)}: the file is memory mapped and every table is copied out of it in
+     * bulk into the heap arrays the spin pipeline works on, without parsing JSON or rebuilding a table. The name maps are
+     * rebuilt from the name tables, and samplers equal to known ones are taken from {@code tables}
+     */
+    public static CompiledGame load(Path path) throws IOException {
+        return load(path, new SharedTables());
+    }
+
+    public static CompiledGame load(Path path, SharedTables tables) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new CompiledGame(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), tables);
+        }
+    }
+
+    /**
+     * Whether the file starts like a compiled config, as opposed to a JSON one
+     */
+    public static boolean isCompiledFile(Path path) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            var header = ByteBuffer.allocate(Integer.BYTES);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // read the whole header
+            }
+            return hasMagic(header.flip());
+        }
+    }
+
+    /**
+     * Writes the compiled tables, alias tables included, so {@link #load(Path)} does not parse or build anything
+     */
+    public void write(Path path) throws IOException {
+        try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            write(out);
+        }
+    }
+
+    /**
+     * The game of the free spins round follows as a whole file of its own
+     */
+    private void write(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(rows);
+        out.writeInt(columns);
+        writeString(out, rng);
+        out.writeInt(bonusPossibility);
+        out.writeInt(cascadeSteps);
+
+        writeStrings(out, symbolNames);
+        writeBooleans(out, declared);
+        writeBooleans(out, bonus);
+        writeBooleans(out, wild);
+        writeDoubles(out, rewardMultipliers);
+        writeInts(out, Arrays.stream(impacts).mapToInt(Impact::ordinal).toArray());
+        writeInts(out, extras);
+        writeInts(out, freeSpins);
+        out.writeInt(missSymbol);
+
+        out.writeInt(reelStrips.length);
+        for (int[] strip : reelStrips) {
+            writeInts(out, strip);
+        }
+        for (AliasSampler sampler : cellSamplers) {
+            writeSampler(out, sampler);
+        }
+        out.writeBoolean(bonusSampler != null);
+        if (bonusSampler != null) {
+            writeSampler(out, bonusSampler);
+        }
+
+        writeStrings(out, combinationNames);
+        writeInts(out, Arrays.stream(combinationKinds).mapToInt(WinKind::ordinal).toArray());
+        writeDoubles(out, combinationMultipliers);
+        writeInts(out, combinationCounts);
+
+        writeInts(out, sameSymbolsByCount);
+        out.writeInt(areaCells.length);
+        for (int[] cells : areaCells) {
+            writeInts(out, cells);
+        }
+        writeInts(out, areaCombinations);
+        writeLongs(out, areaMasks);
+        out.writeBoolean(freeSpinsGame != null);
+        if (freeSpinsGame != null) {
+            freeSpinsGame.write(out);
+        }
+    }
+
+    public long estimateBytes() {
+        return estimateBytes(Collections.newSetFromMap(new IdentityHashMap<>()));
+    }
+
+    /**
+     * Approximate heap held by the game. Shared tables already in {@code counted} are skipped and the others are added
+     * to it, so summing several games over one identity based set counts every shared table once
+     */
+    public long estimateBytes(Set<Object> counted) {
+        // the object itself with its scalar fields, and the two id maps at about 64 bytes per entry
+        long bytes = 128 + 64L * (symbolIds.size() + combinationIds.size());
+        bytes += namesBytes(symbolNames, counted) + namesBytes(combinationNames, counted);
+        bytes += arrayBytes(1, declared.length) + arrayBytes(1, bonus.length) + arrayBytes(1, bonusEffects.length);
+        bytes += arrayBytes(1, wild.length);
+        bytes += arrayBytes(8, rewardMultipliers.length) + arrayBytes(4, impacts.length) + arrayBytes(4, extras.length);
+        bytes += arrayBytes(4, freeSpins.length);
+        bytes += arrayBytes(4, reelStrips.length);
+        for (int[] strip : reelStrips) {
+            bytes += arrayBytes(4, strip.length);
+        }
+        bytes += arrayBytes(4, cellSamplers.length);
+        for (AliasSampler sampler : cellSamplers) {
+            bytes += samplerBytes(sampler, 4, counted);
+        }
+        bytes += samplerBytes(bonusSampler, 4, counted);
+        bytes += arrayBytes(4, combinationKinds.length) + arrayBytes(8, combinationMultipliers.length) + arrayBytes(4, combinationCounts.length);
+        bytes += arrayBytes(4, sameSymbolsByCount.length) + arrayBytes(4, areaCells.length) + arrayBytes(4, areaCombinations.length);
+        for (int[] cells : areaCells) {
+            bytes += arrayBytes(4, cells.length);
+        }
+        bytes += arrayBytes(8, areaMasks.length) + arrayBytes(4, cellAreas.length);
+        for (int[] areas : cellAreas) {
+            bytes += arrayBytes(4, areas.length);
+        }
+        bytes += arrayBytes(4, clusterBySize.length) + arrayBytes(4, waysByLength.length);
+        if (freeSpinsGame != null) {
+            bytes += freeSpinsGame.estimateBytes(counted);
+        }
+        return bytes;
+    }
+
+    private static long namesBytes(String[] names, Set<Object> counted) {
+        if (!counted.add(names)) {
+            return 0;
+        }
+        long bytes = arrayBytes(4, names.length);
+        for (String name : names) {
+            bytes += 24 + arrayBytes(1, name.length());
+        }
+        return bytes;
+    }
+
+    /**
+     * A sampler is an object holding {@code arrays} int arrays of one entry per symbol
+     */
+    private static long samplerBytes(Object sampler, int arrays, Set<Object> counted) {
+        if (sampler == null || !counted.add(sampler)) {
+            return 0;
+        }
+        var size = ((WeightedSampler) sampler).size();
+        return 32 + arrays * arrayBytes(4, size);
+    }
+
+    private static long arrayBytes(int elementBytes, int length) {
+        return 16 + (((long) elementBytes * length + 7) & ~7L);
+    }
+
+    private static void writeSampler(DataOutputStream out, AliasSampler sampler) throws IOException {
+        var size = sampler.size();
+        var symbols = new int[size];
+        var weights = new int[size];
+        var thresholds = new int[size];
+        var alias = new int[size];
+        for (int i = 0; i < size; i++) {
+            symbols[i] = sampler.getSymbol(i);
+            weights[i] = sampler.getWeight(i);
+            thresholds[i] = sampler.getThreshold(i);
+            alias[i] = sampler.getAlias(i);
+        }
+        writeInts(out, symbols);
+        writeInts(out, weights);
+        writeInts(out, thresholds);
+        writeInts(out, alias);
+    }
+
+    private static AliasSampler readSampler(ByteBuffer in, SharedTables tables) {
+        return tables.aliasSampler(readInts(in), readInts(in), readInts(in), readInts(in));
+    }
+
+    private static CumulativeSampler referenceOf(AliasSampler sampler) {
+        var symbols = new int[sampler.size()];
+        var weights = new int[sampler.size()];
+        for (int i = 0; i < symbols.length; i++) {
+            symbols[i] = sampler.getSymbol(i);
+            weights[i] = sampler.getWeight(i);
+        }
+        return new CumulativeSampler(symbols, weights);
+    }
+
+    private static int intern(String name, List<String> names, Map<String, Integer> ids) {
+        return ids.computeIfAbsent(name, key -> {
+            names.add(key);
+            return names.size() - 1;
+        });
+    }
+
+    private static int[] weightValues(Map<String, Integer> weights, String owner) {
+        var values = new int[weights.size()];
+        var i = 0;
+        for (Map.Entry<String, Integer> entry : weights.entrySet()) {
+            if (entry.getValue() == null || entry.getValue() < 0) {
+                throw new IllegalArgumentException("Invalid weight of " + entry.getKey() + " for " + owner + ": " + entry.getValue());
+            }
+            values[i++] = entry.getValue();
+        }
+        return values;
+    }
+
+    private static int[] symbolIds(Map<String, Integer> weights, Map<String, Integer> ids) {
+        return weights.keySet().stream().mapToInt(ids::get).toArray();
+    }
+
+    /**
+     * Converts a "row:column" cell reference to a cell index
+     */
+    public int parseCell(String cell) {
+        var parts = cell.split(":");
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Invalid cell reference: " + cell);
+        }
+        int row;
+        int col;
+        try {
+            row = Integer.parseInt(parts[0].trim());
+            col = Integer.parseInt(parts[1].trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cell reference: " + cell);
+        }
+        if (row < 0 || row >= rows || col < 0 || col >= columns) {
+            throw new IllegalArgumentException("Cell " + cell + " is outside of " + rows + "x" + columns + " board");
+        }
+        return row * columns + col;
+    }
+
+    /**
+     * Returns null for games loaded from a compiled file
+     */
+    public GameConfig getSource() {
+        return source;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public int getCellCount() {
+        return rows * columns;
+    }
+
+    public int getSymbolCount() {
+        return symbolNames.length;
+    }
+
+    public String getSymbolName(int symbol) {
+        return symbolNames[symbol];
+    }
+
+    /**
+     * Returns -1 when the symbol is unknown
+     */
+    public int getSymbolId(String name) {
+        var id = symbolIds.get(name);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Whether the symbol is listed in the "symbols" section, undeclared symbols never pay
+     */
+    public boolean isDeclared(int symbol) {
+        return declared[symbol];
+    }
+
+    public boolean isBonus(int symbol) {
+        return bonus[symbol];
+    }
+
+    /**
+     * Whether the symbol counts as any other standard symbol in ways wins, see {@link #getWaysCombination(int)}
+     */
+    public boolean isWild(int symbol) {
+        return wild[symbol];
+    }
+
+    public double getRewardMultiplier(int symbol) {
+        return rewardMultipliers[symbol];
+    }
+
+    public Impact getImpact(int symbol) {
+        return impacts[symbol];
+    }
+
+    public int getExtra(int symbol) {
+        return extras[symbol];
+    }
+
+    /**
+     * Whether the symbol is a bonus symbol which multiplies the reward or adds to it, wherever it lands on the board
+     */
+    public boolean hasBonusEffect(int symbol) {
+        return bonusEffects[symbol];
+    }
+
+    /**
+     * Free spins the symbol triggers wherever it lands, 0 for symbols without the free_spins impact
+     */
+    public int getFreeSpins(int symbol) {
+        return freeSpins[symbol];
+    }
+
+    /**
+     * Whether symbols of the game trigger free spins rounds, see {@link #getFreeSpinsGame()}
+     */
+    public boolean hasFreeSpins() {
+        return freeSpinsGame != null;
+    }
+
+    /**
+     * Game with the same symbols and win combinations on the tables of the free spins round, null when
+     * {@link #hasFreeSpins()} is false. Its own free_spins symbols do not trigger again
+     */
+    public CompiledGame getFreeSpinsGame() {
+        return freeSpinsGame;
+    }
+
+    /**
+     * Chance in percent that a cell gets a bonus draw instead of a standard one, 0 for reel strip games
+     */
+    public int getBonusPossibility() {
+        return bonusPossibility;
+    }
+
+    /**
+     * Whether winning cells are removed and refilled, see {@link #getCascadeSteps()}
+     */
+    public boolean isCascade() {
+        return cascadeSteps > 0;
+    }
+
+    /**
+     * Refills a cascade spin takes at most after its first board, 0 when the game does not cascade
+     */
+    public int getCascadeSteps() {
+        return cascadeSteps;
+    }
+
+    /**
+     * The "rng" of the config, null when it is not set
+     */
+    public String getRng() {
+        return rng;
+    }
+
+    public int getMissSymbol() {
+        return missSymbol;
+    }
+
+    /**
+     * Whether the board is a window of every {@link #getReelStrip(int) reel strip} rather than drawn cell by cell
+     */
+    public boolean isReelStrips() {
+        return reelStrips.length > 0;
+    }
+
+    /**
+     * Symbol ids of the strip of a column, available when {@link #isReelStrips()}
+     */
+    public int[] getReelStrip(int column) {
+        return reelStrips[column];
+    }
+
+    /**
+     * Not available for {@link #isReelStrips() reel strip} games
+     */
+    public AliasSampler getCellSampler(int cell) {
+        return cellSamplers[cell];
+    }
+
+    /**
+     * Cumulative weight scan drawing the same distribution as {@link #getCellSampler(int)}, used for verification.
+     * It is built from the alias table on every call, games do not keep one
+     */
+    public CumulativeSampler getReferenceCellSampler(int cell) {
+        return referenceOf(cellSamplers[cell]);
+    }
+
+    /**
+     * Returns null when bonus weights are empty, bonus draws are always a miss then
+     */
+    public AliasSampler getBonusSampler() {
+        return bonusSampler;
+    }
+
+    /**
+     * Built on every call like {@link #getReferenceCellSampler(int)}, null without a bonus sampler
+     */
+    public CumulativeSampler getReferenceBonusSampler() {
+        return bonusSampler == null ? null : referenceOf(bonusSampler);
+    }
+
+    public int getCombinationCount() {
+        return combinationNames.length;
+    }
+
+    public String getCombinationName(int combination) {
+        return combinationNames[combination];
+    }
+
+    /**
+     * Returns -1 when the combination is unknown
+     */
+    public int getCombinationId(String name) {
+        var id = combinationIds.get(name);
+        return id == null ? -1 : id;
+    }
+
+    public WinKind getCombinationKind(int combination) {
+        return combinationKinds[combination];
+    }
+
+    public double getCombinationMultiplier(int combination) {
+        return combinationMultipliers[combination];
+    }
+
+    /**
+     * The "count" of a same symbols or cluster combination
+     */
+    public int getRequiredCount(int combination) {
+        return combinationCounts[combination];
+    }
+
+    /**
+     * Returns the same symbols combination applied to a symbol seen {@code count} times, or -1
+     */
+    public int getSameSymbolsCombination(int count) {
+        return sameSymbolsByCount[count];
+    }
+
+    /**
+     * Whether clusters of some size win, see {@link #getClusterCombination(int)}
+     */
+    public boolean hasClusters() {
+        // the best combination of the largest cluster exists whenever any cluster combination can be reached
+        return clusterBySize[clusterBySize.length - 1] >= 0;
+    }
+
+    /**
+     * Returns the cluster combination applied to a cluster of {@code size} cells, or -1
+     */
+    public int getClusterCombination(int size) {
+        return clusterBySize[size];
+    }
+
+    /**
+     * Whether symbols win on consecutive reels, see {@link #getWaysCombination(int)}
+     */
+    public boolean hasWays() {
+        return waysByLength[columns] >= 0;
+    }
+
+    /**
+     * Returns the ways combination applied to a symbol on the first {@code length} reels, or -1
+     */
+    public int getWaysCombination(int length) {
+        return waysByLength[length];
+    }
+
+    public int getAreaCount() {
+        return areaCells.length;
+    }
+
+    public int[] getAreaCells(int area) {
+        return areaCells[area];
+    }
+
+    public int getAreaCombination(int area) {
+        return areaCombinations[area];
+    }
+
+    /**
+     * Covered areas holding the cell, in area order
+     */
+    public int[] getCellAreas(int cell) {
+        return cellAreas[cell];
+    }
+
+    /**
+     * Whether the board fits into one long per symbol
+     */
+    public boolean isBitboard() {
+        return getCellCount() <= Long.SIZE;
+    }
+
+    /**
+     * Cells of the area as bits, available when {@link #isBitboard()}
+     */
+    public long getAreaMask(int area) {
+        return areaMasks[area];
+    }
+}
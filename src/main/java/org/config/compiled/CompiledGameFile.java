@@ -0,0 +1,124 @@
+package org.config.compiled;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Layout helpers of the binary compiled config written by {@link CompiledGame#write(java.nio.file.Path)}.
+ * <p>
+ * The file is big endian: a header ({@link #MAGIC}, {@link #VERSION}), then the scalars and length prefixed arrays in
+ * the order the private {@code CompiledGame.write(DataOutputStream)} writes them, the free spins game nested at the
+ * end. Tables derived from others are rebuilt on load and not stored. Arrays are read in bulk from the mapped file into
+ * heap arrays, one copy per table.
+ */
+final class CompiledGameFile {
+    static final int MAGIC = 0x534C4F54;
+    /**
+     * Bumped whenever the layout changes, files of other versions are rejected and need a new compile-config run
+     */
+    static final int VERSION = 5;
+
+    private CompiledGameFile() {
+    }
+
+    static boolean hasMagic(ByteBuffer buffer) {
+        return buffer.remaining() >= Integer.BYTES && buffer.getInt(buffer.position()) == MAGIC;
+    }
+
+    static void writeInts(DataOutputStream out, int[] values) throws IOException {
+        out.writeInt(values.length);
+        for (int value : values) {
+            out.writeInt(value);
+        }
+    }
+
+    static int[] readInts(ByteBuffer buffer) {
+        var values = new int[buffer.getInt()];
+        buffer.asIntBuffer().get(values);
+        buffer.position(buffer.position() + values.length * Integer.BYTES);
+        return values;
+    }
+
+    static void writeLongs(DataOutputStream out, long[] values) throws IOException {
+        out.writeInt(values.length);
+        for (long value : values) {
+            out.writeLong(value);
+        }
+    }
+
+    static long[] readLongs(ByteBuffer buffer) {
+        var values = new long[buffer.getInt()];
+        buffer.asLongBuffer().get(values);
+        buffer.position(buffer.position() + values.length * Long.BYTES);
+        return values;
+    }
+
+    static void writeDoubles(DataOutputStream out, double[] values) throws IOException {
+        out.writeInt(values.length);
+        for (double value : values) {
+            out.writeDouble(value);
+        }
+    }
+
+    static double[] readDoubles(ByteBuffer buffer) {
+        var values = new double[buffer.getInt()];
+        buffer.asDoubleBuffer().get(values);
+        buffer.position(buffer.position() + values.length * Double.BYTES);
+        return values;
+    }
+
+    static void writeBooleans(DataOutputStream out, boolean[] values) throws IOException {
+        out.writeInt(values.length);
+        for (boolean value : values) {
+            out.writeBoolean(value);
+        }
+    }
+
+    static boolean[] readBooleans(ByteBuffer buffer) {
+        var values = new boolean[buffer.getInt()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = buffer.get() != 0;
+        }
+        return values;
+    }
+
+    /**
+     * Null is written as length -1
+     */
+    static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        var bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(ByteBuffer buffer) {
+        var length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        var bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static void writeStrings(DataOutputStream out, String[] values) throws IOException {
+        out.writeInt(values.length);
+        for (String value : values) {
+            writeString(out, value);
+        }
+    }
+
+    static String[] readStrings(ByteBuffer buffer) {
+        var values = new String[buffer.getInt()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = readString(buffer);
+        }
+        return values;
+    }
+}
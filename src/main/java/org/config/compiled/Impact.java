@@ -0,0 +1,28 @@
+package org.config.compiled;
+
+/**
+ * Bonus symbol impact resolved from the "impact" string of the config
+ */
+public enum Impact {
+    NONE,
+    MULTIPLY_REWARD,
+    EXTRA_BONUS,
+    MISS,
+    /**
+     * Triggers a round of free spins, played on their own tables and paid with the multiplier of the symbol
+     */
+    FREE_SPINS;
+
+    public static Impact of(String impact) {
+        if (impact == null) {
+            throw new IllegalArgumentException("unknown impact: null");
+        }
+        return switch (impact) {
+            case "multiply_reward" -> MULTIPLY_REWARD;
+            case "extra_bonus" -> EXTRA_BONUS;
+            case "miss" -> MISS;
+            case "free_spins" -> FREE_SPINS;
+            default -> throw new IllegalArgumentException("unknown impact: " + impact);
+        };
+    }
+}
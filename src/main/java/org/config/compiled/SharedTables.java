@@ -0,0 +1,110 @@
+package org.config.compiled;
+
+import org.generator.sampler.AliasSampler;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Canonical copies of the immutable tables of compiled games: games compiled with the same instance share equal
+ * samplers and name tables instead of holding a copy each, within a game as well as across games. Tables are held
+ * weakly, once no game uses one it is collected with the last game. Thread safe.
+ */
+public final class SharedTables {
+
+    private final Map<Key, Entry> tables = new ConcurrentHashMap<>();
+    private final ReferenceQueue<Object> collected = new ReferenceQueue<>();
+
+    /**
+     * Alias table of the weights, built once for every distinct (symbols, weights) pair
+     */
+    public AliasSampler aliasSampler(int[] symbols, int[] weights) {
+        return intern(new Key(AliasSampler.class, symbols, weights), () -> new AliasSampler(symbols, weights));
+    }
+
+    /**
+     * The equal table known already, or the table read e.g. from a compiled config file, which becomes the known one.
+     * Alias tables are a function of the symbols and weights, so tables read from a file are shared with compiled ones
+     */
+    public AliasSampler aliasSampler(int[] symbols, int[] weights, int[] thresholds, int[] alias) {
+        return intern(new Key(AliasSampler.class, symbols, weights), () -> AliasSampler.fromTable(symbols, weights, thresholds, alias));
+    }
+
+    public String[] names(String[] names) {
+        // the key keeps a copy, holding the table itself would keep it reachable forever
+        return intern(new Key(String[].class, (Object) names.clone()), () -> names);
+    }
+
+    /**
+     * Distinct tables currently held, collected ones excluded
+     */
+    public int size() {
+        expunge();
+        return tables.size();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T intern(Key key, Supplier<T> factory) {
+        expunge();
+        while (true) {
+            var entry = tables.get(key);
+            var table = entry == null ? null : entry.get();
+            if (table != null) {
+                return (T) table;
+            }
+            var created = factory.get();
+            var fresh = new Entry(key, created, collected);
+            var won = entry == null ? tables.putIfAbsent(key, fresh) == null : tables.replace(key, entry, fresh);
+            if (won) {
+                return created;
+            }
+        }
+    }
+
+    private void expunge() {
+        Reference<?> reference;
+        while ((reference = collected.poll()) != null) {
+            var entry = (Entry) reference;
+            tables.remove(entry.key, entry);
+        }
+    }
+
+    private static final class Entry extends WeakReference<Object> {
+        private final Key key;
+
+        Entry(Key key, Object table, ReferenceQueue<Object> queue) {
+            super(table, queue);
+            this.key = key;
+        }
+    }
+
+    /**
+     * Kind of table plus its contents, compared by value
+     */
+    private static final class Key {
+        private final Class<?> kind;
+        private final Object[] parts;
+        private final int hash;
+
+        Key(Class<?> kind, Object... parts) {
+            this.kind = kind;
+            this.parts = parts.clone();
+            this.hash = 31 * kind.hashCode() + Arrays.deepHashCode(this.parts);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Key key && kind == key.kind && hash == key.hash && Arrays.deepEquals(parts, key.parts);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package org.config.compiled;
+
+/**
+ * Win combination type resolved from the "when" string of the config
+ */
+public enum WinKind {
+    SAME_SYMBOLS,
+    LINEAR_SYMBOLS,
+    /**
+     * A group of at least "count" equal symbols connected through horizontally or vertically adjacent cells
+     */
+    CLUSTER,
+    /**
+     * A symbol on at least "count" consecutive reels from the first one, paid once per way: per choice of one cell
+     * holding the symbol or a wild on every of these reels
+     */
+    WAYS;
+
+    /**
+     * Returns null for unsupported values, compilation rejects such combinations
+     */
+    public static WinKind of(String when) {
+        if (when == null) {
+            return null;
+        }
+        return switch (when) {
+            case "same_symbols" -> SAME_SYMBOLS;
+            case "linear_symbols" -> LINEAR_SYMBOLS;
+            case "cluster" -> CLUSTER;
+            case "ways" -> WAYS;
+            default -> null;
+        };
+    }
+}
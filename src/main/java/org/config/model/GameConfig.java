@@ -23,6 +23,36 @@ public class GameConfig {
     @JsonProperty("win_combinations")
     private Map<String, WinCombination> winCombinations;
 
+    /**
+     * Random generator algorithm, see {@link org.generator.random.RngAlgorithm#fromName(String)}
+     */
+    @JsonProperty("rng")
+    private String rng;
+
+    /**
+     * Chance in percent that a cell is drawn from the bonus symbols, 10 when not set
+     */
+    @JsonProperty("bonus_possibility")
+    private Integer bonusPossibility;
+
+    /**
+     * One strip of symbol names per column, when set the board is a window of every strip instead of per cell draws
+     */
+    @JsonProperty("reel_strips")
+    private List<List<String>> reelStrips;
+
+    /**
+     * When set, winning cells are removed and refilled until the board does not win any more
+     */
+    @JsonProperty("cascade")
+    private Cascade cascade;
+
+    /**
+     * Tables of the rounds triggered by free_spins symbols, the base tables are used when not set
+     */
+    @JsonProperty("free_spins")
+    private FreeSpins freeSpins;
+
     public int getColumns() {
         return columns;
     }
@@ -44,6 +74,50 @@ public class GameConfig {
         return winCombinations;
     }
 
+    public String getRng() {
+        return rng;
+    }
+
+    public Integer getBonusPossibility() {
+        return bonusPossibility;
+    }
+
+    public List<List<String>> getReelStrips() {
+        return reelStrips;
+    }
+
+    public Cascade getCascade() {
+        return cascade;
+    }
+
+    public FreeSpins getFreeSpins() {
+        return freeSpins;
+    }
+
+    /**
+     * The game a free spins round plays: the symbols and win combinations of this game on the tables of
+     * {@code free_spins}, or on the tables of this game when it sets none
+     */
+    public GameConfig toFreeSpinsRound() {
+        var round = new GameConfig();
+        round.columns = columns;
+        round.rows = rows;
+        round.symbols = symbols;
+        round.winCombinations = winCombinations;
+        round.rng = rng;
+        round.cascade = cascade;
+        if (freeSpins == null) {
+            round.probabilities = probabilities;
+            round.bonusPossibility = bonusPossibility;
+            round.reelStrips = reelStrips;
+        } else {
+            round.probabilities = freeSpins.probabilities;
+            round.bonusPossibility = freeSpins.bonusPossibility;
+            round.reelStrips = freeSpins.reelStrips;
+        }
+        return round;
+    }
+
     public void setWinCombinations(Map<String, WinCombination> winCombinations) {
         this.winCombinations = winCombinations;
     }
@@ -61,6 +135,18 @@ public class GameConfig {
         @JsonProperty("extra")
         private Integer extra;
 
+        /**
+         * Free spins a free_spins symbol triggers
+         */
+        @JsonProperty("spins")
+        private Integer spins;
+
+        /**
+         * Whether a standard symbol stands in for the other standard symbols in ways wins
+         */
+        @JsonProperty("wild")
+        private Boolean wild;
+
         public double getRewardMultiplier() {
             return rewardMultiplier;
         }
@@ -76,6 +162,49 @@ public class GameConfig {
         public Integer getExtra() {
             return extra;
         }
+
+        public Integer getSpins() {
+            return spins;
+        }
+
+        public Boolean getWild() {
+            return wild;
+        }
+    }
+
+    public static class Cascade {
+        /**
+         * Refills after the first board at most, 20 when not set
+         */
+        @JsonProperty("max_steps")
+        private Integer maxSteps;
+
+        public Integer getMaxSteps() {
+            return maxSteps;
+        }
+    }
+
+    public static class FreeSpins {
+        @JsonProperty("probabilities")
+        private Probabilities probabilities;
+
+        @JsonProperty("bonus_possibility")
+        private Integer bonusPossibility;
+
+        @JsonProperty("reel_strips")
+        private List<List<String>> reelStrips;
+
+        public Probabilities getProbabilities() {
+            return probabilities;
+        }
+
+        public Integer getBonusPossibility() {
+            return bonusPossibility;
+        }
+
+        public List<List<String>> getReelStrips() {
+            return reelStrips;
+        }
     }
 
     public static class Probabilities {
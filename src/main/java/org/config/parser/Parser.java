@@ -1,14 +1,39 @@
 package org.config.parser;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.config.compiled.CompiledGame;
+import org.config.compiled.SharedTables;
 import org.config.model.GameConfig;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Path;
 
 public class Parser {
+    /**
+     * Mappers are thread safe once configured, building one per call costs more than the parsing itself
+     */
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
     public static GameConfig parseConfig(String filePath) throws IOException {
-        var objectMapper = new ObjectMapper();
-        return objectMapper.readValue(new File(filePath), GameConfig.class);
+        return OBJECT_MAPPER.readValue(new File(filePath), GameConfig.class);
+    }
+
+    /**
+     * Loads a JSON config or a file written by compile-config, told apart by the header of the file
+     */
+    public static CompiledGame loadGame(String filePath) throws IOException {
+        return loadGame(filePath, new SharedTables());
+    }
+
+    /**
+     * Like {@link #loadGame(String)}, sharing equal tables with the other games loaded with {@code tables}
+     */
+    public static CompiledGame loadGame(String filePath, SharedTables tables) throws IOException {
+        var path = Path.of(filePath);
+        if (CompiledGame.isCompiledFile(path)) {
+            return CompiledGame.load(path, tables);
+        }
+        return CompiledGame.compile(parseConfig(filePath), tables);
     }
 }
@@ -0,0 +1,154 @@
+package org.config.registry;
+
+import org.config.parser.Parser;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.*;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Named game configs loaded once, validated and compiled into {@link ConfigSnapshot}s.
+ * <p>
+ * Lookups are lock free: a reload compiles the new config aside and replaces the snapshot in one step,
+ * a config which fails to load is reported and the previous snapshot stays in use.
+ * {@link #watch()} reloads configs whenever their files change.
+ */
+public class ConfigRegistry implements Closeable {
+    private final Map<String, ConfigSnapshot> snapshots = new ConcurrentHashMap<>();
+    private final Map<String, Path> paths = new ConcurrentHashMap<>();
+    private final Consumer<InvalidConfigException> errorHandler;
+
+    private WatchService watchService;
+    private Thread watcher;
+
+    public ConfigRegistry() {
+        this(error -> System.err.println(error.getMessage()));
+    }
+
+    /**
+     * @param errorHandler receives configs rejected by a reload from the file watcher
+     */
+    public ConfigRegistry(Consumer<InvalidConfigException> errorHandler) {
+        this.errorHandler = errorHandler;
+    }
+
+    /**
+     * Loads a config under {@code name}, replacing any config registered with that name
+     *
+     * @throws InvalidConfigException when the file cannot be read or the config is not valid
+     */
+    public ConfigSnapshot register(String name, Path path) {
+        var absolute = path.toAbsolutePath().normalize();
+        var snapshot = load(name, absolute, 1);
+        paths.put(name, absolute);
+        snapshots.put(name, snapshot);
+        if (watchService != null) {
+            registerDirectory(absolute.getParent());
+        }
+        return snapshot;
+    }
+
+    /**
+     * @throws IllegalArgumentException when no config is registered with the name
+     */
+    public ConfigSnapshot get(String name) {
+        var snapshot = snapshots.get(name);
+        if (snapshot == null) {
+            throw new IllegalArgumentException("Unknown game config: " + name);
+        }
+        return snapshot;
+    }
+
+    public Set<String> getNames() {
+        return Collections.unmodifiableSet(snapshots.keySet());
+    }
+
+    /**
+     * Reads the file of {@code name} again and publishes it as the next version
+     *
+     * @throws InvalidConfigException when the new config is not valid, the current snapshot is kept then
+     */
+    public ConfigSnapshot reload(String name) {
+        var path = paths.get(name);
+        if (path == null) {
+            throw new IllegalArgumentException("Unknown game config: " + name);
+        }
+        // compute keeps concurrent reloads of one config in order, lookups are not blocked by it
+        return snapshots.compute(name, (key, current) -> load(name, path, current == null ? 1 : current.getVersion() + 1));
+    }
+
+    /**
+     * Starts a daemon thread which reloads configs when their files are modified
+     */
+    public synchronized void watch() throws IOException {
+        if (watchService != null) {
+            return;
+        }
+        watchService = FileSystems.getDefault().newWatchService();
+        new HashSet<>(paths.values()).forEach(path -> registerDirectory(path.getParent()));
+        watcher = Thread.ofPlatform().daemon().name("config-watcher").start(this::watchLoop);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+            watcher.interrupt();
+            watchService = null;
+        }
+    }
+
+    private void watchLoop() {
+        var service = watchService;
+        try {
+            while (true) {
+                var key = service.take();
+                var directory = (Path) key.watchable();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        paths.keySet().forEach(this::reloadQuietly);
+                        continue;
+                    }
+                    var changed = directory.resolve((Path) event.context());
+                    paths.forEach((name, path) -> {
+                        if (path.equals(changed)) {
+                            reloadQuietly(name);
+                        }
+                    });
+                }
+                key.reset();
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // closed
+        }
+    }
+
+    private void reloadQuietly(String name) {
+        try {
+            reload(name);
+        } catch (InvalidConfigException e) {
+            errorHandler.accept(e);
+        }
+    }
+
+    private synchronized void registerDirectory(Path directory) {
+        try {
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            throw new InvalidConfigException("Cannot watch " + directory + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static ConfigSnapshot load(String name, Path path, long version) {
+        try {
+            var game = Parser.loadGame(path.toString());
+            return new ConfigSnapshot(name, version, path, Instant.now(), game);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new InvalidConfigException("Invalid config " + name + " (" + path + "): " + e.getMessage(), e);
+        }
+    }
+}
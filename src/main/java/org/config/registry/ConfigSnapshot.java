@@ -0,0 +1,49 @@
+package org.config.registry;
+
+import org.config.compiled.CompiledGame;
+
+import java.nio.file.Path;
+import java.time.Instant;
+
+/**
+ * One validated version of a game config. A snapshot never changes, a reload publishes a new one with a higher version,
+ * so spins holding a snapshot finish on the config they started with.
+ */
+public final class ConfigSnapshot {
+    private final String name;
+    private final long version;
+    private final Path path;
+    private final Instant loadedAt;
+    private final CompiledGame game;
+
+    ConfigSnapshot(String name, long version, Path path, Instant loadedAt, CompiledGame game) {
+        this.name = name;
+        this.version = version;
+        this.path = path;
+        this.loadedAt = loadedAt;
+        this.game = game;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Starts at 1 and grows by one with every successful reload
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public Instant getLoadedAt() {
+        return loadedAt;
+    }
+
+    public CompiledGame getGame() {
+        return game;
+    }
+}
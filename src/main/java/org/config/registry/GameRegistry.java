@@ -0,0 +1,189 @@
+package org.config.registry;
+
+import org.config.compiled.CompiledGame;
+import org.config.compiled.SharedTables;
+import org.config.parser.Parser;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Many games in one process, keyed by game id. Registering a game only records its file: the game is compiled on its
+ * first lookup, sharing equal samplers and name tables with the other games through one {@link SharedTables}.
+ * <p>
+ * Compiled games are kept while their estimated footprint, shared tables counted once, fits the memory budget.
+ * Loading past the budget evicts the least recently used games, a later lookup compiles them again. A lookup of a
+ * resident game is lock free; a game handed out before its eviction stays usable for as long as the caller holds it.
+ */
+public class GameRegistry {
+    private final long memoryBudget;
+    private final SharedTables tables = new SharedTables();
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong clock = new AtomicLong();
+
+    /**
+     * @param memoryBudget bytes the resident games may take, the game being loaded is kept even if it alone exceeds it
+     */
+    public GameRegistry(long memoryBudget) {
+        if (memoryBudget <= 0) {
+            throw new IllegalArgumentException("Memory budget must be greater than zero");
+        }
+        this.memoryBudget = memoryBudget;
+    }
+
+    /**
+     * Registers the game without loading it, replacing any game registered with that id
+     */
+    public void register(String gameId, Path path) {
+        entries.put(gameId, new Entry(path.toAbsolutePath().normalize()));
+    }
+
+    /**
+     * Registers every JSON and compiled config of the directory under its file name without the extension. JSON configs
+     * are the {@code .json} files, compiled ones are told by their header whatever their extension; other files are skipped
+     *
+     * @return the registered game ids
+     */
+    public Set<String> registerDirectory(Path directory) throws IOException {
+        var registered = new TreeSet<String>();
+        try (var files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile)::iterator) {
+                var name = file.getFileName().toString();
+                var dot = name.lastIndexOf('.');
+                if (dot > 0 && !name.startsWith(".") && (name.endsWith(".json") || CompiledGame.isCompiledFile(file))) {
+                    var gameId = name.substring(0, dot);
+                    register(gameId, file);
+                    registered.add(gameId);
+                }
+            }
+        }
+        return registered;
+    }
+
+    /**
+     * The compiled game, loaded now if it is not resident
+     *
+     * @throws IllegalArgumentException when no game is registered with the id
+     * @throws InvalidConfigException   when the file cannot be read or the config is not valid
+     */
+    public CompiledGame get(String gameId) {
+        var entry = entries.get(gameId);
+        if (entry == null) {
+            throw new IllegalArgumentException("Unknown game: " + gameId);
+        }
+        entry.lastUsed = clock.incrementAndGet();
+        var game = entry.game;
+        if (game != null) {
+            return game;
+        }
+        synchronized (entry) {
+            game = entry.game;
+            if (game == null) {
+                game = load(gameId, entry.path);
+                entry.game = game;
+            }
+        }
+        evictOverBudget(entry);
+        return game;
+    }
+
+    public Set<String> getGameIds() {
+        return Collections.unmodifiableSet(entries.keySet());
+    }
+
+    /**
+     * Ids of the compiled games, least recently used first
+     */
+    public List<String> getResidentGameIds() {
+        var resident = new ArrayList<Map.Entry<String, Entry>>();
+        entries.entrySet().stream().filter(entry -> entry.getValue().game != null).forEach(resident::add);
+        resident.sort(Comparator.comparingLong(entry -> entry.getValue().lastUsed));
+        return resident.stream().map(Map.Entry::getKey).toList();
+    }
+
+    /**
+     * Estimated bytes of the compiled games, tables shared between them counted once
+     */
+    public long getResidentBytes() {
+        var counted = Collections.newSetFromMap(new IdentityHashMap<>());
+        long bytes = 0;
+        for (Entry entry : entries.values()) {
+            var game = entry.game;
+            if (game != null) {
+                bytes += game.estimateBytes(counted);
+            }
+        }
+        return bytes;
+    }
+
+    public long getMemoryBudget() {
+        return memoryBudget;
+    }
+
+    /**
+     * Drops the compiled game, e.g. after its file changed, the next lookup loads it again
+     */
+    public void evict(String gameId) {
+        var entry = entries.get(gameId);
+        if (entry != null) {
+            synchronized (entry) {
+                entry.game = null;
+            }
+        }
+    }
+
+    /**
+     * Keeps the loaded game and then the most recently used games while their total fits the budget, evicting the
+     * rest. Every game is estimated once, tables shared with a game kept before it are not counted again
+     */
+    private synchronized void evictOverBudget(Entry loaded) {
+        var resident = new ArrayList<Resident>();
+        for (Entry entry : entries.values()) {
+            var game = entry.game;
+            if (entry != loaded && game != null) {
+                resident.add(new Resident(entry, game, entry.lastUsed));
+            }
+        }
+        // lastUsed is read once per game, lookups keep changing it while the list is sorted
+        resident.sort(Comparator.comparingLong(Resident::lastUsed).reversed());
+
+        var counted = Collections.newSetFromMap(new IdentityHashMap<>());
+        var loadedGame = loaded.game;
+        var bytes = loadedGame == null ? 0 : loadedGame.estimateBytes(counted);
+        for (Resident kept : resident) {
+            if (bytes <= memoryBudget) {
+                bytes += kept.game().estimateBytes(counted);
+            }
+            if (bytes > memoryBudget) {
+                synchronized (kept.entry()) {
+                    kept.entry().game = null;
+                }
+            }
+        }
+    }
+
+    private CompiledGame load(String gameId, Path path) {
+        try {
+            return Parser.loadGame(path.toString(), tables);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new InvalidConfigException("Invalid config " + gameId + " (" + path + "): " + e.getMessage(), e);
+        }
+    }
+
+    private record Resident(Entry entry, CompiledGame game, long lastUsed) {
+    }
+
+    private static final class Entry {
+        private final Path path;
+        private volatile CompiledGame game;
+        private volatile long lastUsed;
+
+        Entry(Path path) {
+            this.path = path;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package org.config.registry;
+
+/**
+ * A config file which cannot be parsed or compiled, raised at load time instead of in the middle of a spin
+ */
+public class InvalidConfigException extends IllegalArgumentException {
+
+    public InvalidConfigException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,68 @@
+package org.generator;
+
+/**
+ * Evaluates the board with a count per symbol and a cell by cell walk of every covered area, works for any board size
+ */
+final class ArrayWinEvaluator implements WinEvaluator {
+
+    static final ArrayWinEvaluator INSTANCE = new ArrayWinEvaluator();
+
+    private ArrayWinEvaluator() {
+    }
+
+    @Override
+    public void evaluate(SpinContext context) {
+        checkSameSymbols(context);
+        checkLinearSymbols(context);
+        if (context.getGame().hasClusters()) {
+            ClusterWins.check(context, null);
+        }
+        if (context.getGame().hasWays()) {
+            WaysWins.check(context, null, null);
+        }
+    }
+
+    static void checkSameSymbols(SpinContext context) {
+        var game = context.getGame();
+        var symbolCounts = context.symbolCounts;
+        var board = context.board;
+
+        for (int symbol : board) {
+            symbolCounts[symbol]++;
+        }
+
+        // Walking the board instead of the symbol table visits only present symbols and resets their counts
+        for (int symbol : board) {
+            var count = symbolCounts[symbol];
+            if (count == 0) {
+                continue;
+            }
+            symbolCounts[symbol] = 0;
+            var combination = game.getSameSymbolsCombination(count);
+            if (combination >= 0) {
+                context.addWin(symbol, combination);
+            }
+        }
+    }
+
+    private void checkLinearSymbols(SpinContext context) {
+        var game = context.getGame();
+        var board = context.board;
+        for (int area = 0; area < game.getAreaCount(); area++) {
+            var cells = game.getAreaCells(area);
+            if (isWinningArea(board, cells)) {
+                context.addWin(board[cells[0]], game.getAreaCombination(area));
+            }
+        }
+    }
+
+    static boolean isWinningArea(int[] board, int[] cells) {
+        var firstSymbol = board[cells[0]];
+        for (int i = 1; i < cells.length; i++) {
+            if (board[cells[i]] != firstSymbol) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,55 @@
+package org.generator;
+
+/**
+ * Evaluates boards of up to 64 cells with one bit mask per symbol: a same symbols count is a {@link Long#bitCount(long)}
+ * and a covered area wins when its precompiled mask is fully set in the mask of the symbol on its first cell.
+ */
+final class BitboardWinEvaluator implements WinEvaluator {
+
+    static final BitboardWinEvaluator INSTANCE = new BitboardWinEvaluator();
+
+    private BitboardWinEvaluator() {
+    }
+
+    @Override
+    public void evaluate(SpinContext context) {
+        var game = context.getGame();
+        var board = context.board;
+        var symbolBits = context.symbolBits;
+
+        for (int cell = 0; cell < board.length; cell++) {
+            symbolBits[board[cell]] |= 1L << cell;
+        }
+
+        // A symbol is counted on the cell holding its lowest bit, which keeps the first seen order
+        for (int cell = 0; cell < board.length; cell++) {
+            var bits = symbolBits[board[cell]];
+            if (Long.numberOfTrailingZeros(bits) != cell) {
+                continue;
+            }
+            var combination = game.getSameSymbolsCombination(Long.bitCount(bits));
+            if (combination >= 0) {
+                context.addWin(board[cell], combination);
+            }
+        }
+
+        for (int area = 0; area < game.getAreaCount(); area++) {
+            var mask = game.getAreaMask(area);
+            var symbol = board[game.getAreaCells(area)[0]];
+            if ((symbolBits[symbol] & mask) == mask) {
+                context.addWin(symbol, game.getAreaCombination(area));
+            }
+        }
+
+        for (int symbol : board) {
+            symbolBits[symbol] = 0;
+        }
+
+        if (game.hasClusters()) {
+            ClusterWins.check(context, null);
+        }
+        if (game.hasWays()) {
+            WaysWins.check(context, null, null);
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package org.generator;
+
+import org.config.compiled.CompiledGame;
+import org.config.compiled.WinKind;
+
+import java.util.Arrays;
+
+/**
+ * Buffers of cascade spins, allocated once with the {@link SpinContext} of a cascade game.
+ * <p>
+ * Symbol counts are kept up to date across the steps of a spin, so a step only checks the symbols which were removed
+ * or refilled and the covered areas holding a cell which moved. Any other symbol or area kept its cells and did not
+ * win on the previous board either, as winning cells are always removed. Clusters and ways are found on the whole board
+ * at every step, which is linear in the cells anyway.
+ */
+final class CascadeState {
+    final int maxSteps;
+    private final CompiledGame game;
+    private final int cells;
+
+    /**
+     * Symbol counts of the current board, all zero between spins
+     */
+    private final int[] counts;
+    private final boolean[] touched;
+    private final int[] touchedSymbols;
+    private int touchedCount;
+    /**
+     * Touched symbols which win, until their first cell is found
+     */
+    private final boolean[] pending;
+
+    private final boolean[] areaTouched;
+    private final int[] touchedAreas;
+    private int touchedAreaCount;
+    /**
+     * Areas which won on the current board, in area order
+     */
+    private final int[] winningAreas;
+    private int winningAreaCount;
+    /**
+     * First cell of every cluster which won on the current board
+     */
+    private final int[] winningClusters;
+    private int winningClusterCount;
+    /**
+     * Symbol and number of reels of every ways win on the current board
+     */
+    private final int[] winningWaysSymbols;
+    private final int[] winningWaysLengths;
+    private int winningWaysCount;
+
+    private final boolean[] removed;
+    private final boolean[] removedSymbols;
+    /**
+     * Number of refilled top cells of every column after the last tumble
+     */
+    final int[] refills;
+    /**
+     * Reel strip games: strip position of the top cell of every column
+     */
+    final int[] reelTops;
+
+    /**
+     * Every evaluated board of the spin, one after another, with the end of its wins and its reward before bonus symbols
+     */
+    final int[] boards;
+    final int[] winEnds;
+    final double[] rewards;
+    int steps;
+    /**
+     * Time the last spin spent on rewards, only measured while {@link org.metrics.SpinMetrics#ENABLED}
+     */
+    long rewardNanos;
+
+    private final double[] symbolTotals;
+
+    CascadeState(CompiledGame game, int symbolSpace) {
+        this.game = game;
+        this.maxSteps = game.getCascadeSteps();
+        this.cells = game.getCellCount();
+        this.counts = new int[symbolSpace];
+        this.touched = new boolean[symbolSpace];
+        this.touchedSymbols = new int[symbolSpace];
+        this.pending = new boolean[symbolSpace];
+        this.areaTouched = new boolean[game.getAreaCount()];
+        this.touchedAreas = new int[game.getAreaCount()];
+        this.winningAreas = new int[game.getAreaCount()];
+        this.winningClusters = new int[game.hasClusters() ? cells : 0];
+        this.winningWaysSymbols = new int[game.hasWays() ? symbolSpace : 0];
+        this.winningWaysLengths = new int[winningWaysSymbols.length];
+        this.removed = new boolean[cells];
+        this.removedSymbols = new boolean[symbolSpace];
+        this.refills = new int[game.getColumns()];
+        this.reelTops = new int[game.isReelStrips() ? game.getColumns() : 0];
+        this.boards = new int[(maxSteps + 1) * cells];
+        this.winEnds = new int[maxSteps + 1];
+        this.rewards = new double[maxSteps + 1];
+        this.symbolTotals = new double[symbolSpace];
+    }
+
+    /**
+     * Takes the generated board as the first step: every symbol and every area is checked
+     */
+    void start(SpinContext context) {
+        steps = 0;
+        rewardNanos = 0;
+        for (int symbol : context.board) {
+            counts[symbol]++;
+            touch(symbol);
+        }
+        for (int area = 0; area < touchedAreas.length; area++) {
+            areaTouched[area] = true;
+            touchedAreas[area] = area;
+        }
+        touchedAreaCount = touchedAreas.length;
+    }
+
+    /**
+     * Adds the wins of the current board to the context, in the order a {@link WinEvaluator} adds them: same symbols
+     * in first seen order of the symbols, then areas in area order, then clusters, then ways
+     */
+    void evaluate(SpinContext context) {
+        var board = context.board;
+        var winningSymbols = 0;
+        for (int i = 0; i < touchedCount; i++) {
+            var symbol = touchedSymbols[i];
+            touched[symbol] = false;
+            if (game.getSameSymbolsCombination(counts[symbol]) >= 0) {
+                pending[symbol] = true;
+                winningSymbols++;
+            }
+        }
+        touchedCount = 0;
+        for (int cell = 0; winningSymbols > 0; cell++) {
+            var symbol = board[cell];
+            if (pending[symbol]) {
+                pending[symbol] = false;
+                winningSymbols--;
+                context.addWin(symbol, game.getSameSymbolsCombination(counts[symbol]));
+            }
+        }
+
+        Arrays.sort(touchedAreas, 0, touchedAreaCount);
+        winningAreaCount = 0;
+        for (int i = 0; i < touchedAreaCount; i++) {
+            var area = touchedAreas[i];
+            areaTouched[area] = false;
+            var areaCells = game.getAreaCells(area);
+            if (ArrayWinEvaluator.isWinningArea(board, areaCells)) {
+                context.addWin(board[areaCells[0]], game.getAreaCombination(area));
+                winningAreas[winningAreaCount++] = area;
+            }
+        }
+        touchedAreaCount = 0;
+
+        winningClusterCount = winningClusters.length > 0 ? ClusterWins.check(context, winningClusters) : 0;
+        winningWaysCount = winningWaysSymbols.length > 0 ? WaysWins.check(context, winningWaysSymbols, winningWaysLengths) : 0;
+    }
+
+    /**
+     * Records the current board and its wins from {@code from} as the next step. The rewards the context holds for
+     * them are moved to the totals of the spin
+     */
+    void addStep(SpinContext context, int from, double reward) {
+        System.arraycopy(context.board, 0, boards, steps * cells, cells);
+        winEnds[steps] = context.winCount;
+        rewards[steps] = reward;
+        steps++;
+        for (int i = from; i < context.winCount; i++) {
+            var symbol = context.winSymbols[i];
+            if (context.winning[symbol]) {
+                context.winning[symbol] = false;
+                symbolTotals[symbol] += context.symbolRewards[symbol];
+                context.symbolRewards[symbol] = 0;
+            }
+        }
+    }
+
+    /**
+     * Removes the cells of the wins from {@code from}, drops the cells above them and leaves {@link #refills} empty
+     * cells on top of every column for the caller to fill with {@link #refill(int[], int, int)}
+     */
+    void tumble(SpinContext context, int from) {
+        var board = context.board;
+        // clusters are flagged first, the fill stops at flagged cells
+        for (int i = 0; i < winningClusterCount; i++) {
+            ClusterWins.fill(context, winningClusters[i], removed);
+        }
+        var columns = game.getColumns();
+        // a ways win removes the symbol and the wilds of its reels
+        for (int i = 0; i < winningWaysCount; i++) {
+            var symbol = winningWaysSymbols[i];
+            for (int cell = 0; cell < cells; cell++) {
+                var held = board[cell];
+                if (cell % columns < winningWaysLengths[i] && (held == symbol || held < game.getSymbolCount() && game.isWild(held))) {
+                    removed[cell] = true;
+                }
+            }
+        }
+        var sameSymbols = false;
+        for (int i = from; i < context.winCount; i++) {
+            if (game.getCombinationKind(context.winCombinations[i]) == WinKind.SAME_SYMBOLS) {
+                removedSymbols[context.winSymbols[i]] = true;
+                sameSymbols = true;
+            }
+        }
+        if (sameSymbols) {
+            for (int cell = 0; cell < cells; cell++) {
+                removed[cell] |= removedSymbols[board[cell]];
+            }
+            for (int i = from; i < context.winCount; i++) {
+                removedSymbols[context.winSymbols[i]] = false;
+            }
+        }
+        for (int i = 0; i < winningAreaCount; i++) {
+            for (int cell : game.getAreaCells(winningAreas[i])) {
+                removed[cell] = true;
+            }
+        }
+
+        for (int col = 0; col < columns; col++) {
+            var lowest = -1;
+            for (int cell = col; cell < cells; cell += columns) {
+                if (removed[cell]) {
+                    lowest = cell;
+                    counts[board[cell]]--;
+                    touch(board[cell]);
+                }
+            }
+            // every cell from the top down to the lowest removed one moves or is refilled
+            var target = lowest;
+            for (int cell = lowest; cell >= 0; cell -= columns) {
+                touchAreas(cell);
+                if (removed[cell]) {
+                    removed[cell] = false;
+                } else {
+                    board[target] = board[cell];
+                    target -= columns;
+                }
+            }
+            refills[col] = (target + columns) / columns;
+        }
+    }
+
+    /**
+     * Puts a refilled symbol on an empty cell left by {@link #tumble(SpinContext, int)}
+     */
+    void refill(int[] board, int cell, int symbol) {
+        board[cell] = symbol;
+        counts[symbol]++;
+        touch(symbol);
+    }
+
+    /**
+     * Leaves the totals of the spin in the context, as {@link GameProcessor#calculateReward(SpinContext, double)}
+     * leaves the rewards of a single board, and clears the counts for the next spin
+     */
+    void finish(SpinContext context) {
+        for (int i = 0; i < context.winCount; i++) {
+            var symbol = context.winSymbols[i];
+            if (!context.winning[symbol]) {
+                context.winning[symbol] = true;
+                context.symbolRewards[symbol] = symbolTotals[symbol];
+                symbolTotals[symbol] = 0;
+            }
+        }
+        for (int symbol : context.board) {
+            counts[symbol] = 0;
+        }
+    }
+
+    private void touch(int symbol) {
+        if (!touched[symbol]) {
+            touched[symbol] = true;
+            touchedSymbols[touchedCount++] = symbol;
+        }
+    }
+
+    private void touchAreas(int cell) {
+        for (int area : game.getCellAreas(cell)) {
+            if (!areaTouched[area]) {
+                areaTouched[area] = true;
+                touchedAreas[touchedAreaCount++] = area;
+            }
+        }
+    }
+}
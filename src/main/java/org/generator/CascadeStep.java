@@ -0,0 +1,29 @@
+package org.generator;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One board of a cascade spin with its own wins, {@link Result#addCascadeStep(CascadeStep)}
+ */
+public class CascadeStep {
+    @JsonProperty("matrix")
+    private final String[][] matrix;
+
+    /**
+     * Reward of the wins of this board, before bonus symbols
+     */
+    @JsonProperty("reward")
+    private final double reward;
+
+    @JsonProperty("applied_winning_combinations")
+    private final Map<String, List<String>> appliedWinningCombinations;
+
+    public CascadeStep(String[][] matrix, double reward, Map<String, List<String>> appliedWinningCombinations) {
+        this.matrix = matrix;
+        this.reward = reward;
+        this.appliedWinningCombinations = appliedWinningCombinations;
+    }
+}
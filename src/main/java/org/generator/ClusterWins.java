@@ -0,0 +1,81 @@
+package org.generator;
+
+/**
+ * Finds cluster wins: groups of equal symbols connected through horizontally or vertically adjacent cells.
+ * <p>
+ * Every cell is visited once by a flood fill over {@link SpinContext#clusterStack}, cells already in a cluster are
+ * flagged in {@link SpinContext#clustered}, so a board is evaluated in time linear in its cells without allocating.
+ */
+final class ClusterWins {
+
+    private ClusterWins() {
+    }
+
+    /**
+     * Adds a win for every cluster with a cluster combination, in the order of the first cell of the clusters
+     *
+     * @param starts receives the first cell of every winning cluster when not null
+     * @return number of winning clusters
+     */
+    static int check(SpinContext context, int[] starts) {
+        var game = context.getGame();
+        var board = context.board;
+        var clustered = context.clustered;
+        var wins = 0;
+        for (int cell = 0; cell < board.length; cell++) {
+            if (clustered[cell]) {
+                continue;
+            }
+            var combination = game.getClusterCombination(fill(context, cell, clustered));
+            if (combination >= 0) {
+                context.addWin(board[cell], combination);
+                if (starts != null) {
+                    starts[wins] = cell;
+                }
+                wins++;
+            }
+        }
+        for (int cell = 0; cell < clustered.length; cell++) {
+            clustered[cell] = false;
+        }
+        return wins;
+    }
+
+    /**
+     * Flags the cells of the cluster holding {@code start} in {@code cells}, which must not hold any of them yet
+     *
+     * @return size of the cluster
+     */
+    static int fill(SpinContext context, int start, boolean[] cells) {
+        var board = context.board;
+        var stack = context.clusterStack;
+        var columns = context.getGame().getColumns();
+        var symbol = board[start];
+        var size = 0;
+        var top = 0;
+        cells[start] = true;
+        stack[top++] = start;
+        while (top > 0) {
+            var cell = stack[--top];
+            size++;
+            var col = cell % columns;
+            if (col > 0 && !cells[cell - 1] && board[cell - 1] == symbol) {
+                cells[cell - 1] = true;
+                stack[top++] = cell - 1;
+            }
+            if (col < columns - 1 && !cells[cell + 1] && board[cell + 1] == symbol) {
+                cells[cell + 1] = true;
+                stack[top++] = cell + 1;
+            }
+            if (cell >= columns && !cells[cell - columns] && board[cell - columns] == symbol) {
+                cells[cell - columns] = true;
+                stack[top++] = cell - columns;
+            }
+            if (cell + columns < board.length && !cells[cell + columns] && board[cell + columns] == symbol) {
+                cells[cell + columns] = true;
+                stack[top++] = cell + columns;
+            }
+        }
+        return size;
+    }
+}
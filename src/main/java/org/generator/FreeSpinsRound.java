@@ -0,0 +1,26 @@
+package org.generator;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Free spins a spin triggered, {@link Result#setFreeSpins(FreeSpinsRound)}
+ */
+public class FreeSpinsRound {
+    @JsonProperty("spins")
+    private final int spins;
+
+    @JsonProperty("winning_spins")
+    private final int winningSpins;
+
+    /**
+     * Reward of all free spins with the multipliers of the triggering symbols, included in the reward of the spin
+     */
+    @JsonProperty("reward")
+    private final double reward;
+
+    public FreeSpinsRound(int spins, int winningSpins, double reward) {
+        this.spins = spins;
+        this.winningSpins = winningSpins;
+        this.reward = reward;
+    }
+}
@@ -0,0 +1,64 @@
+package org.generator;
+
+import org.config.compiled.CompiledGame;
+import org.generator.batch.BatchBoardGenerator;
+import org.generator.batch.BoardBatch;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Buffers of free spins rounds, allocated once with the {@link SpinContext} of a game with free_spins symbols.
+ * <p>
+ * The boards of a round are generated a batch at a time by a {@link BatchBoardGenerator} of the free spins game and
+ * played through one context of that game, so a round costs about as much per spin as a batched simulation.
+ * Cascading free spins games need their refills drawn one by one and are spun instead.
+ */
+final class FreeSpinsState {
+    /**
+     * Boards generated at once, games whose rounds are shorter get a smaller batch
+     */
+    static final int BATCH_SIZE = 64;
+
+    final SpinContext context;
+    /**
+     * Null when the free spins game cascades
+     */
+    final BoardBatch batch;
+    private BatchBoardGenerator generator;
+
+    /**
+     * Free spins played by the last spin, the ones among them with a win, and their reward with the multipliers of the
+     * triggering symbols applied
+     */
+    int spins;
+    int winningSpins;
+    double reward;
+
+    FreeSpinsState(CompiledGame game) {
+        var round = game.getFreeSpinsGame();
+        this.context = new SpinContext(round);
+        var longest = 0;
+        for (int symbol = 0; symbol < game.getSymbolCount(); symbol++) {
+            longest = Math.max(longest, game.getFreeSpins(symbol));
+        }
+        this.batch = round.isCascade() ? null : new BoardBatch(round.getCellCount(), Math.min(BATCH_SIZE, longest));
+    }
+
+    void reset() {
+        spins = 0;
+        winningSpins = 0;
+        reward = 0;
+    }
+
+    /**
+     * Generator of a new round keyed by the next value of {@code random}, its tables are only built for the first round
+     */
+    BatchBoardGenerator generator(RandomGenerator random) {
+        if (generator == null) {
+            generator = BatchBoardGenerator.create(context.getGame(), random);
+        } else {
+            generator.reseed(random);
+        }
+        return generator;
+    }
+}
@@ -1,47 +1,45 @@
 package org.generator;
 
+import org.config.compiled.CompiledGame;
+import org.config.compiled.WinKind;
 import org.config.model.GameConfig;
+import org.generator.batch.BoardBatch;
+import org.generator.random.RngAlgorithm;
+import org.metrics.SpinMetrics;
 
+import java.security.SecureRandom;
 import java.util.*;
+import java.util.random.RandomGenerator;
 
 public class GameProcessor {
 
+    private final RandomGenerator random;
+
+    public GameProcessor() {
+        this(RngAlgorithm.DEFAULT.create(new SecureRandom().nextLong()));
+    }
+
     /**
-     * We assume that bonus symbol possibility is 10% because it is not mentioned in TD
+     * @param random stream owned by this processor, it must not be shared with other threads
      */
-    private static final int BONUS_SYMBOL_POSSIBILITY = 10;
-    private final Random random = new Random();
+    public GameProcessor(RandomGenerator random) {
+        this.random = Objects.requireNonNull(random);
+    }
 
     public String[][] generateMatrix(GameConfig config, Result gameResult) {
-        var rows = config.getRows();
-        var columns = config.getColumns();
-        var matrix = new String[rows][columns];
-
-        var standardSymbols = config.getProbabilities().getStandardSymbols();
-        var bonusSymbols = config.getProbabilities().getBonusSymbols().getSymbols();
-
-        for (int row = 0; row < rows; row++) {
-            for (int col = 0; col < columns; col++) {
-                if (isBonus(random)) {
-                    matrix[row][col] = getRandomBonusSymbol(bonusSymbols);
-                    if (!Objects.equals(matrix[row][col], "MISS")) {
-                        gameResult.addBonusSymbol(matrix[row][col]);
-                    }
-                } else {
-                    matrix[row][col] = getRandomStandardSymbol(standardSymbols, row, col);
-                }
-            }
+        var context = new SpinContext(compile(config));
+        generateMatrix(context);
+        for (int i = 0; i < context.bonusCount; i++) {
+            gameResult.addBonusSymbol(context.getGame().getSymbolName(context.bonusSymbols[i]));
         }
-        return matrix;
+        return context.toMatrix();
     }
 
     public Map<String, List<String>> checkWinningCombinations(String[][] matrix, GameConfig config) {
-        Map<String, List<String>> winningCombinations = new HashMap<>();
-
-        checkSameSymbols(matrix, config, winningCombinations);
-        checkLinearSymbols(matrix, config, winningCombinations);
-
-        return winningCombinations;
+        var context = new SpinContext(compile(config));
+        context.load(matrix);
+        checkWinningCombinations(context);
+        return context.toWinningCombinations();
     }
 
     public double calculateReward(String[][] matrix, double betAmount, Map<String, List<String>> winningCombinations, GameConfig config) {
@@ -49,164 +47,453 @@ public class GameProcessor {
             throw new IllegalArgumentException("Bet amount must be greater than zero.");
         }
 
+        var game = compile(config);
+        if (winningCombinations.isEmpty()) {
+            return 0;
+        }
+        var context = new SpinContext(game);
+        context.load(matrix);
+        // ways wins are paid per way, which only the matrix tells
+        if (game.hasWays()) {
+            WaysWins.check(context, null, null);
+        }
         double totalReward = 0;
 
         for (Map.Entry<String, List<String>> entry : winningCombinations.entrySet()) {
-            var symbol = entry.getKey();
-            var combinations = entry.getValue();
+            totalReward += calculateSymbolReward(context, entry.getKey(), entry.getValue(), betAmount);
+        }
+
+        // Bonus symbols are only effective when there are at least one winning combinations matches with the generated matrix
+        return applyBonusSymbols(totalReward, context);
+    }
+
+    public SpinContext createContext(GameConfig config) {
+        return new SpinContext(compile(config));
+    }
+
+    /**
+     * Plays a whole spin into a reused context without allocating, cascade games tumble until their board does not win
+     * and free_spins symbols play their round
+     *
+     * @return the reward, also available from {@link SpinContext#getReward()}
+     */
+    public double spin(SpinContext context, double betAmount) {
+        if (SpinMetrics.ENABLED) {
+            return spinTimed(context, betAmount);
+        }
+        var reward = spinBoard(context, betAmount);
+        return context.freeSpins == null ? reward : playFreeSpins(context, betAmount);
+    }
+
+    /**
+     * A spin without the free spins it triggers
+     */
+    private double spinBoard(SpinContext context, double betAmount) {
+        context.reset();
+        generateMatrix(context);
+        if (context.cascade != null) {
+            return cascade(context, betAmount);
+        }
+        checkWinningCombinations(context);
+        return calculateReward(context, betAmount);
+    }
 
-            var configSymbol = config.getSymbols().get(symbol);
-            if (configSymbol == null) {
-                continue;
+    private double spinTimed(SpinContext context, double betAmount) {
+        var start = System.nanoTime();
+        context.reset();
+        generateMatrix(context);
+        var generated = System.nanoTime();
+        if (context.cascade != null) {
+            // refills are part of the evaluation, the rewards of the steps are timed by the cascade
+            var reward = cascade(context, betAmount);
+            var cascaded = System.nanoTime();
+            if (context.freeSpins != null) {
+                reward = playFreeSpins(context, betAmount);
             }
+            var rewardNanos = context.cascade.rewardNanos + System.nanoTime() - cascaded;
+            SpinMetrics.get().recordSpin(context, betAmount, generated - start,
+                    cascaded - generated - context.cascade.rewardNanos, rewardNanos);
+            return reward;
+        }
+        checkWinningCombinations(context);
+        var evaluated = System.nanoTime();
+        // free spins rounds are timed as part of the reward
+        var reward = calculateReward(context, betAmount);
+        if (context.freeSpins != null) {
+            reward = playFreeSpins(context, betAmount);
+        }
+        var rewarded = System.nanoTime();
+        SpinMetrics.get().recordSpin(context, betAmount, generated - start, evaluated - generated, rewarded - evaluated);
+        return reward;
+    }
 
-            var symbolReward = betAmount * configSymbol.getRewardMultiplier();
-            for (String combinationName : combinations) {
-                GameConfig.WinCombination winCombination = config.getWinCombinations().get(combinationName);
-                if (winCombination != null) {
-                    symbolReward *= winCombination.getRewardMultiplier();
-                }
+    /**
+     * Plays a board generated up front, e.g. by a {@link org.generator.batch.BatchBoardGenerator}, without drawing from
+     * the random generator of this processor, except for one value per triggered free spins round.
+     * Declared bonus symbols other than MISS on the board are collected as bonus symbols
+     *
+     * @return the reward, also available from {@link SpinContext#getReward()}
+     * @throws IllegalArgumentException for cascade games, their refills need {@link #spin(SpinContext, double)}
+     */
+    public double play(SpinContext context, BoardBatch batch, int board, double betAmount) {
+        if (context.cascade != null) {
+            throw new IllegalArgumentException("Cascade games are played with spin");
+        }
+        loadBoard(context, batch, board);
+        if (SpinMetrics.ENABLED) {
+            var start = System.nanoTime();
+            checkWinningCombinations(context);
+            var evaluated = System.nanoTime();
+            var reward = calculateReward(context, betAmount);
+            if (context.freeSpins != null) {
+                reward = playFreeSpins(context, betAmount);
             }
+            SpinMetrics.get().recordSpin(context, betAmount, -1, evaluated - start, System.nanoTime() - evaluated);
+            return reward;
+        }
+        checkWinningCombinations(context);
+        var reward = calculateReward(context, betAmount);
+        return context.freeSpins == null ? reward : playFreeSpins(context, betAmount);
+    }
 
-            totalReward += symbolReward;
+    private static void loadBoard(SpinContext context, BoardBatch batch, int board) {
+        context.reset();
+        var game = context.getGame();
+        var cells = context.board;
+        for (int cell = 0; cell < cells.length; cell++) {
+            var symbol = batch.getSymbol(board, cell);
+            cells[cell] = symbol;
+            if (game.isBonus(symbol) && symbol != game.getMissSymbol()) {
+                context.bonusSymbols[context.bonusCount++] = symbol;
+            }
+            if (game.hasBonusEffect(symbol)) {
+                context.effectSymbols[context.effectCount++] = symbol;
+            }
         }
+    }
 
-        // Bonus symbols are only effective when there are at least one winning combinations matches with the generated matrix
-        if (!winningCombinations.isEmpty()) {
-            totalReward = applyBonusSymbols(totalReward, matrix, config);
+    /**
+     * Plays the free spins every free_spins symbol on the board triggers, whether or not the board won, and adds their
+     * reward times the reward multiplier of the symbol to the reward of the context. Free spins do not trigger again
+     *
+     * @return the reward of the spin with its free spins
+     */
+    private double playFreeSpins(SpinContext context, double betAmount) {
+        var game = context.getGame();
+        var round = context.freeSpins;
+        for (int i = 0; i < context.bonusCount; i++) {
+            var symbol = context.bonusSymbols[i];
+            var spins = game.getFreeSpins(symbol);
+            if (spins > 0) {
+                round.reward += game.getRewardMultiplier(symbol) * playRound(round, spins, betAmount);
+                round.spins += spins;
+            }
         }
+        context.reward += round.reward;
+        return context.reward;
+    }
 
-        return totalReward;
+    /**
+     * Plays {@code spins} boards of the free spins game. The boards are generated a batch at a time from a stream keyed
+     * by one value of the random generator of this processor; cascading games spin their boards one by one
+     *
+     * @return the summed reward of the boards
+     */
+    private double playRound(FreeSpinsState round, int spins, double betAmount) {
+        var context = round.context;
+        double reward = 0;
+        if (round.batch == null) {
+            for (int spin = 0; spin < spins; spin++) {
+                reward += spinBoard(context, betAmount);
+                if (context.winCount > 0) {
+                    round.winningSpins++;
+                }
+            }
+            return reward;
+        }
+        var batch = round.batch;
+        var generator = round.generator(random);
+        for (int played = 0; played < spins; played += batch.getSize()) {
+            generator.generate(batch);
+            var boards = Math.min(batch.getSize(), spins - played);
+            for (int board = 0; board < boards; board++) {
+                loadBoard(context, batch, board);
+                checkWinningCombinations(context);
+                reward += calculateReward(context, betAmount);
+                if (context.winCount > 0) {
+                    round.winningSpins++;
+                }
+            }
+        }
+        return reward;
     }
 
-    private void checkSameSymbols(String[][] matrix, GameConfig config, Map<String, List<String>> winningCombinations) {
-        Map<String, Integer> symbolCounts = new HashMap<>();
+    /**
+     * Fills the board of the context, bonus symbols other than MISS are collected on the way.
+     * Reel strip games draw one random number per column, the others a bonus draw and a symbol draw per cell
+     */
+    public void generateMatrix(SpinContext context) {
+        var game = context.getGame();
+        var board = context.board;
+        context.bonusCount = 0;
+        context.effectCount = 0;
+        if (game.isReelStrips()) {
+            generateReels(context);
+            return;
+        }
+        for (int cell = 0; cell < board.length; cell++) {
+            board[cell] = drawSymbol(context, cell);
+        }
+    }
 
-        for (String[] row : matrix) {
-            for (String cell : row) {
-                symbolCounts.put(cell, symbolCounts.getOrDefault(cell, 0) + 1);
+    /**
+     * Draws the symbol of a cell of a game without reel strips, collecting it as a bonus symbol when it is one
+     */
+    private int drawSymbol(SpinContext context, int cell) {
+        var game = context.getGame();
+        int symbol;
+        if (isBonus(random, game)) {
+            symbol = getRandomBonusSymbol(game);
+            if (symbol != game.getMissSymbol()) {
+                context.bonusSymbols[context.bonusCount++] = symbol;
             }
+        } else {
+            symbol = getRandomStandardSymbol(game, cell);
+        }
+        // standard probabilities may list bonus symbols too, they take effect like drawn ones
+        if (game.hasBonusEffect(symbol)) {
+            context.effectSymbols[context.effectCount++] = symbol;
         }
+        return symbol;
+    }
 
-        Map<String, String> maxCombinations = new HashMap<>();
+    /**
+     * One draw per column picks the stop of its strip, the column shows the following {@code rows} symbols of the strip,
+     * wrapping around its end. Bonus symbols land from the strips, there is no bonus draw
+     */
+    private void generateReels(SpinContext context) {
+        var game = context.getGame();
+        var board = context.board;
+        var columns = game.getColumns();
+        for (int col = 0; col < columns; col++) {
+            var strip = game.getReelStrip(col);
+            var position = random.nextInt(strip.length);
+            if (context.cascade != null) {
+                context.cascade.reelTops[col] = position;
+            }
+            for (int cell = col; cell < board.length; cell += columns) {
+                board[cell] = strip[position];
+                if (++position == strip.length) {
+                    position = 0;
+                }
+            }
+        }
+        for (int symbol : board) {
+            collectStripSymbol(context, symbol);
+        }
+    }
 
-        for (Map.Entry<String, GameConfig.WinCombination> entry : config.getWinCombinations().entrySet()) {
-            GameConfig.WinCombination combination = entry.getValue();
-            if ("same_symbols".equals(combination.getWhen())) {
-                for (Map.Entry<String, Integer> symbolCount : symbolCounts.entrySet()) {
-                    String symbol = symbolCount.getKey();
-                    int count = symbolCount.getValue();
+    private static void collectStripSymbol(SpinContext context, int symbol) {
+        var game = context.getGame();
+        if (game.isBonus(symbol) && symbol != game.getMissSymbol()) {
+            context.bonusSymbols[context.bonusCount++] = symbol;
+        }
+        if (game.hasBonusEffect(symbol)) {
+            context.effectSymbols[context.effectCount++] = symbol;
+        }
+    }
 
-                    if (count >= combination.getCount() && (!maxCombinations.containsKey(symbol) || config.getWinCombinations().get(maxCombinations.get(symbol)).getCount() < combination.getCount())) {
-                            maxCombinations.put(symbol, entry.getKey());
-                        }
-                }
+    /**
+     * Evaluates the generated board and tumbles: the cells of every win are removed, the cells above them drop and the
+     * empty top cells are refilled, until a board does not win or the step limit of the game is reached. A step only
+     * checks the symbols and areas the moved cells touch. Bonus symbols landing on any board are applied once to the
+     * sum of all steps, when at least one step won
+     */
+    private double cascade(SpinContext context, double betAmount) {
+        if (betAmount <= 0) {
+            throw new IllegalArgumentException("Bet amount must be greater than zero.");
+        }
+        var cascade = context.cascade;
+        cascade.start(context);
+        double totalReward = 0;
+        for (int step = 0; ; step++) {
+            var from = context.winCount;
+            cascade.evaluate(context);
+            var rewardStart = SpinMetrics.ENABLED ? System.nanoTime() : 0;
+            var stepReward = rewardOfWins(context, betAmount, from);
+            if (SpinMetrics.ENABLED) {
+                cascade.rewardNanos += System.nanoTime() - rewardStart;
+            }
+            cascade.addStep(context, from, stepReward);
+            totalReward += stepReward;
+            if (context.winCount == from || step == cascade.maxSteps) {
+                break;
             }
+            cascade.tumble(context, from);
+            refill(context);
         }
+        cascade.finish(context);
 
-        for (Map.Entry<String, String> entry : maxCombinations.entrySet()) {
-            winningCombinations.putIfAbsent(entry.getKey(), new ArrayList<>());
-            winningCombinations.get(entry.getKey()).add(entry.getValue());
+        if (context.winCount > 0) {
+            var rewardStart = SpinMetrics.ENABLED ? System.nanoTime() : 0;
+            totalReward = applyBonusSymbols(totalReward, context);
+            if (SpinMetrics.ENABLED) {
+                cascade.rewardNanos += System.nanoTime() - rewardStart;
+            }
         }
+        context.reward = totalReward;
+        return totalReward;
     }
 
-    private void checkLinearSymbols(String[][] matrix, GameConfig config, Map<String, List<String>> winningCombinations) {
-        for (Map.Entry<String, GameConfig.WinCombination> entry : config.getWinCombinations().entrySet()) {
-            GameConfig.WinCombination combination = entry.getValue();
-            if ("linear_symbols".equals(combination.getWhen())) {
-                for (List<String> area : combination.getCoveredAreas()) {
-                    if (isWinningArea(matrix, area)) {
-                        String symbol = getSymbolAt(matrix, area.getFirst());
-                        winningCombinations.putIfAbsent(symbol, new ArrayList<>());
-                        winningCombinations.get(symbol).add(entry.getKey());
-                    }
+    /**
+     * Fills the empty top cells left by a tumble in board order. Reel strips continue above the symbols still shown
+     */
+    private void refill(SpinContext context) {
+        var game = context.getGame();
+        var cascade = context.cascade;
+        var board = context.board;
+        var columns = game.getColumns();
+        if (game.isReelStrips()) {
+            for (int col = 0; col < columns; col++) {
+                var length = game.getReelStrip(col).length;
+                cascade.reelTops[col] = Math.floorMod(cascade.reelTops[col] - cascade.refills[col], length);
+            }
+        }
+        for (int row = 0; row < game.getRows(); row++) {
+            for (int col = 0; col < columns; col++) {
+                if (row >= cascade.refills[col]) {
+                    continue;
+                }
+                var cell = row * columns + col;
+                int symbol;
+                if (game.isReelStrips()) {
+                    var strip = game.getReelStrip(col);
+                    symbol = strip[(cascade.reelTops[col] + row) % strip.length];
+                    collectStripSymbol(context, symbol);
+                } else {
+                    symbol = drawSymbol(context, cell);
                 }
+                cascade.refill(board, cell, symbol);
             }
         }
     }
 
-    private String getRandomStandardSymbol(List<GameConfig.StandardSymbol> symbols, int row, int col) {
-        for (GameConfig.StandardSymbol symbolConfig : symbols) {
-            if (symbolConfig.getRow() == row && symbolConfig.getColumn() == col) {
-                var symbolWeights = symbolConfig.getSymbols();
-                var totalWeight = symbolWeights.values().stream().mapToInt(Integer::intValue).sum();
-                var randomValue = random.nextInt(totalWeight);
+    public void checkWinningCombinations(SpinContext context) {
+        context.clearWins();
+        context.evaluator.evaluate(context);
+    }
 
-                var cumulativeWeight = 0;
-                for (Map.Entry<String, Integer> entry : symbolWeights.entrySet()) {
-                    cumulativeWeight += entry.getValue();
-                    if (randomValue < cumulativeWeight) {
-                        return entry.getKey();
-                    }
-                }
+    public double calculateReward(SpinContext context, double betAmount) {
+        if (betAmount <= 0) {
+            throw new IllegalArgumentException("Bet amount must be greater than zero.");
+        }
+
+        var totalReward = rewardOfWins(context, betAmount, 0);
+
+        // Bonus symbols are only effective when there are at least one winning combinations matches with the generated matrix
+        if (context.winCount > 0) {
+            totalReward = applyBonusSymbols(totalReward, context);
+        }
+
+        context.reward = totalReward;
+        return totalReward;
+    }
+
+    /**
+     * Sum of the symbol rewards of the wins from {@code from} on, bonus symbols not applied. The symbol rewards are added
+     * in the order the symbols first won. The reward and the winning flag of those symbols are left in the context
+     */
+    private static double rewardOfWins(SpinContext context, double betAmount, int from) {
+        var game = context.getGame();
+        var winCount = context.winCount;
+        var winSymbols = context.winSymbols;
+        var symbolRewards = context.symbolRewards;
+        var baseMultipliers = context.baseMultipliers;
+
+        for (int i = from; i < winCount; i++) {
+            var symbol = winSymbols[i];
+            context.winning[symbol] = false;
+            symbolRewards[symbol] = betAmount * baseMultipliers[symbol];
+        }
+        // Combination multipliers are taken in evaluation order, as the per symbol lists hold them; multiplying by the
+        // single way of other wins is exact
+        for (int i = from; i < winCount; i++) {
+            symbolRewards[winSymbols[i]] *= game.getCombinationMultiplier(context.winCombinations[i]) * context.winWays[i];
+        }
+
+        double totalReward = 0;
+        for (int i = from; i < winCount; i++) {
+            var symbol = winSymbols[i];
+            if (!context.winning[symbol]) {
+                context.winning[symbol] = true;
+                totalReward += symbolRewards[symbol];
             }
         }
-        return null;
+        return totalReward;
     }
 
-    private String getRandomBonusSymbol(Map<String, Integer> bonusSymbols) {
-        var totalWeight = bonusSymbols.values().stream().mapToInt(Integer::intValue).sum();
-        if (totalWeight == 0) {
-            return "MISS";
+    private double calculateSymbolReward(SpinContext context, String symbolName, List<String> combinations, double betAmount) {
+        var game = context.getGame();
+        var symbol = game.getSymbolId(symbolName);
+        if (symbol < 0 || !game.isDeclared(symbol)) {
+            return 0;
         }
 
-        var randomValue = random.nextInt(totalWeight);
-        var cumulativeWeight = 0;
+        var symbolReward = betAmount * game.getRewardMultiplier(symbol);
+        for (String combinationName : combinations) {
+            var combination = game.getCombinationId(combinationName);
+            if (combination >= 0) {
+                symbolReward *= game.getCombinationMultiplier(combination) * waysOf(context, symbol, combination);
+            }
+        }
+        return symbolReward;
+    }
 
-        for (Map.Entry<String, Integer> entry : bonusSymbols.entrySet()) {
-            cumulativeWeight += entry.getValue();
-            if (randomValue < cumulativeWeight) {
-                return entry.getKey();
+    /**
+     * Ways of the symbol on the loaded matrix for a ways combination, 1 for any other combination
+     */
+    private static long waysOf(SpinContext context, int symbol, int combination) {
+        if (context.getGame().getCombinationKind(combination) != WinKind.WAYS) {
+            return 1;
+        }
+        for (int i = 0; i < context.winCount; i++) {
+            if (context.winSymbols[i] == symbol && context.winCombinations[i] == combination) {
+                return context.winWays[i];
             }
         }
-        return "MISS";
+        return 0;
     }
 
-    private boolean isBonus(Random random) {
-        return random.nextInt(100) < BONUS_SYMBOL_POSSIBILITY;
+    /**
+     * The config is compiled on every call of the {@link GameConfig} methods, so changes made to it in between are
+     * picked up. Reuse a context from {@link #createContext(GameConfig)} to compile once
+     */
+    private static CompiledGame compile(GameConfig config) {
+        return CompiledGame.compile(config);
     }
 
-    private String getSymbolAt(String[][] matrix, String cell) {
-        var parts = cell.split(":");
-        var row = Integer.parseInt(parts[0]);
-        var col = Integer.parseInt(parts[1]);
-        return matrix[row][col];
+    private int getRandomStandardSymbol(CompiledGame game, int cell) {
+        return game.getCellSampler(cell).sample(random);
     }
 
-    private boolean isWinningArea(String[][] matrix, List<String> area) {
-        String firstSymbol = null;
-        for (String cell : area) {
-            var parts = cell.split(":");
-            var row = Integer.parseInt(parts[0]);
-            var col = Integer.parseInt(parts[1]);
-            var currentSymbol = matrix[row][col];
+    private int getRandomBonusSymbol(CompiledGame game) {
+        var sampler = game.getBonusSampler();
+        return sampler == null ? game.getMissSymbol() : sampler.sample(random);
+    }
 
-            if (firstSymbol == null) {
-                firstSymbol = currentSymbol;
-            } else if (!firstSymbol.equals(currentSymbol)) {
-                return false;
-            }
-        }
-        return true;
+    private boolean isBonus(RandomGenerator random, CompiledGame game) {
+        return random.nextInt(100) < game.getBonusPossibility();
     }
 
-    private double applyBonusSymbols(double reward, String[][] matrix, GameConfig config) {
-        for (String[] row : matrix) {
-            for (String cell : row) {
-                GameConfig.Symbol symbol = config.getSymbols().get(cell);
-                if (symbol != null && "bonus".equals(symbol.getType())) {
-                    switch (symbol.getImpact()) {
-                        case "multiply_reward":
-                            reward *= symbol.getRewardMultiplier();
-                            break;
-                        case "extra_bonus":
-                            reward += symbol.getExtra();
-                            break;
-                        case "miss":
-                            break;
-                        default:
-                            throw new IllegalArgumentException("unknown impact: " + symbol.getImpact());
-                    }
+    private double applyBonusSymbols(double reward, SpinContext context) {
+        var game = context.getGame();
+        var effectSymbols = context.effectSymbols;
+        for (int i = 0; i < context.effectCount; i++) {
+            var symbol = effectSymbols[i];
+            switch (game.getImpact(symbol)) {
+                case MULTIPLY_REWARD -> reward *= game.getRewardMultiplier(symbol);
+                case EXTRA_BONUS -> reward += game.getExtra(symbol);
+                default -> {
                 }
             }
         }
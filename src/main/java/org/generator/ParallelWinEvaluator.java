@@ -0,0 +1,83 @@
+package org.generator;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Evaluates games with very large area sets: same symbols stay on the serial path, the areas are split into chunks
+ * checked on the common {@link ForkJoinPool}. Chunks only flag winning areas in {@link SpinContext#areaWins}, the wins
+ * are then added in area order so the result is the same as {@link ArrayWinEvaluator} whatever the split.
+ */
+final class ParallelWinEvaluator implements WinEvaluator {
+
+    /**
+     * Games with at least this many covered areas are evaluated in parallel, {@code slot.parallelAreaThreshold} overrides it
+     */
+    static final int AREA_THRESHOLD = Integer.getInteger("slot.parallelAreaThreshold", 4096);
+
+    static final ParallelWinEvaluator INSTANCE = new ParallelWinEvaluator(1024);
+
+    /**
+     * Areas a task walks serially, below this a chunk is not split further
+     */
+    private final int chunkSize;
+
+    ParallelWinEvaluator(int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be greater than zero");
+        }
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public void evaluate(SpinContext context) {
+        ArrayWinEvaluator.checkSameSymbols(context);
+
+        var game = context.getGame();
+        var areaWins = context.areaWins;
+        var areaCount = game.getAreaCount();
+        ForkJoinPool.commonPool().invoke(new AreaTask(context, 0, areaCount));
+
+        var board = context.board;
+        for (int area = 0; area < areaCount; area++) {
+            if (areaWins[area]) {
+                areaWins[area] = false;
+                context.addWin(board[game.getAreaCells(area)[0]], game.getAreaCombination(area));
+            }
+        }
+
+        if (game.hasClusters()) {
+            ClusterWins.check(context, null);
+        }
+        if (game.hasWays()) {
+            WaysWins.check(context, null, null);
+        }
+    }
+
+    private final class AreaTask extends RecursiveAction {
+        private final SpinContext context;
+        private final int from;
+        private final int to;
+
+        AreaTask(SpinContext context, int from, int to) {
+            this.context = context;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > chunkSize) {
+                var middle = (from + to) >>> 1;
+                invokeAll(new AreaTask(context, from, middle), new AreaTask(context, middle, to));
+                return;
+            }
+            var game = context.getGame();
+            var board = context.board;
+            var areaWins = context.areaWins;
+            for (int area = from; area < to; area++) {
+                areaWins[area] = ArrayWinEvaluator.isWinningArea(board, game.getAreaCells(area));
+            }
+        }
+    }
+}
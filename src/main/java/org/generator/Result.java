@@ -3,6 +3,7 @@ package org.generator;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
+import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -13,8 +14,11 @@ public class Result {
     @JsonProperty("matrix")
     private String[][] matrix;
 
+    /**
+     * A double, or the exact amount in money mode
+     */
     @JsonProperty("reward")
-    private double reward;
+    private Number reward = 0.0;
 
     @JsonProperty("applied_winning_combinations")
     private Map<String, List<String>> appliedWinningCombinations = new HashMap<>();
@@ -22,6 +26,24 @@ public class Result {
     @JsonProperty("applied_bonus_symbols")
     private List<String> appliedBonusSymbols = new ArrayList<>();
 
+    /**
+     * Every board of a cascade spin, null for games which do not cascade
+     */
+    @JsonProperty("cascades")
+    private List<CascadeStep> cascades;
+
+    /**
+     * Free spins the spin triggered, null when it triggered none
+     */
+    @JsonProperty("free_spins")
+    private FreeSpinsRound freeSpins;
+
+    @JsonProperty("rng")
+    private String rng;
+
+    @JsonProperty("seed")
+    private Long seed;
+
     public void setMatrix(String[][] matrix) {
         this.matrix = matrix;
     }
@@ -30,10 +52,22 @@ public class Result {
         this.reward = reward;
     }
 
+    public void setReward(BigDecimal reward) {
+        this.reward = reward;
+    }
+
     public void setAppliedWinningCombinations(Map<String, List<String>> appliedWinningCombinations) {
         this.appliedWinningCombinations = appliedWinningCombinations;
     }
 
+    /**
+     * Random generator and seed the spin was played with, enough to replay it
+     */
+    public void setRandomSource(String rng, long seed) {
+        this.rng = rng;
+        this.seed = seed;
+    }
+
     public void addBonusSymbol(String bonusSymbol) {
         this.appliedBonusSymbols.add(bonusSymbol);
     }
@@ -41,5 +75,20 @@ public class Result {
     public void clearBonusSymbols() {
         this.appliedBonusSymbols.clear();
     }
+
+    public void addCascadeStep(CascadeStep step) {
+        if (cascades == null) {
+            cascades = new ArrayList<>();
+        }
+        cascades.add(step);
+    }
+
+    public void clearCascadeSteps() {
+        this.cascades = null;
+    }
+
+    public void setFreeSpins(FreeSpinsRound freeSpins) {
+        this.freeSpins = freeSpins;
+    }
 }
 
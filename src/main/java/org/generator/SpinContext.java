@@ -0,0 +1,366 @@
+package org.generator;
+
+import org.config.compiled.CompiledGame;
+
+import java.util.*;
+
+/**
+ * Reusable state of one spin: the board as symbol ids, symbol counts, winning (symbol, combination) pairs
+ * and per symbol rewards, all in buffers allocated once. A context belongs to one thread and is reset by
+ * {@link GameProcessor#spin(SpinContext, double)}; objects are only created when a {@link Result} or a matrix is asked for.
+ */
+public final class SpinContext {
+    private final CompiledGame game;
+
+    final WinEvaluator evaluator;
+    final int[] board;
+    final int[] symbolCounts;
+    /**
+     * One bit per cell for every symbol, scratch space of {@link BitboardWinEvaluator}, kept all zero between spins
+     */
+    final long[] symbolBits;
+    /**
+     * One flag per covered area, scratch space of {@link ParallelWinEvaluator}, kept all false between spins
+     */
+    final boolean[] areaWins;
+    /**
+     * Scratch space of {@link ClusterWins}, empty unless the game has cluster combinations; the flags are kept all false
+     * between spins
+     */
+    final int[] clusterStack;
+    final boolean[] clustered;
+    /**
+     * Scratch space of {@link WaysWins}, empty unless the game has ways combinations: cells per symbol and reel, wilds
+     * per reel, and the symbols already evaluated; all kept zero between spins
+     */
+    final int[] waysCounts;
+    final int[] wildCounts;
+    final boolean[] waysSeen;
+
+    /**
+     * Bonus symbols other than MISS in board order, as {@link Result#addBonusSymbol(String)} receives them
+     */
+    final int[] bonusSymbols;
+    int bonusCount;
+
+    /**
+     * Symbols with a {@link CompiledGame#hasBonusEffect(int) bonus effect} in board order, collected while the board is
+     * filled so applying bonus symbols does not walk the board again
+     */
+    final int[] effectSymbols;
+    int effectCount;
+
+    /**
+     * Winning pairs in evaluation order: same symbols combinations first, then linear areas in config order, then clusters,
+     * then ways; a ways win is paid once per way, any other win once
+     */
+    final int[] winSymbols;
+    final int[] winCombinations;
+    final long[] winWays;
+    int winCount;
+    /**
+     * One bit per combination id which won at least once, the pairs above keep how often and for which symbol
+     */
+    final long[] combinationBits;
+
+    /**
+     * Reward multiplier per symbol id, 0 for undeclared and unknown symbols which never pay
+     */
+    final double[] baseMultipliers;
+    final double[] symbolRewards;
+    final boolean[] winning;
+    double reward;
+
+    /**
+     * Null unless the game cascades, the buffers above then hold the wins and bonus symbols of every step
+     */
+    final CascadeState cascade;
+
+    /**
+     * Null unless symbols of the game trigger free spins
+     */
+    final FreeSpinsState freeSpins;
+
+    /**
+     * Symbols of a loaded matrix which are unknown to the config, they get ids past the compiled symbol table
+     */
+    private final List<String> unknownSymbols = new ArrayList<>();
+
+    public SpinContext(CompiledGame game) {
+        this(game, WinEvaluator.forGame(game));
+    }
+
+    SpinContext(CompiledGame game, WinEvaluator evaluator) {
+        this.game = game;
+        var cells = game.getCellCount();
+        // unknown symbols of a loaded matrix can add at most one id per cell
+        var symbolSpace = game.getSymbolCount() + cells;
+        this.evaluator = evaluator;
+        this.board = new int[cells];
+        this.symbolCounts = new int[symbolSpace];
+        this.symbolBits = new long[game.isBitboard() ? symbolSpace : 0];
+        this.areaWins = new boolean[evaluator instanceof ParallelWinEvaluator ? game.getAreaCount() : 0];
+        this.clusterStack = new int[game.hasClusters() ? cells : 0];
+        this.clustered = new boolean[clusterStack.length];
+        this.waysCounts = new int[game.hasWays() ? symbolSpace * game.getColumns() : 0];
+        this.wildCounts = new int[game.hasWays() ? game.getColumns() : 0];
+        this.waysSeen = new boolean[game.hasWays() ? symbolSpace : 0];
+        // every step of a cascade can land new bonus symbols and add new wins, a board wins at most once per symbol,
+        // area and cluster, and once more per symbol with ways
+        var steps = game.getCascadeSteps() + 1;
+        this.bonusSymbols = new int[cells * steps];
+        this.effectSymbols = new int[cells * steps];
+        this.winSymbols = new int[(cells + game.getAreaCount() + clusterStack.length + waysSeen.length) * steps];
+        this.winCombinations = new int[winSymbols.length];
+        this.winWays = new long[winSymbols.length];
+        this.combinationBits = new long[(game.getCombinationCount() + Long.SIZE - 1) / Long.SIZE];
+        this.baseMultipliers = new double[symbolSpace];
+        for (int symbol = 0; symbol < game.getSymbolCount(); symbol++) {
+            baseMultipliers[symbol] = game.isDeclared(symbol) ? game.getRewardMultiplier(symbol) : 0;
+        }
+        this.symbolRewards = new double[symbolSpace];
+        this.winning = new boolean[symbolSpace];
+        this.cascade = game.isCascade() ? new CascadeState(game, symbolSpace) : null;
+        this.freeSpins = game.hasFreeSpins() ? new FreeSpinsState(game) : null;
+    }
+
+    public CompiledGame getGame() {
+        return game;
+    }
+
+    void reset() {
+        bonusCount = 0;
+        effectCount = 0;
+        clearWins();
+        unknownSymbols.clear();
+        if (cascade != null) {
+            cascade.steps = 0;
+        }
+        if (freeSpins != null) {
+            freeSpins.reset();
+        }
+    }
+
+    void clearWins() {
+        for (int i = 0; i < winCount; i++) {
+            winning[winSymbols[i]] = false;
+            symbolRewards[winSymbols[i]] = 0;
+            combinationBits[winCombinations[i] >>> 6] = 0;
+        }
+        winCount = 0;
+        reward = 0;
+    }
+
+    void addWin(int symbol, int combination) {
+        addWin(symbol, combination, 1);
+    }
+
+    void addWin(int symbol, int combination, long ways) {
+        winSymbols[winCount] = symbol;
+        winCombinations[winCount] = combination;
+        winWays[winCount] = ways;
+        winCount++;
+        combinationBits[combination >>> 6] |= 1L << combination;
+    }
+
+    /**
+     * Loads a matrix produced outside of the processor, e.g. by tests
+     */
+    void load(String[][] matrix) {
+        reset();
+        var columns = game.getColumns();
+        if (matrix.length * columns != board.length) {
+            throw new IllegalArgumentException("Matrix must have " + game.getRows() + " rows");
+        }
+        for (int row = 0; row < matrix.length; row++) {
+            for (int col = 0; col < columns; col++) {
+                var name = matrix[row][col];
+                var id = name == null ? -1 : game.getSymbolId(name);
+                if (id < 0) {
+                    var unknown = unknownSymbols.indexOf(name);
+                    if (unknown < 0) {
+                        unknownSymbols.add(name);
+                        unknown = unknownSymbols.size() - 1;
+                    }
+                    id = game.getSymbolCount() + unknown;
+                }
+                board[row * columns + col] = id;
+            }
+        }
+        for (int symbol : board) {
+            if (symbol < game.getSymbolCount() && game.hasBonusEffect(symbol)) {
+                effectSymbols[effectCount++] = symbol;
+            }
+        }
+    }
+
+    public int getSymbolAt(int cell) {
+        return board[cell];
+    }
+
+    public String getSymbolName(int symbol) {
+        return symbol < game.getSymbolCount() ? game.getSymbolName(symbol) : unknownSymbols.get(symbol - game.getSymbolCount());
+    }
+
+    public int getWinCount() {
+        return winCount;
+    }
+
+    public int getWinSymbol(int win) {
+        return winSymbols[win];
+    }
+
+    public int getWinCombination(int win) {
+        return winCombinations[win];
+    }
+
+    /**
+     * Times the win is paid: its number of ways for a ways combination, 1 otherwise
+     */
+    public long getWinWays(int win) {
+        return winWays[win];
+    }
+
+    /**
+     * Reward of a winning symbol before bonus symbols, valid after the reward was calculated
+     */
+    public double getSymbolReward(int symbol) {
+        return symbolRewards[symbol];
+    }
+
+    public boolean isWinning(int symbol) {
+        return winning[symbol];
+    }
+
+    public boolean isCombinationWinning(int combination) {
+        return (combinationBits[combination >>> 6] & 1L << combination) != 0;
+    }
+
+    /**
+     * Word {@code word} of the winning combinations, combination {@code c} is bit {@code c % 64} of word {@code c / 64}
+     */
+    public long getCombinationBits(int word) {
+        return combinationBits[word];
+    }
+
+    public int getBonusCount() {
+        return bonusCount;
+    }
+
+    public int getBonusSymbol(int index) {
+        return bonusSymbols[index];
+    }
+
+    public int getEffectCount() {
+        return effectCount;
+    }
+
+    /**
+     * Bonus symbols which multiply the reward or add to it, in board order
+     */
+    public int getEffectSymbol(int index) {
+        return effectSymbols[index];
+    }
+
+    public double getReward() {
+        return reward;
+    }
+
+    /**
+     * Boards evaluated by the last cascade spin, the first generated one included; 0 when the spin did not cascade.
+     * The board of the context is the last one, the wins of the context are those of all steps
+     */
+    public int getStepCount() {
+        return cascade == null ? 0 : cascade.steps;
+    }
+
+    public int getStepSymbolAt(int step, int cell) {
+        return cascade.boards[step * board.length + cell];
+    }
+
+    /**
+     * The wins of a step are those from the end of the previous step up to this index, exclusive
+     */
+    public int getStepWinEnd(int step) {
+        return cascade.winEnds[step];
+    }
+
+    /**
+     * Reward of the wins of one step, bonus symbols are applied once to the sum of all steps
+     */
+    public double getStepReward(int step) {
+        return cascade.rewards[step];
+    }
+
+    /**
+     * Free spins the last spin triggered, 0 when it triggered none
+     */
+    public int getFreeSpinCount() {
+        return freeSpins == null ? 0 : freeSpins.spins;
+    }
+
+    public int getWinningFreeSpinCount() {
+        return freeSpins == null ? 0 : freeSpins.winningSpins;
+    }
+
+    /**
+     * Reward of the free spins with the multipliers of the triggering symbols, it is part of {@link #getReward()}
+     */
+    public double getFreeSpinsReward() {
+        return freeSpins == null ? 0 : freeSpins.reward;
+    }
+
+    /**
+     * The current board, the last one of a cascade spin
+     */
+    public String[][] toMatrix() {
+        return toMatrix(board, 0);
+    }
+
+    private String[][] toMatrix(int[] boards, int offset) {
+        var columns = game.getColumns();
+        var matrix = new String[game.getRows()][columns];
+        for (int cell = 0; cell < board.length; cell++) {
+            matrix[cell / columns][cell % columns] = getSymbolName(boards[offset + cell]);
+        }
+        return matrix;
+    }
+
+    public Map<String, List<String>> toWinningCombinations() {
+        return toWinningCombinations(0, winCount);
+    }
+
+    private Map<String, List<String>> toWinningCombinations(int from, int to) {
+        Map<String, List<String>> winningCombinations = new HashMap<>();
+        for (int i = from; i < to; i++) {
+            winningCombinations.computeIfAbsent(getSymbolName(winSymbols[i]), key -> new ArrayList<>())
+                    .add(game.getCombinationName(winCombinations[i]));
+        }
+        return winningCombinations;
+    }
+
+    /**
+     * Copies the spin into {@code gameResult}: matrix, reward, winning combinations and bonus symbols.
+     * A cascade spin gives its first board as the matrix, the wins of all steps, and every step on its own.
+     * Triggered free spins are summed up, the wins of the base board do not include theirs
+     */
+    public Result toResult(Result gameResult) {
+        var steps = getStepCount();
+        gameResult.setMatrix(steps > 0 ? toMatrix(cascade.boards, 0) : toMatrix());
+        gameResult.setReward(reward);
+        gameResult.setAppliedWinningCombinations(toWinningCombinations());
+        gameResult.clearBonusSymbols();
+        for (int i = 0; i < bonusCount; i++) {
+            gameResult.addBonusSymbol(game.getSymbolName(bonusSymbols[i]));
+        }
+        gameResult.clearCascadeSteps();
+        for (int step = 0; step < steps; step++) {
+            var from = step == 0 ? 0 : cascade.winEnds[step - 1];
+            gameResult.addCascadeStep(new CascadeStep(toMatrix(cascade.boards, step * board.length), cascade.rewards[step],
+                    toWinningCombinations(from, cascade.winEnds[step])));
+        }
+        var freeSpinCount = getFreeSpinCount();
+        gameResult.setFreeSpins(freeSpinCount > 0 ? new FreeSpinsRound(freeSpinCount, freeSpins.winningSpins, freeSpins.reward) : null);
+        return gameResult;
+    }
+}
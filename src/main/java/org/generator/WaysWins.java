@@ -0,0 +1,86 @@
+package org.generator;
+
+/**
+ * Finds ways wins: a standard symbol wins on the reels from the first one on which each hold the symbol or a wild, every
+ * choice of one such cell per reel is a way. Bonus symbols and symbols missing from the config do not win ways.
+ * <p>
+ * The board is counted once per symbol and reel into {@link SpinContext#waysCounts}, the ways of a symbol are then the
+ * product of its counts over its reels, without the ways made of wilds only. A board is evaluated in
+ * O(rows * columns + symbols * columns) instead of walking every path.
+ */
+final class WaysWins {
+
+    private WaysWins() {
+    }
+
+    /**
+     * Adds a win with its number of ways for every symbol which reaches a ways combination, in first seen order of the
+     * symbols
+     *
+     * @param symbols receives the symbol of every win when not null
+     * @param lengths receives the number of reels of every win when not null
+     * @return number of wins
+     */
+    static int check(SpinContext context, int[] symbols, int[] lengths) {
+        var game = context.getGame();
+        var board = context.board;
+        var columns = game.getColumns();
+        var counts = context.waysCounts;
+        var wilds = context.wildCounts;
+        var seen = context.waysSeen;
+        for (int cell = 0; cell < board.length; cell++) {
+            var symbol = board[cell];
+            if (isWild(context, symbol)) {
+                wilds[cell % columns]++;
+            } else if (winsWays(context, symbol)) {
+                counts[symbol * columns + cell % columns]++;
+            }
+        }
+
+        var wins = 0;
+        for (int cell = 0; cell < board.length; cell++) {
+            var symbol = board[cell];
+            if (seen[symbol] || !winsWays(context, symbol)) {
+                continue;
+            }
+            seen[symbol] = true;
+            var offset = symbol * columns;
+            long ways = 1;
+            long wildWays = 1;
+            var length = 0;
+            while (length < columns && counts[offset + length] + wilds[length] > 0) {
+                ways *= counts[offset + length] + wilds[length];
+                wildWays *= wilds[length];
+                length++;
+            }
+            var combination = game.getWaysCombination(length);
+            if (combination >= 0 && ways > wildWays) {
+                context.addWin(symbol, combination, ways - wildWays);
+                if (symbols != null) {
+                    symbols[wins] = symbol;
+                    lengths[wins] = length;
+                }
+                wins++;
+            }
+        }
+
+        for (int cell = 0; cell < board.length; cell++) {
+            counts[board[cell] * columns + cell % columns] = 0;
+            seen[board[cell]] = false;
+        }
+        for (int col = 0; col < columns; col++) {
+            wilds[col] = 0;
+        }
+        return wins;
+    }
+
+    private static boolean isWild(SpinContext context, int symbol) {
+        var game = context.getGame();
+        return symbol < game.getSymbolCount() && game.isWild(symbol);
+    }
+
+    private static boolean winsWays(SpinContext context, int symbol) {
+        var game = context.getGame();
+        return symbol < game.getSymbolCount() && !game.isBonus(symbol) && !game.isWild(symbol);
+    }
+}
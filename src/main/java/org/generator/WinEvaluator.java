@@ -0,0 +1,21 @@
+package org.generator;
+
+import org.config.compiled.CompiledGame;
+
+/**
+ * Finds the winning (symbol, combination) pairs of the board in a {@link SpinContext}.
+ * Implementations must add same symbols wins in first seen order of the symbols, then linear wins in area order,
+ * then cluster wins in the order of the first cell of the clusters, see {@link ClusterWins}, then ways wins in first
+ * seen order of the symbols, see {@link WaysWins}.
+ */
+interface WinEvaluator {
+
+    void evaluate(SpinContext context);
+
+    static WinEvaluator forGame(CompiledGame game) {
+        if (game.getAreaCount() >= ParallelWinEvaluator.AREA_THRESHOLD) {
+            return ParallelWinEvaluator.INSTANCE;
+        }
+        return game.isBitboard() ? BitboardWinEvaluator.INSTANCE : ArrayWinEvaluator.INSTANCE;
+    }
+}
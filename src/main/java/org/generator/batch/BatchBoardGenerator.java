@@ -0,0 +1,157 @@
+package org.generator.batch;
+
+import org.config.compiled.CompiledGame;
+import org.generator.sampler.AliasSampler;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Fills whole {@link BoardBatch}es at once.
+ * <p>
+ * Every (cell, board) slot takes one value of a counter based SplitMix64 stream, so slots can be generated in any
+ * order and in parallel lanes: the low 32 bits decide on a bonus draw, the high 32 bits pick the alias column and
+ * the unit inside it by multiply-shift. The draw is not rejection sampled, each probability is off by less than
+ * {@code size * totalWeight / 2^32} of the alias table, far below simulation noise.
+ * <p>
+ * {@link #create(CompiledGame, RandomGenerator)} returns the Vector API implementation when the
+ * {@code jdk.incubator.vector} module is available and the scalar one otherwise, both fill identical boards.
+ * Reel strip games always get a scalar generator taking one stream value per column of a board.
+ */
+public abstract class BatchBoardGenerator {
+    static final long GAMMA = 0x9E3779B97F4A7C15L;
+    static final long MIX_1 = 0xBF58476D1CE4E5B9L;
+    static final long MIX_2 = 0x94D049BB133111EBL;
+    static final long LOW_BITS = 0xFFFFFFFFL;
+
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+    private static final String VECTOR_GENERATOR = "org.generator.batch.VectorBatchBoardGenerator";
+
+    final CompiledGame game;
+    final int cells;
+    final int bonusPossibility;
+    final int missSymbol;
+    /**
+     * Empty for reel strip games
+     */
+    final Table[] cellTables;
+    /**
+     * Null when bonus weights are empty, bonus draws are always a miss then
+     */
+    final Table bonusTable;
+    private long key;
+    private long counter;
+
+    BatchBoardGenerator(CompiledGame game, RandomGenerator random) {
+        this.game = game;
+        this.cells = game.getCellCount();
+        this.bonusPossibility = game.getBonusPossibility();
+        this.missSymbol = game.getMissSymbol();
+        this.cellTables = new Table[game.isReelStrips() ? 0 : cells];
+        for (int cell = 0; cell < cellTables.length; cell++) {
+            cellTables[cell] = new Table(game.getCellSampler(cell));
+        }
+        this.bonusTable = game.getBonusSampler() == null ? null : new Table(game.getBonusSampler());
+        this.key = random.nextLong();
+    }
+
+    public static BatchBoardGenerator create(CompiledGame game, RandomGenerator random) {
+        if (!game.isReelStrips() && ModuleLayer.boot().findModule(VECTOR_MODULE).isPresent()) {
+            try {
+                return (BatchBoardGenerator) Class.forName(VECTOR_GENERATOR)
+                        .getDeclaredConstructor(CompiledGame.class, RandomGenerator.class)
+                        .newInstance(game, random);
+            } catch (ReflectiveOperationException | LinkageError e) {
+                // no usable vector shape on this platform
+            }
+        }
+        return scalar(game, random);
+    }
+
+    public static BatchBoardGenerator scalar(CompiledGame game, RandomGenerator random) {
+        if (game.isReelStrips()) {
+            return new ReelStripBatchBoardGenerator(game, random);
+        }
+        return new ScalarBatchBoardGenerator(game, random);
+    }
+
+    public CompiledGame getGame() {
+        return game;
+    }
+
+    /**
+     * Starts a new stream keyed by the next value of {@code random}, as a new generator would, without rebuilding the tables
+     */
+    public void reseed(RandomGenerator random) {
+        key = random.nextLong();
+        counter = 0;
+    }
+
+    /**
+     * Overwrites every board of the batch with new boards
+     */
+    public void generate(BoardBatch batch) {
+        if (batch.getCells() != cells) {
+            throw new IllegalArgumentException("Batch has " + batch.getCells() + " cells, the board has " + cells);
+        }
+        fill(batch, counter);
+        counter += batch.symbols.length;
+    }
+
+    abstract void fill(BoardBatch batch, long first);
+
+    long key() {
+        return key;
+    }
+
+    static long mix(long x) {
+        var z = (x ^ (x >>> 30)) * MIX_1;
+        z = (z ^ (z >>> 27)) * MIX_2;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Symbol of the slot with stream index {@code index}, the definition the vector implementation follows
+     */
+    int draw(int cell, long index) {
+        var z = mix(key + index * GAMMA);
+        var bonus = ((z & LOW_BITS) * 100) >>> 32 < bonusPossibility;
+        if (bonus && bonusTable == null) {
+            return missSymbol;
+        }
+        return (bonus ? bonusTable : cellTables[cell]).draw(z >>> 32);
+    }
+
+    /**
+     * Alias table with the symbol of every column and of its alias resolved up front
+     */
+    static final class Table {
+        final int columns;
+        final int totalWeight;
+        final int[] thresholds;
+        final int[] columnSymbols;
+        final int[] aliasSymbols;
+
+        Table(AliasSampler sampler) {
+            this.columns = sampler.size();
+            this.totalWeight = sampler.getTotalWeight();
+            this.thresholds = new int[columns];
+            this.columnSymbols = new int[columns];
+            this.aliasSymbols = new int[columns];
+            for (int column = 0; column < columns; column++) {
+                thresholds[column] = sampler.getThreshold(column);
+                columnSymbols[column] = sampler.getSymbol(column);
+                aliasSymbols[column] = sampler.getSymbol(sampler.getAlias(column));
+            }
+        }
+
+        /**
+         * @param bits 32 uniform bits
+         */
+        int draw(long bits) {
+            var scaled = bits * columns;
+            var column = (int) (scaled >>> 32);
+            var unit = ((scaled & LOW_BITS) * totalWeight) >>> 32;
+            return unit < thresholds[column] ? columnSymbols[column] : aliasSymbols[column];
+        }
+    }
+}
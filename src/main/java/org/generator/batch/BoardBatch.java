@@ -0,0 +1,35 @@
+package org.generator.batch;
+
+/**
+ * Symbol ids of several boards in structure of arrays layout: all boards of a cell are adjacent,
+ * {@code symbols[cell * size + board]}, so one cell of many boards is a single vector load.
+ */
+public final class BoardBatch {
+    private final int cells;
+    private final int size;
+    final int[] symbols;
+
+    public BoardBatch(int cells, int size) {
+        if (cells <= 0 || size <= 0) {
+            throw new IllegalArgumentException("Batch must have at least one cell and one board");
+        }
+        this.cells = cells;
+        this.size = size;
+        this.symbols = new int[Math.multiplyExact(cells, size)];
+    }
+
+    public int getCells() {
+        return cells;
+    }
+
+    /**
+     * Number of boards in the batch
+     */
+    public int getSize() {
+        return size;
+    }
+
+    public int getSymbol(int board, int cell) {
+        return symbols[cell * size + board];
+    }
+}
@@ -0,0 +1,44 @@
+package org.generator.batch;
+
+import org.config.compiled.CompiledGame;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Boards of reel strip games: the high 32 bits of one stream value per (board, column) pick the stop of the strip by
+ * multiply-shift, the column then copies the following symbols of the strip, as
+ * {@link org.generator.GameProcessor#generateMatrix(org.generator.SpinContext)} does
+ */
+final class ReelStripBatchBoardGenerator extends BatchBoardGenerator {
+    private final int columns;
+    private final int[][] strips;
+
+    ReelStripBatchBoardGenerator(CompiledGame game, RandomGenerator random) {
+        super(game, random);
+        this.columns = game.getColumns();
+        this.strips = new int[columns][];
+        for (int col = 0; col < columns; col++) {
+            strips[col] = game.getReelStrip(col);
+        }
+    }
+
+    @Override
+    void fill(BoardBatch batch, long first) {
+        var symbols = batch.symbols;
+        var size = batch.getSize();
+        var key = key();
+        for (int board = 0; board < size; board++) {
+            for (int col = 0; col < columns; col++) {
+                var strip = strips[col];
+                var z = mix(key + (first + (long) board * columns + col) * GAMMA);
+                var position = (int) (((z >>> 32) * strip.length) >>> 32);
+                for (int cell = col; cell < cells; cell += columns) {
+                    symbols[cell * size + board] = strip[position];
+                    if (++position == strip.length) {
+                        position = 0;
+                    }
+                }
+            }
+        }
+    }
+}
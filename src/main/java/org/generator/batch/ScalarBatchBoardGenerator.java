@@ -0,0 +1,27 @@
+package org.generator.batch;
+
+import org.config.compiled.CompiledGame;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Plain loops, used when the Vector API is not available
+ */
+final class ScalarBatchBoardGenerator extends BatchBoardGenerator {
+
+    ScalarBatchBoardGenerator(CompiledGame game, RandomGenerator random) {
+        super(game, random);
+    }
+
+    @Override
+    void fill(BoardBatch batch, long first) {
+        var symbols = batch.symbols;
+        var size = batch.getSize();
+        for (int cell = 0; cell < cells; cell++) {
+            var offset = cell * size;
+            for (int board = 0; board < size; board++) {
+                symbols[offset + board] = draw(cell, first + offset + board);
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package org.generator.batch;
+
+import jdk.incubator.vector.*;
+import org.config.compiled.CompiledGame;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * SIMD implementation of {@link BatchBoardGenerator}: the SplitMix64 values, bonus decisions and alias column
+ * arithmetic of one cell are computed for a vector of boards at once, table lookups are gathers.
+ * Only loaded by reflection when the {@code jdk.incubator.vector} module is present.
+ */
+final class VectorBatchBoardGenerator extends BatchBoardGenerator {
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+    /**
+     * Same lane count as {@link #LONGS}, so masks and converted vectors line up lane by lane
+     */
+    private static final VectorSpecies<Integer> INTS = VectorSpecies.of(int.class, VectorShape.forBitSize(LONGS.vectorBitSize() / 2));
+
+    private final int[] columnScratch = new int[LONGS.length()];
+    private final int[] bonusColumnScratch = new int[LONGS.length()];
+
+    VectorBatchBoardGenerator(CompiledGame game, RandomGenerator random) {
+        super(game, random);
+        if (LONGS.length() < 2) {
+            throw new UnsupportedOperationException("No SIMD shape for longs");
+        }
+    }
+
+    @Override
+    void fill(BoardBatch batch, long first) {
+        var symbols = batch.symbols;
+        var size = batch.getSize();
+        var lanes = LONGS.length();
+        var bound = LONGS.loopBound(size);
+        var iota = LongVector.zero(LONGS).addIndex(1);
+        var key = key();
+
+        for (int cell = 0; cell < cells; cell++) {
+            var table = cellTables[cell];
+            var offset = cell * size;
+            var board = 0;
+            for (; board < bound; board += lanes) {
+                var index = iota.add(first + offset + board);
+                var z = mix(index.mul(GAMMA).add(key));
+
+                var bonus = z.and(LOW_BITS).mul(100).lanewise(VectorOperators.LSHR, 32).lt(bonusPossibility).cast(INTS);
+                var bits = z.lanewise(VectorOperators.LSHR, 32);
+                var symbol = draw(table, bits, columnScratch);
+                if (bonus.anyTrue()) {
+                    var bonusSymbol = bonusTable == null ? IntVector.broadcast(INTS, missSymbol) : draw(bonusTable, bits, bonusColumnScratch);
+                    symbol = symbol.blend(bonusSymbol, bonus);
+                }
+                symbol.intoArray(symbols, offset + board);
+            }
+            for (; board < size; board++) {
+                symbols[offset + board] = draw(cell, first + offset + board);
+            }
+        }
+    }
+
+    private static LongVector mix(LongVector x) {
+        var z = x.lanewise(VectorOperators.LSHR, 30).lanewise(VectorOperators.XOR, x).mul(MIX_1);
+        z = z.lanewise(VectorOperators.LSHR, 27).lanewise(VectorOperators.XOR, z).mul(MIX_2);
+        return z.lanewise(VectorOperators.LSHR, 31).lanewise(VectorOperators.XOR, z);
+    }
+
+    /**
+     * Vector form of {@link Table#draw(long)}
+     */
+    private static IntVector draw(Table table, LongVector bits, int[] columnScratch) {
+        var scaled = bits.mul(table.columns);
+        var column = (IntVector) scaled.lanewise(VectorOperators.LSHR, 32).convertShape(VectorOperators.L2I, INTS, 0);
+        var unit = (IntVector) scaled.and(LOW_BITS).mul(table.totalWeight).lanewise(VectorOperators.LSHR, 32)
+                .convertShape(VectorOperators.L2I, INTS, 0);
+        column.intoArray(columnScratch, 0);
+
+        var thresholds = IntVector.fromArray(INTS, table.thresholds, 0, columnScratch, 0);
+        var columnSymbols = IntVector.fromArray(INTS, table.columnSymbols, 0, columnScratch, 0);
+        var aliasSymbols = IntVector.fromArray(INTS, table.aliasSymbols, 0, columnScratch, 0);
+        return columnSymbols.blend(aliasSymbols, unit.compare(VectorOperators.GE, thresholds));
+    }
+}
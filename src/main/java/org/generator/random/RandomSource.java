@@ -0,0 +1,50 @@
+package org.generator.random;
+
+import java.security.SecureRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * Root of the random streams of a run. Every worker takes its own stream with {@link #split()},
+ * streams are handed out in a deterministic order, so a seeded source replays every spin exactly.
+ */
+public final class RandomSource {
+    private final RngAlgorithm algorithm;
+    private final long seed;
+    private final RandomGenerator root;
+
+    private RandomSource(RngAlgorithm algorithm, long seed) {
+        this.algorithm = algorithm;
+        this.seed = seed;
+        this.root = algorithm.create(seed);
+    }
+
+    public static RandomSource of(RngAlgorithm algorithm, long seed) {
+        return new RandomSource(algorithm, seed);
+    }
+
+    /**
+     * Source with a fresh seed, the seed is still available to replay the run
+     */
+    public static RandomSource of(RngAlgorithm algorithm) {
+        return new RandomSource(algorithm, new SecureRandom().nextLong());
+    }
+
+    public RngAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public synchronized RandomGenerator split() {
+        return algorithm.split(root);
+    }
+
+    /**
+     * Seed for a child source, {@code RandomSource.of(getAlgorithm(), nextSeed())} replays on its own
+     */
+    public synchronized long nextSeed() {
+        return root.nextLong();
+    }
+}
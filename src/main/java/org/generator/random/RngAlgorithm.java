@@ -0,0 +1,65 @@
+package org.generator.random;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGeneratorFactory;
+
+/**
+ * Random generator algorithms a game can be played with, all of them are seedable and can be split into independent streams
+ */
+public enum RngAlgorithm {
+    L64X128_MIX("L64X128MixRandom"),
+    SPLITTABLE("SplittableRandom"),
+    XOSHIRO("Xoshiro256PlusPlus");
+
+    public static final RngAlgorithm DEFAULT = L64X128_MIX;
+
+    private final String algorithmName;
+    private volatile RandomGeneratorFactory<RandomGenerator> factory;
+
+    RngAlgorithm(String algorithmName) {
+        this.algorithmName = algorithmName;
+    }
+
+    public String getAlgorithmName() {
+        return algorithmName;
+    }
+
+    public RandomGenerator create(long seed) {
+        return factory().create(seed);
+    }
+
+    /**
+     * Creates a new independent stream from {@code parent}, advancing the parent past it
+     */
+    public RandomGenerator split(RandomGenerator parent) {
+        if (parent instanceof RandomGenerator.SplittableGenerator splittable) {
+            return splittable.split();
+        }
+        if (parent instanceof RandomGenerator.JumpableGenerator jumpable) {
+            return jumpable.copyAndJump();
+        }
+        return create(parent.nextLong());
+    }
+
+    /**
+     * Accepts the enum name or the JDK algorithm name, case insensitive
+     */
+    public static RngAlgorithm fromName(String name) {
+        for (RngAlgorithm algorithm : values()) {
+            if (algorithm.name().equalsIgnoreCase(name) || algorithm.algorithmName.equalsIgnoreCase(name)) {
+                return algorithm;
+            }
+        }
+        throw new IllegalArgumentException("unknown rng: " + name + ", expected one of " + Arrays.toString(values()));
+    }
+
+    private RandomGeneratorFactory<RandomGenerator> factory() {
+        var result = factory;
+        if (result == null) {
+            result = RandomGeneratorFactory.of(algorithmName);
+            factory = result;
+        }
+        return result;
+    }
+}
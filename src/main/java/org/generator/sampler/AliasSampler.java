@@ -0,0 +1,146 @@
+package org.generator.sampler;
+
+import java.util.ArrayDeque;
+import java.util.random.RandomGenerator;
+
+/**
+ * Walker/Vose alias table over integer weights, each draw is O(1) and allocation free.
+ * The table is exact: every column holds {@code totalWeight} units, so a single uniform value
+ * in {@code [0, size * totalWeight)} selects the column and the position inside it without rounding.
+ */
+public final class AliasSampler implements WeightedSampler {
+    private final int[] symbols;
+    private final int[] weights;
+    private final int totalWeight;
+    /**
+     * Units of a column which belong to the column itself, the rest belongs to {@link #alias}
+     */
+    private final int[] thresholds;
+    private final int[] alias;
+    private final long bound;
+
+    public AliasSampler(int[] symbols, int[] weights) {
+        if (symbols.length != weights.length || symbols.length == 0) {
+            throw new IllegalArgumentException("Symbols and weights must be non empty and have the same length");
+        }
+        var total = 0L;
+        for (int weight : weights) {
+            if (weight < 0) {
+                throw new IllegalArgumentException("Weights must not be negative");
+            }
+            total += weight;
+        }
+        if (total <= 0 || total > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Total weight must be positive and fit into int: " + total);
+        }
+
+        this.symbols = symbols.clone();
+        this.weights = weights.clone();
+        this.totalWeight = (int) total;
+
+        var size = symbols.length;
+        this.thresholds = new int[size];
+        this.alias = new int[size];
+        this.bound = (long) size * totalWeight;
+
+        // Vose: scale weights by size so that an average column is exactly full
+        var scaled = new long[size];
+        var small = new ArrayDeque<Integer>();
+        var large = new ArrayDeque<Integer>();
+        for (int i = 0; i < size; i++) {
+            scaled[i] = (long) weights[i] * size;
+            alias[i] = i;
+            (scaled[i] < totalWeight ? small : large).add(i);
+        }
+        while (!small.isEmpty() && !large.isEmpty()) {
+            int less = small.poll();
+            int more = large.poll();
+            thresholds[less] = (int) scaled[less];
+            alias[less] = more;
+            scaled[more] -= totalWeight - scaled[less];
+            (scaled[more] < totalWeight ? small : large).add(more);
+        }
+        // Integer arithmetic leaves no rounding residue, remaining columns are exactly full
+        while (!large.isEmpty()) {
+            thresholds[large.poll()] = totalWeight;
+        }
+        while (!small.isEmpty()) {
+            thresholds[small.poll()] = totalWeight;
+        }
+    }
+
+    private AliasSampler(int[] symbols, int[] weights, int[] thresholds, int[] alias) {
+        if (symbols.length == 0 || weights.length != symbols.length || thresholds.length != symbols.length || alias.length != symbols.length) {
+            throw new IllegalArgumentException("Alias table columns must be non empty and have the same length");
+        }
+        var total = 0L;
+        for (int weight : weights) {
+            total += weight;
+        }
+        if (total <= 0 || total > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Total weight must be positive and fit into int: " + total);
+        }
+        this.symbols = symbols;
+        this.weights = weights;
+        this.totalWeight = (int) total;
+        this.thresholds = thresholds;
+        this.alias = alias;
+        this.bound = (long) symbols.length * totalWeight;
+    }
+
+    /**
+     * Restores a table built before, e.g. from a compiled config file, the arrays are taken over without copying
+     */
+    public static AliasSampler fromTable(int[] symbols, int[] weights, int[] thresholds, int[] alias) {
+        return new AliasSampler(symbols, weights, thresholds, alias);
+    }
+
+    @Override
+    public int sample(RandomGenerator random) {
+        var value = bound <= Integer.MAX_VALUE ? random.nextInt((int) bound) : random.nextLong(bound);
+        return sampleAt(value);
+    }
+
+    /**
+     * Maps a uniform value in {@code [0, size * totalWeight)} to a symbol
+     */
+    public int sampleAt(long value) {
+        var column = (int) (value / totalWeight);
+        var unit = value - (long) column * totalWeight;
+        return symbols[unit < thresholds[column] ? column : alias[column]];
+    }
+
+    /**
+     * Exclusive upper bound of the uniform value consumed by {@link #sampleAt(long)}
+     */
+    public long getBound() {
+        return bound;
+    }
+
+    public int getTotalWeight() {
+        return totalWeight;
+    }
+
+    public int getThreshold(int column) {
+        return thresholds[column];
+    }
+
+    public int getAlias(int column) {
+        return alias[column];
+    }
+
+    @Override
+    public int size() {
+        return symbols.length;
+    }
+
+    @Override
+    public int getSymbol(int index) {
+        return symbols[index];
+    }
+
+    @Override
+    public int getWeight(int index) {
+        return weights[index];
+    }
+}
@@ -0,0 +1,61 @@
+package org.generator.sampler;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Reference sampler: linear scan over cumulative weights, one {@code nextInt(totalWeight)} per draw.
+ * This is how symbols were originally drawn, kept to verify faster samplers against it.
+ */
+public final class CumulativeSampler implements WeightedSampler {
+    private final int[] symbols;
+    private final int[] weights;
+    private final int[] cumulativeWeights;
+    private final int totalWeight;
+
+    public CumulativeSampler(int[] symbols, int[] weights) {
+        if (symbols.length != weights.length) {
+            throw new IllegalArgumentException("Symbols and weights must have the same length");
+        }
+        this.symbols = symbols.clone();
+        this.weights = weights.clone();
+        this.cumulativeWeights = new int[weights.length];
+        var total = 0L;
+        for (int i = 0; i < weights.length; i++) {
+            if (weights[i] < 0) {
+                throw new IllegalArgumentException("Weights must not be negative");
+            }
+            total += weights[i];
+            cumulativeWeights[i] = (int) total;
+        }
+        if (total <= 0 || total > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Total weight must be positive and fit into int: " + total);
+        }
+        this.totalWeight = (int) total;
+    }
+
+    @Override
+    public int sample(RandomGenerator random) {
+        var randomValue = random.nextInt(totalWeight);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (randomValue < cumulativeWeights[i]) {
+                return symbols[i];
+            }
+        }
+        throw new IllegalStateException("Random value is out of the cumulative range: " + randomValue);
+    }
+
+    @Override
+    public int size() {
+        return symbols.length;
+    }
+
+    @Override
+    public int getSymbol(int index) {
+        return symbols[index];
+    }
+
+    @Override
+    public int getWeight(int index) {
+        return weights[index];
+    }
+}
@@ -0,0 +1,20 @@
+package org.generator.sampler;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Draws a symbol id with probability proportional to its integer weight
+ */
+public interface WeightedSampler {
+
+    int sample(RandomGenerator random);
+
+    /**
+     * Number of symbols the sampler draws from, including zero weighted ones
+     */
+    int size();
+
+    int getSymbol(int index);
+
+    int getWeight(int index);
+}
@@ -0,0 +1,209 @@
+package org.journal;
+
+import org.config.compiled.CompiledGame;
+import org.generator.SpinContext;
+import org.generator.random.RngAlgorithm;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32C;
+
+/**
+ * Fixed layout of the records of one game. Every segment file starts with a {@link #HEADER_BYTES} header, then holds
+ * records of {@link #recordBytes} bytes, little endian:
+ * <pre>
+ * long    sequence
+ * long    seed, the spin replays with RandomSource.of(algorithm, seed).split()
+ * double  bet
+ * double  reward
+ * long[]  winning combinations, one bit per combination id
+ * short[] board, symbol id per cell
+ * short   bonus symbol count
+ * short[] bonus symbol ids, room for one per cell of every board a cascade spin may evaluate
+ * int     CRC32C of everything before it
+ * </pre>
+ * A slot whose checksum or sequence does not match was never completely written, it ends the segment.
+ */
+final class JournalLayout {
+    static final int MAGIC = 0x534A4E4C;
+    static final int VERSION = 2;
+    static final int HEADER_BYTES = 128;
+    static final String SUFFIX = ".journal";
+
+    private static final int SEQUENCE = 0;
+    private static final int SEED = 8;
+    private static final int BET = 16;
+    private static final int REWARD = 24;
+    private static final int COMBINATIONS = 32;
+    private static final int BASE_SEQUENCE = 32;
+    private static final int CAPACITY = 40;
+    private static final int ALGORITHM = 48;
+
+    final RngAlgorithm algorithm;
+    final int cells;
+    final int combinations;
+    final int symbolCount;
+    /**
+     * Bonus symbols a record holds, cascade spins collect the bonus symbols of every refill
+     */
+    final int bonusSlots;
+    final int combinationWords;
+    final int boardOffset;
+    final int bonusCountOffset;
+    final int bonusOffset;
+    final int checksumOffset;
+    final int recordBytes;
+
+    JournalLayout(RngAlgorithm algorithm, int cells, int combinations, int symbolCount, int bonusSlots) {
+        if (symbolCount > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Journal records hold up to " + Short.MAX_VALUE + " symbols, the game has " + symbolCount);
+        }
+        this.algorithm = algorithm;
+        this.cells = cells;
+        this.combinations = combinations;
+        this.symbolCount = symbolCount;
+        this.bonusSlots = bonusSlots;
+        this.combinationWords = (combinations + Long.SIZE - 1) / Long.SIZE;
+        this.boardOffset = COMBINATIONS + combinationWords * Long.BYTES;
+        this.bonusCountOffset = boardOffset + cells * Short.BYTES;
+        this.bonusOffset = bonusCountOffset + Short.BYTES;
+        this.checksumOffset = (bonusOffset + bonusSlots * Short.BYTES + 3) & ~3;
+        this.recordBytes = (checksumOffset + Integer.BYTES + 7) & ~7;
+    }
+
+    static JournalLayout of(CompiledGame game, RngAlgorithm algorithm) {
+        return new JournalLayout(algorithm, game.getCellCount(), game.getCombinationCount(), game.getSymbolCount(),
+                bonusSlots(game));
+    }
+
+    private static int bonusSlots(CompiledGame game) {
+        return game.getCellCount() * (game.getCascadeSteps() + 1);
+    }
+
+    /**
+     * Whether records of this layout can hold the spins of the game
+     */
+    boolean fits(CompiledGame game) {
+        return cells == game.getCellCount() && combinations == game.getCombinationCount() && symbolCount == game.getSymbolCount()
+                && bonusSlots == bonusSlots(game);
+    }
+
+    static String fileName(long baseSequence) {
+        return String.format("%020d", baseSequence) + SUFFIX;
+    }
+
+    void writeHeader(ByteBuffer segment, long baseSequence, long capacity) {
+        segment.putInt(0, MAGIC);
+        segment.putInt(4, VERSION);
+        segment.putInt(8, cells);
+        segment.putInt(12, combinations);
+        segment.putInt(16, symbolCount);
+        segment.putInt(20, recordBytes);
+        segment.putInt(24, bonusSlots);
+        segment.putLong(BASE_SEQUENCE, baseSequence);
+        segment.putLong(CAPACITY, capacity);
+        var name = algorithm.getAlgorithmName().getBytes(StandardCharsets.US_ASCII);
+        segment.put(ALGORITHM, (byte) name.length);
+        segment.put(ALGORITHM + 1, name);
+    }
+
+    /**
+     * @throws IllegalArgumentException when the segment was not written by a journal of this version
+     */
+    static JournalLayout readHeader(ByteBuffer segment) {
+        if (segment.limit() < HEADER_BYTES || segment.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Not a spin journal segment");
+        }
+        if (segment.getInt(4) != VERSION) {
+            throw new IllegalArgumentException("Spin journal version " + segment.getInt(4) + " is not supported");
+        }
+        var name = new byte[segment.get(ALGORITHM)];
+        segment.get(ALGORITHM + 1, name);
+        var layout = new JournalLayout(RngAlgorithm.fromName(new String(name, StandardCharsets.US_ASCII)),
+                segment.getInt(8), segment.getInt(12), segment.getInt(16), segment.getInt(24));
+        if (layout.recordBytes != segment.getInt(20)) {
+            throw new IllegalArgumentException("Corrupt spin journal header, record size " + segment.getInt(20));
+        }
+        return layout;
+    }
+
+    static long baseSequence(ByteBuffer segment) {
+        return segment.getLong(BASE_SEQUENCE);
+    }
+
+    static long capacity(ByteBuffer segment) {
+        return segment.getLong(CAPACITY);
+    }
+
+    /**
+     * Encodes a played spin into {@code record}, a little endian buffer over an array of {@link #recordBytes}
+     */
+    void encode(ByteBuffer record, CRC32C checksum, long sequence, long seed, double betAmount, SpinContext context) {
+        record.putLong(SEQUENCE, sequence);
+        record.putLong(SEED, seed);
+        record.putDouble(BET, betAmount);
+        record.putDouble(REWARD, context.getReward());
+        for (int word = 0; word < combinationWords; word++) {
+            record.putLong(COMBINATIONS + word * Long.BYTES, context.getCombinationBits(word));
+        }
+        for (int cell = 0; cell < cells; cell++) {
+            record.putShort(boardOffset + cell * Short.BYTES, (short) context.getSymbolAt(cell));
+        }
+        var bonusCount = context.getBonusCount();
+        record.putShort(bonusCountOffset, (short) bonusCount);
+        for (int i = 0; i < bonusSlots; i++) {
+            record.putShort(bonusOffset + i * Short.BYTES, i < bonusCount ? (short) context.getBonusSymbol(i) : 0);
+        }
+        record.putInt(checksumOffset, checksum(record, checksum));
+    }
+
+    /**
+     * Whether {@code record} holds the completely written record {@code sequence}
+     */
+    boolean isValid(ByteBuffer record, CRC32C checksum, long sequence) {
+        return record.getLong(SEQUENCE) == sequence && record.getInt(checksumOffset) == checksum(record, checksum);
+    }
+
+    private int checksum(ByteBuffer record, CRC32C checksum) {
+        checksum.reset();
+        checksum.update(record.array(), record.arrayOffset(), checksumOffset);
+        return (int) checksum.getValue();
+    }
+
+    static long sequence(ByteBuffer record) {
+        return record.getLong(SEQUENCE);
+    }
+
+    static long seed(ByteBuffer record) {
+        return record.getLong(SEED);
+    }
+
+    static double betAmount(ByteBuffer record) {
+        return record.getDouble(BET);
+    }
+
+    static double reward(ByteBuffer record) {
+        return record.getDouble(REWARD);
+    }
+
+    long combinationBits(ByteBuffer record, int word) {
+        return record.getLong(COMBINATIONS + word * Long.BYTES);
+    }
+
+    int symbolAt(ByteBuffer record, int cell) {
+        return record.getShort(boardOffset + cell * Short.BYTES);
+    }
+
+    int bonusCount(ByteBuffer record) {
+        return record.getShort(bonusCountOffset);
+    }
+
+    int bonusSymbol(ByteBuffer record, int index) {
+        return record.getShort(bonusOffset + index * Short.BYTES);
+    }
+
+    ByteBuffer newRecord() {
+        return ByteBuffer.allocate(recordBytes).order(ByteOrder.LITTLE_ENDIAN);
+    }
+}
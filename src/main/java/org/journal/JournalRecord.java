@@ -0,0 +1,90 @@
+package org.journal;
+
+import org.generator.SpinContext;
+import org.generator.random.RngAlgorithm;
+
+import java.nio.ByteBuffer;
+
+/**
+ * One spin of a {@link SpinJournal} as read by {@link SpinJournalReader}, a view over the copied record bytes
+ */
+public final class JournalRecord {
+    final JournalLayout layout;
+    final ByteBuffer buffer;
+
+    JournalRecord(JournalLayout layout) {
+        this.layout = layout;
+        this.buffer = layout.newRecord();
+    }
+
+    public long getSequence() {
+        return JournalLayout.sequence(buffer);
+    }
+
+    public RngAlgorithm getAlgorithm() {
+        return layout.algorithm;
+    }
+
+    /**
+     * The spin replays with {@code RandomSource.of(getAlgorithm(), getSeed()).split()}
+     */
+    public long getSeed() {
+        return JournalLayout.seed(buffer);
+    }
+
+    public double getBetAmount() {
+        return JournalLayout.betAmount(buffer);
+    }
+
+    public double getReward() {
+        return JournalLayout.reward(buffer);
+    }
+
+    public int getCellCount() {
+        return layout.cells;
+    }
+
+    public int getSymbolAt(int cell) {
+        return layout.symbolAt(buffer, cell);
+    }
+
+    public boolean isCombinationWinning(int combination) {
+        return (layout.combinationBits(buffer, combination >>> 6) & 1L << combination) != 0;
+    }
+
+    public int getBonusCount() {
+        return layout.bonusCount(buffer);
+    }
+
+    public int getBonusSymbol(int index) {
+        return layout.bonusSymbol(buffer, index);
+    }
+
+    /**
+     * Whether the context played exactly this spin, the reward compared bit for bit
+     */
+    boolean matches(SpinContext context) {
+        if (Double.doubleToLongBits(getReward()) != Double.doubleToLongBits(context.getReward())) {
+            return false;
+        }
+        for (int cell = 0; cell < layout.cells; cell++) {
+            if (getSymbolAt(cell) != context.getSymbolAt(cell)) {
+                return false;
+            }
+        }
+        for (int word = 0; word < layout.combinationWords; word++) {
+            if (layout.combinationBits(buffer, word) != context.getCombinationBits(word)) {
+                return false;
+            }
+        }
+        if (getBonusCount() != context.getBonusCount()) {
+            return false;
+        }
+        for (int i = 0; i < getBonusCount(); i++) {
+            if (getBonusSymbol(i) != context.getBonusSymbol(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,319 @@
+package org.journal;
+
+import org.config.compiled.CompiledGame;
+import org.generator.SpinContext;
+import org.generator.random.RngAlgorithm;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only audit trail of played spins, see {@link JournalLayout} for the record layout.
+ * <p>
+ * Records are copied into memory mapped segment files of a fixed size, a full segment rolls over to a new file
+ * named after the sequence of its first record. Appending never waits for the disk: a flusher thread forces everything
+ * appended since its previous flush in one go, so callers of {@link #awaitDurable(long)} that arrive while the disk is
+ * busy share the next flush (group commit). A journal reopened after a crash continues after the last complete record.
+ * <p>
+ * Appends may come from any thread. {@link SpinJournalReader} replays and verifies the records.
+ */
+public final class SpinJournal implements Closeable {
+    /**
+     * Default size of a segment file
+     */
+    public static final long SEGMENT_BYTES = 64L << 20;
+
+    private final Path directory;
+    private final JournalLayout layout;
+    private final long capacity;
+    private final ByteBuffer record;
+    private final CRC32C checksum = new CRC32C();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition appended = lock.newCondition();
+    private final Condition flushed = lock.newCondition();
+    private final Thread flusher;
+
+    /**
+     * Guarded by {@link #lock}: sequence of the next record, of the first record not yet forced to disk, and the
+     * segments which are full but not yet forced
+     */
+    private long next;
+    private long durable;
+    private Segment segment;
+    private final List<Segment> retired = new ArrayList<>();
+    private boolean closed;
+    private IOException failure;
+
+    private SpinJournal(Path directory, JournalLayout layout, long capacity, long next) {
+        this.directory = directory;
+        this.layout = layout;
+        this.capacity = capacity;
+        this.record = layout.newRecord();
+        this.next = next;
+        this.durable = next;
+        this.flusher = Thread.ofPlatform().daemon().name("spin-journal-flusher").start(this::flushLoop);
+    }
+
+    public static SpinJournal open(Path directory, CompiledGame game, RngAlgorithm algorithm) throws IOException {
+        return open(directory, game, algorithm, SEGMENT_BYTES);
+    }
+
+    /**
+     * Opens the journal of a directory, creating it when needed. New records start a new segment after the last
+     * complete record already in the directory. A last segment without a complete record, left by a crash right after
+     * it was created, is replaced
+     *
+     * @param segmentBytes size of a segment file, it must hold at least one record
+     */
+    public static SpinJournal open(Path directory, CompiledGame game, RngAlgorithm algorithm, long segmentBytes) throws IOException {
+        var layout = JournalLayout.of(game, algorithm);
+        var capacity = (segmentBytes - JournalLayout.HEADER_BYTES) / layout.recordBytes;
+        if (capacity <= 0 || segmentBytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Segments must hold a record of " + layout.recordBytes + " bytes and stay below 2 GB: " + segmentBytes);
+        }
+        Files.createDirectories(directory);
+        var segments = SpinJournalReader.segments(directory);
+        long next = 0;
+        if (!segments.isEmpty()) {
+            var last = segments.getLast();
+            next = SpinJournalReader.endOf(last);
+            // the first append creates the segment of this sequence again
+            if (last.getFileName().toString().equals(JournalLayout.fileName(next))) {
+                Files.delete(last);
+            }
+        }
+        return new SpinJournal(directory, layout, capacity, next);
+    }
+
+    /**
+     * Appends a played spin, the spin replays with {@code RandomSource.of(algorithm, seed).split()}
+     *
+     * @return sequence of the record, pass it to {@link #awaitDurable(long)} to wait until it is on disk
+     */
+    public long append(SpinContext context, long seed, double betAmount) throws IOException {
+        if (!layout.fits(context.getGame())) {
+            throw new IllegalArgumentException("Spin does not belong to the game of the journal");
+        }
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IOException("Spin journal is closed");
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            if (segment == null || segment.isFull(next)) {
+                roll();
+            }
+            var sequence = next;
+            layout.encode(record, checksum, sequence, seed, betAmount, context);
+            segment.buffer.put(segment.offset(sequence), record.array(), 0, layout.recordBytes);
+            next++;
+            appended.signal();
+            return sequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Blocks until the record {@code sequence} and every record before it are forced to disk
+     */
+    public void awaitDurable(long sequence) throws IOException {
+        lock.lock();
+        try {
+            while (durable <= sequence) {
+                if (failure != null) {
+                    throw failure;
+                }
+                if (sequence >= next) {
+                    throw new IllegalArgumentException("Record " + sequence + " was not appended");
+                }
+                flushed.await();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the spin journal");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Sequence the next appended record gets, records before it are in the journal
+     */
+    public long getNextSequence() {
+        lock.lock();
+        try {
+            return next;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Forces every appended record to disk and stops the flusher
+     */
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            appended.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while closing the spin journal");
+        }
+        for (Segment left : retired) {
+            left.channel.close();
+        }
+        if (segment != null) {
+            segment.channel.close();
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Called with the lock held, the full segment is forced and closed by the flusher
+     */
+    private void roll() throws IOException {
+        if (segment != null) {
+            retired.add(segment);
+        }
+        segment = Segment.create(directory, layout, next, capacity);
+    }
+
+    private void flushLoop() {
+        while (true) {
+            long target;
+            Segment current;
+            List<Segment> full;
+            lock.lock();
+            try {
+                while (next == durable && !closed) {
+                    appended.awaitUninterruptibly();
+                }
+                if (next == durable) {
+                    return;
+                }
+                target = next;
+                current = segment;
+                full = List.copyOf(retired);
+                retired.clear();
+            } finally {
+                lock.unlock();
+            }
+
+            IOException error = null;
+            try {
+                for (Segment done : full) {
+                    done.force(done.base + capacity);
+                    done.channel.close();
+                }
+                current.force(target);
+            } catch (IOException e) {
+                error = e;
+            } catch (UncheckedIOException e) {
+                error = e.getCause();
+            }
+
+            lock.lock();
+            try {
+                if (error != null) {
+                    failure = error;
+                    flushed.signalAll();
+                    return;
+                }
+                durable = target;
+                flushed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private static final class Segment {
+        final long base;
+        final long capacity;
+        final int recordBytes;
+        final FileChannel channel;
+        final MappedByteBuffer buffer;
+        /**
+         * Records before this sequence are forced, only touched by the flusher
+         */
+        long forced;
+
+        private Segment(long base, long capacity, int recordBytes, FileChannel channel, MappedByteBuffer buffer) {
+            this.base = base;
+            this.capacity = capacity;
+            this.recordBytes = recordBytes;
+            this.channel = channel;
+            this.buffer = buffer;
+            this.forced = base;
+        }
+
+        static Segment create(Path directory, JournalLayout layout, long base, long capacity) throws IOException {
+            var channel = FileChannel.open(directory.resolve(JournalLayout.fileName(base)),
+                    StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            try {
+                var size = JournalLayout.HEADER_BYTES + capacity * layout.recordBytes;
+                var buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                buffer.order(ByteOrder.LITTLE_ENDIAN);
+                layout.writeHeader(buffer, base, capacity);
+                buffer.force(0, JournalLayout.HEADER_BYTES);
+                return new Segment(base, capacity, layout.recordBytes, channel, buffer);
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+        }
+
+        boolean isFull(long next) {
+            return next - base >= capacity;
+        }
+
+        int offset(long sequence) {
+            return Math.toIntExact(JournalLayout.HEADER_BYTES + (sequence - base) * recordBytes);
+        }
+
+        /**
+         * Forces the records from the last forced one up to {@code end}, exclusive
+         */
+        void force(long end) {
+            if (end > forced) {
+                var from = offset(forced);
+                buffer.force(from, offset(end) - from);
+                forced = end;
+            }
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package org.journal;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.config.compiled.CompiledGame;
+import org.generator.GameProcessor;
+import org.generator.SpinContext;
+import org.generator.random.RandomSource;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Reads the records of a {@link SpinJournal} directory in sequence order, segments are mapped read only one at a time.
+ * A segment ends at its first incomplete record, the next segment must continue right after it.
+ */
+public final class SpinJournalReader {
+    private final Path directory;
+
+    public SpinJournalReader(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Passes every complete record to {@code consumer}, the record is reused and only valid during the call
+     *
+     * @return number of records read
+     * @throws IllegalStateException when records are missing between two segments
+     */
+    public long read(Consumer<JournalRecord> consumer) throws IOException {
+        var checksum = new CRC32C();
+        long count = 0;
+        long expected = -1;
+        for (Path path : segments(directory)) {
+            try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                var segment = map(channel);
+                var layout = JournalLayout.readHeader(segment);
+                var base = JournalLayout.baseSequence(segment);
+                if (expected >= 0 && base != expected) {
+                    throw new IllegalStateException("Spin journal has no records from " + expected + " to " + base);
+                }
+                var record = new JournalRecord(layout);
+                var capacity = JournalLayout.capacity(segment);
+                var sequence = base;
+                while (sequence - base < capacity && load(segment, layout, checksum, record, sequence)) {
+                    consumer.accept(record);
+                    sequence++;
+                    count++;
+                }
+                expected = sequence;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Replays every record with {@link GameProcessor#spin(SpinContext, double)} and compares the board, the winning
+     * combinations, the bonus symbols and the exact reward
+     *
+     * @throws IllegalArgumentException when the records were not written for a game of this shape
+     */
+    public Verification verify(CompiledGame game) throws IOException {
+        var context = new SpinContext(game);
+        long[] mismatches = {0, -1};
+        var records = read(record -> {
+            if (!record.layout.fits(game)) {
+                throw new IllegalArgumentException("Record " + record.getSequence() + " was not written for this game");
+            }
+            var processor = new GameProcessor(RandomSource.of(record.getAlgorithm(), record.getSeed()).split());
+            processor.spin(context, record.getBetAmount());
+            if (!record.matches(context)) {
+                if (mismatches[0]++ == 0) {
+                    mismatches[1] = record.getSequence();
+                }
+            }
+        });
+        return new Verification(records, mismatches[0], mismatches[1]);
+    }
+
+    /**
+     * @param firstMismatch sequence of the first record which did not replay, -1 when all did
+     */
+    public record Verification(@JsonProperty("records") long records,
+                               @JsonProperty("mismatches") long mismatches,
+                               @JsonProperty("first_mismatch") long firstMismatch) {
+    }
+
+    /**
+     * Segment files of the directory in sequence order
+     */
+    static List<Path> segments(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (var files = Files.list(directory)) {
+            // names are zero padded sequences, so name order is sequence order
+            return files.filter(path -> path.getFileName().toString().endsWith(JournalLayout.SUFFIX)).sorted().toList();
+        }
+    }
+
+    /**
+     * Sequence following the last complete record of a segment
+     */
+    static long endOf(Path path) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            var segment = map(channel);
+            var layout = JournalLayout.readHeader(segment);
+            var base = JournalLayout.baseSequence(segment);
+            var capacity = JournalLayout.capacity(segment);
+            var checksum = new CRC32C();
+            var record = new JournalRecord(layout);
+            var sequence = base;
+            while (sequence - base < capacity && load(segment, layout, checksum, record, sequence)) {
+                sequence++;
+            }
+            return sequence;
+        }
+    }
+
+    private static MappedByteBuffer map(FileChannel channel) throws IOException {
+        var segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        segment.order(ByteOrder.LITTLE_ENDIAN);
+        return segment;
+    }
+
+    private static boolean load(MappedByteBuffer segment, JournalLayout layout, CRC32C checksum, JournalRecord record, long sequence) {
+        var offset = JournalLayout.HEADER_BYTES + (sequence - JournalLayout.baseSequence(segment)) * layout.recordBytes;
+        if (offset + layout.recordBytes > segment.limit()) {
+            return false;
+        }
+        segment.get((int) offset, record.buffer.array(), 0, layout.recordBytes);
+        return layout.isValid(record.buffer, checksum, sequence);
+    }
+}
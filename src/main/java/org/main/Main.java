@@ -3,62 +3,172 @@ package org.main;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import org.apache.commons.cli.*;
+import org.config.compiled.CompiledGame;
 import org.config.parser.Parser;
+import org.config.registry.ConfigRegistry;
+import org.config.registry.GameRegistry;
 import org.generator.GameProcessor;
 import org.generator.Result;
+import org.generator.SpinContext;
+import org.generator.random.RandomSource;
+import org.generator.random.RngAlgorithm;
+import org.journal.SpinJournal;
+import org.journal.SpinJournalReader;
+import org.metrics.SpinMetrics;
+import org.metrics.Stage;
+import org.money.DecimalRewards;
+import org.money.FixedPointRewards;
+import org.money.MoneyScale;
+import org.output.NdjsonResultWriter;
+import org.server.SpinServer;
+import org.simulation.ExactRtpCalculator;
+import org.simulation.SimulationReport;
+import org.simulation.Simulator;
 
-import java.io.IOException;
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.file.Path;
 
 public class Main {
+    private static final String SERVED_GAME = "default";
+
     public static void main(String[] args) {
         var options = new Options();
 
         options.addOption("c", "config", true, "config file which is described top of the document");
         options.addOption("b", "betting-amount", true, "betting amount");
+        options.addOption("r", "rng", true, "random generator: L64X128MixRandom (default), SplittableRandom or Xoshiro256PlusPlus");
+        options.addOption("s", "seed", true, "random seed, replays the spin printed with the same seed and rng");
+        options.addOption(null, "simulate", true, "play N spins on all cores and print RTP statistics instead of a single spin");
+        options.addOption(null, "threads", true, "worker threads for --simulate, all cores by default");
+        options.addOption(null, "target-ci", true, "stop --simulate early once the 95% RTP interval is at most this wide on each side");
+        options.addOption(null, "exact", false, "print the theoretical RTP of the config instead of a single spin");
+        options.addOption(null, "serve", true, "serve POST /spin on the given port instead of playing a single spin");
+        options.addOption(null, "spins", true, "play N spins and print one compact JSON result per line");
+        options.addOption(null, "stdin-bets", false, "read bets from stdin, one per line, and print one compact JSON result per line");
+        options.addOption(null, "compile-config", true, "write the compiled config to the given file, --config accepts such files too");
+        options.addOption(null, "money", true, "exact money mode with the given decimals: bets and rewards in fixed point, rounded half even after every multiplication");
+        options.addOption(null, "games", true, "with --serve, serve every config of the directory on /games/<file name>/spin instead of --config");
+        options.addOption(null, "memory-budget", true, "with --games, megabytes of compiled games kept loaded, 256 by default");
+        options.addOption(null, "verify-money", false, "with --money, check every reward against a BigDecimal calculation");
+        options.addOption(null, "journal", true, "append every spin to the binary spin journal in the given directory");
+        options.addOption(null, "verify-journal", true, "replay every spin of the journal in the given directory against --config and print the mismatches");
 
         var parser = new DefaultParser();
         var formatter = new HelpFormatter();
-        var gameResult = new Result();
 
         try {
             var cmd = parser.parse(options, args);
 
             var configPath = cmd.getOptionValue("config");
             var betAmountStr = cmd.getOptionValue("betting-amount");
+            var simulate = cmd.hasOption("simulate");
+            var exact = cmd.hasOption("exact");
+            var serve = cmd.hasOption("serve");
+            var stdinBets = cmd.hasOption("stdin-bets");
+            var compileConfig = cmd.hasOption("compile-config");
+            var verifyJournal = cmd.hasOption("verify-journal");
 
-            if (configPath == null || betAmountStr == null) {
-                throw new ParseException("Both --config and --betting-amount are required");
+            if (cmd.hasOption("games")) {
+                if (!serve) {
+                    throw new ParseException("--games requires --serve");
+                }
+                serveGames(cmd);
+                return;
             }
 
-            double betAmount;
-            try {
-                betAmount = Double.parseDouble(betAmountStr);
-                if (betAmount <= 0) {
-                    throw new IllegalArgumentException("Bet amount must be greater than zero.");
-                }
-            } catch (NumberFormatException e) {
-                throw new ParseException("Betting amount must be a valid number");
+            if (configPath == null || (betAmountStr == null && !simulate && !exact && !serve && !stdinBets && !compileConfig && !verifyJournal)) {
+                throw new ParseException("Both --config and --betting-amount are required");
             }
 
-            var config = Parser.parseConfig(configPath);
-            var gameProcessor = new GameProcessor();
-            var matrix = gameProcessor.generateMatrix(config, gameResult);
+            // Simulation and exact reports give returns relative to the bet, so a unit bet is a fine default there
+            var betAmount = betAmountStr == null ? 1.0 : parseBetAmount(betAmountStr);
 
-            var winCombinations = gameProcessor.checkWinningCombinations(matrix, config);
-            var reward = gameProcessor.calculateReward(matrix, betAmount, winCombinations, config);
+            var game = Parser.loadGame(configPath);
 
-            gameResult.setReward(reward);
-            gameResult.setMatrix(matrix);
-            gameResult.setAppliedWinningCombinations(winCombinations);
+            if (SpinMetrics.ENABLED) {
+                SpinMetrics.registerMBean();
+            }
 
-            if (reward == 0) {
-                gameResult.clearBonusSymbols();
+            if (compileConfig) {
+                game.write(Path.of(cmd.getOptionValue("compile-config")));
+                return;
             }
 
             var mapper = new ObjectMapper();
             mapper.enable(SerializationFeature.INDENT_OUTPUT);
+
+            if (exact) {
+                System.out.println(mapper.writeValueAsString(new ExactRtpCalculator(game).calculate(betAmount)));
+                return;
+            }
+
+            if (verifyJournal) {
+                var verification = new SpinJournalReader(Path.of(cmd.getOptionValue("verify-journal"))).verify(game);
+                System.out.println(mapper.writeValueAsString(verification));
+                return;
+            }
+
+            var randomSource = createRandomSource(cmd, game);
+            var money = createMoneyMode(cmd, game);
+            if (money != null && (serve || simulate)) {
+                throw new ParseException("--money applies to single spins, --spins and --stdin-bets");
+            }
+            if (cmd.hasOption("journal") && (money != null || serve || simulate)) {
+                throw new ParseException("--journal applies to single spins, --spins and --stdin-bets without --money");
+            }
+
+            if (serve) {
+                serve(cmd, configPath, randomSource);
+                return;
+            }
+
+            if (cmd.hasOption("spins") || stdinBets) {
+                try (var journal = openJournal(cmd, game, randomSource)) {
+                    spinBatch(cmd, game, randomSource, money, journal, betAmountStr);
+                }
+                printMetrics();
+                return;
+            }
+
+            if (simulate) {
+                var report = simulate(cmd, game, randomSource, betAmount);
+                System.out.println(mapper.writeValueAsString(report));
+                printMetrics();
+                return;
+            }
+
+            var gameResult = new Result();
+            var gameProcessor = new GameProcessor(randomSource.split());
+            gameResult.setRandomSource(randomSource.getAlgorithm().getAlgorithmName(), randomSource.getSeed());
+            var spinContext = new SpinContext(game);
+            boolean won;
+            if (money == null) {
+                won = gameProcessor.spin(spinContext, betAmount) != 0;
+                spinContext.toResult(gameResult);
+                try (var journal = openJournal(cmd, game, randomSource)) {
+                    if (journal != null) {
+                        journal.append(spinContext, randomSource.getSeed(), betAmount);
+                    }
+                }
+            } else {
+                var reward = money.spin(gameProcessor, spinContext, money.parseBet(betAmountStr));
+                spinContext.toResult(gameResult);
+                gameResult.setReward(reward);
+                won = reward.signum() != 0;
+            }
+
+            if (!won) {
+                gameResult.clearBonusSymbols();
+            }
+
+            var serializeStart = SpinMetrics.ENABLED ? System.nanoTime() : 0;
             String jsonOutput = mapper.writeValueAsString(gameResult);
+            if (SpinMetrics.ENABLED) {
+                SpinMetrics.get().recordSince(Stage.SERIALIZE, serializeStart);
+            }
             System.out.println(jsonOutput);
+            printMetrics();
 
         } catch (ParseException err) {
             System.err.println("Error parsing arguments: " + err.getMessage());
@@ -67,4 +177,243 @@ public class Main {
             err.printStackTrace();
         }
     }
+
+    private static double parseBetAmount(String betAmountStr) throws ParseException {
+        double betAmount;
+        try {
+            betAmount = Double.parseDouble(betAmountStr);
+        } catch (NumberFormatException e) {
+            throw new ParseException("Betting amount must be a valid number");
+        }
+        if (betAmount <= 0) {
+            throw new IllegalArgumentException("Bet amount must be greater than zero.");
+        }
+        return betAmount;
+    }
+
+    private static SimulationReport simulate(CommandLine cmd, CompiledGame game, RandomSource randomSource, double betAmount) throws ParseException {
+        long spins;
+        int threads;
+        double targetConfidence;
+        try {
+            spins = Long.parseLong(cmd.getOptionValue("simulate"));
+            threads = Integer.parseInt(cmd.getOptionValue("threads", String.valueOf(Runtime.getRuntime().availableProcessors())));
+            targetConfidence = Double.parseDouble(cmd.getOptionValue("target-ci", "0"));
+        } catch (NumberFormatException e) {
+            throw new ParseException("--simulate, --threads and --target-ci must be valid numbers");
+        }
+        if (spins <= 0 || threads <= 0 || targetConfidence < 0) {
+            throw new ParseException("--simulate and --threads must be greater than zero, --target-ci must not be negative");
+        }
+        return new Simulator(game, randomSource, threads).run(spins, betAmount, targetConfidence);
+    }
+
+    /**
+     * Streams NDJSON to stdout, every spin has its own seed so any line can be replayed with --seed
+     */
+    private static void spinBatch(CommandLine cmd, CompiledGame game, RandomSource randomSource, MoneyMode money, SpinJournal journal,
+                                  String betAmountStr)
+            throws ParseException, IOException {
+        var spinContext = new SpinContext(game);
+        var out = new BufferedOutputStream(new FileOutputStream(FileDescriptor.out), 1 << 16);
+
+        try (var writer = new NdjsonResultWriter(game, out)) {
+            if (cmd.hasOption("stdin-bets")) {
+                var reader = new BufferedReader(new InputStreamReader(System.in));
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!line.isBlank()) {
+                        var bet = line.strip();
+                        spin(writer, spinContext, randomSource, money, journal, money == null ? parseBetAmount(bet) : 0, money == null ? 0 : money.parseBet(bet));
+                    }
+                }
+                return;
+            }
+
+            long spins;
+            try {
+                spins = Long.parseLong(cmd.getOptionValue("spins"));
+            } catch (NumberFormatException e) {
+                throw new ParseException("--spins must be a valid number");
+            }
+            var bet = betAmountStr == null ? "1" : betAmountStr;
+            var betAmount = money == null ? parseBetAmount(bet) : 0;
+            var betMinor = money == null ? 0 : money.parseBet(bet);
+            for (long i = 0; i < spins; i++) {
+                spin(writer, spinContext, randomSource, money, journal, betAmount, betMinor);
+            }
+        }
+    }
+
+    /**
+     * Plays with {@code betAmount}, or with {@code betMinor} in money mode. {@code journal} is null without --journal
+     */
+    private static void spin(NdjsonResultWriter writer, SpinContext spinContext, RandomSource randomSource, MoneyMode money,
+                             SpinJournal journal, double betAmount, long betMinor) throws IOException {
+        var seed = randomSource.nextSeed();
+        var algorithm = randomSource.getAlgorithm();
+        var processor = new GameProcessor(RandomSource.of(algorithm, seed).split());
+        BigDecimal reward = null;
+        if (money == null) {
+            processor.spin(spinContext, betAmount);
+            if (journal != null) {
+                journal.append(spinContext, seed, betAmount);
+            }
+        } else {
+            reward = money.spin(processor, spinContext, betMinor);
+        }
+        if (SpinMetrics.ENABLED) {
+            var start = System.nanoTime();
+            writer.write(spinContext, reward, algorithm.getAlgorithmName(), seed);
+            SpinMetrics.get().recordSince(Stage.SERIALIZE, start);
+            return;
+        }
+        writer.write(spinContext, reward, algorithm.getAlgorithmName(), seed);
+    }
+
+    /**
+     * With -Dslot.metrics=true the Prometheus dump of the run goes to stderr, stdout keeps only the results
+     */
+    private static void printMetrics() {
+        if (SpinMetrics.ENABLED) {
+            System.err.print(SpinMetrics.get().toPrometheus());
+        }
+    }
+
+    /**
+     * The server keeps the JVM alive until it is interrupted, edits of the config file are picked up without a restart
+     */
+    private static void serve(CommandLine cmd, String configPath, RandomSource randomSource) throws ParseException, IOException {
+        var port = parsePort(cmd);
+        var registry = new ConfigRegistry();
+        registry.register(SERVED_GAME, Path.of(configPath));
+        registry.watch();
+
+        var server = new SpinServer(registry, SERVED_GAME, randomSource);
+        server.start(port);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop();
+            try {
+                registry.close();
+            } catch (IOException e) {
+                // exiting anyway
+            }
+        }));
+        System.out.println("Serving POST /spin on port " + server.getPort());
+    }
+
+    /**
+     * Games are compiled on their first spin and the least recently used ones are dropped past the memory budget
+     */
+    private static void serveGames(CommandLine cmd) throws ParseException, IOException {
+        var port = parsePort(cmd);
+        long budgetMegabytes;
+        try {
+            budgetMegabytes = Long.parseLong(cmd.getOptionValue("memory-budget", "256"));
+        } catch (NumberFormatException e) {
+            throw new ParseException("--memory-budget must be a valid number");
+        }
+        if (budgetMegabytes <= 0) {
+            throw new ParseException("--memory-budget must be greater than zero");
+        }
+
+        var registry = new GameRegistry(budgetMegabytes << 20);
+        var gameIds = registry.registerDirectory(Path.of(cmd.getOptionValue("games")));
+        if (gameIds.isEmpty()) {
+            throw new ParseException("No configs in " + cmd.getOptionValue("games"));
+        }
+
+        var server = new SpinServer(registry, createRandomSource(cmd, null));
+        server.start(port);
+        Runtime.getRuntime().addShutdownHook(new Thread(server::stop));
+        System.out.println("Serving POST /games/<id>/spin for " + gameIds.size() + " games on port " + server.getPort());
+    }
+
+    private static int parsePort(CommandLine cmd) throws ParseException {
+        try {
+            return Integer.parseInt(cmd.getOptionValue("serve"));
+        } catch (NumberFormatException e) {
+            throw new ParseException("--serve must be a valid port");
+        }
+    }
+
+    /**
+     * Null without --journal, the journal is forced to disk when it is closed
+     */
+    private static SpinJournal openJournal(CommandLine cmd, CompiledGame game, RandomSource randomSource) throws IOException {
+        if (!cmd.hasOption("journal")) {
+            return null;
+        }
+        return SpinJournal.open(Path.of(cmd.getOptionValue("journal")), game, randomSource.getAlgorithm());
+    }
+
+    private static MoneyMode createMoneyMode(CommandLine cmd, CompiledGame game) throws ParseException {
+        if (!cmd.hasOption("money")) {
+            if (cmd.hasOption("verify-money")) {
+                throw new ParseException("--verify-money requires --money");
+            }
+            return null;
+        }
+        try {
+            var scale = new MoneyScale(Integer.parseInt(cmd.getOptionValue("money")));
+            var verifier = cmd.hasOption("verify-money") ? new DecimalRewards(game, scale) : null;
+            return new MoneyMode(new FixedPointRewards(game, scale), verifier);
+        } catch (NumberFormatException e) {
+            throw new ParseException("--money must be a number of decimals");
+        } catch (IllegalArgumentException e) {
+            throw new ParseException(e.getMessage());
+        }
+    }
+
+    /**
+     * Rewards of --money: the board is evaluated as usual and only the reward is calculated in fixed point
+     */
+    private record MoneyMode(FixedPointRewards rewards, DecimalRewards verifier) {
+
+        long parseBet(String betAmountStr) throws ParseException {
+            long betMinor;
+            try {
+                betMinor = rewards.getScale().parse(betAmountStr);
+            } catch (IllegalArgumentException e) {
+                throw new ParseException(e.getMessage());
+            }
+            if (betMinor <= 0) {
+                throw new IllegalArgumentException("Bet amount must be greater than zero.");
+            }
+            return betMinor;
+        }
+
+        BigDecimal spin(GameProcessor processor, SpinContext context, long betMinor) {
+            processor.generateMatrix(context);
+            processor.checkWinningCombinations(context);
+            var reward = rewards.calculate(context, betMinor);
+            if (verifier != null) {
+                verifier.verify(context, betMinor, reward);
+            }
+            return rewards.getScale().toDecimal(reward);
+        }
+    }
+
+    /**
+     * --rng takes precedence over the "rng" of the config, {@code game} is null when several games are served
+     */
+    private static RandomSource createRandomSource(CommandLine cmd, CompiledGame game) throws ParseException {
+        var rngName = cmd.getOptionValue("rng", game == null ? null : game.getRng());
+        RngAlgorithm algorithm;
+        try {
+            algorithm = rngName == null ? RngAlgorithm.DEFAULT : RngAlgorithm.fromName(rngName);
+        } catch (IllegalArgumentException e) {
+            throw new ParseException(e.getMessage());
+        }
+
+        var seedStr = cmd.getOptionValue("seed");
+        if (seedStr == null) {
+            return RandomSource.of(algorithm);
+        }
+        try {
+            return RandomSource.of(algorithm, Long.parseLong(seedStr));
+        } catch (NumberFormatException e) {
+            throw new ParseException("Seed must be a valid long");
+        }
+    }
 }
\ No newline at end of file
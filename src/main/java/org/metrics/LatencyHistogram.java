@@ -0,0 +1,111 @@
+package org.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Durations in nanoseconds counted in power of two buckets from 64 ns to about 1 s. Recording is lock free and
+ * striped, reading while spins are recorded gives a slightly stale but consistent enough view for monitoring
+ */
+public class LatencyHistogram {
+    static final int MIN_EXPONENT = 6;
+    static final int MAX_EXPONENT = 30;
+
+    /**
+     * Bucket {@code i} counts durations up to {@code 2^(MIN_EXPONENT + i)} ns, the last one everything above
+     */
+    private final LongAdder[] buckets = new LongAdder[MAX_EXPONENT - MIN_EXPONENT + 2];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    public LatencyHistogram() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        // smallest exponent e with nanos <= 2^e
+        var exponent = 64 - Long.numberOfLeadingZeros(Math.max(nanos, 1) - 1);
+        var bucket = Math.min(Math.max(exponent - MIN_EXPONENT, 0), buckets.length - 1);
+        buckets[bucket].increment();
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getTotalNanos() {
+        return totalNanos.sum();
+    }
+
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    public double getMeanNanos() {
+        var n = getCount();
+        return n == 0 ? 0 : (double) getTotalNanos() / n;
+    }
+
+    /**
+     * Upper bound of the bucket holding the quantile, so within a factor of two of the real value
+     */
+    public long getValueAtQuantile(double quantile) {
+        if (quantile < 0 || quantile > 1) {
+            throw new IllegalArgumentException("Quantile must be between 0 and 1");
+        }
+        var counts = getBucketCounts();
+        long total = 0;
+        for (long bucketCount : counts) {
+            total += bucketCount;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        var rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int bucket = 0; bucket < counts.length - 1; bucket++) {
+            seen += counts[bucket];
+            if (seen >= rank) {
+                return Math.min(getUpperBound(bucket), getMaxNanos());
+            }
+        }
+        return getMaxNanos();
+    }
+
+    long[] getBucketCounts() {
+        var counts = new long[buckets.length];
+        for (int bucket = 0; bucket < buckets.length; bucket++) {
+            counts[bucket] = buckets[bucket].sum();
+        }
+        return counts;
+    }
+
+    /**
+     * Inclusive upper bound in nanoseconds, the last bucket has none and returns {@link Long#MAX_VALUE}
+     */
+    static long getUpperBound(int bucket) {
+        return bucket == MAX_EXPONENT - MIN_EXPONENT + 1 ? Long.MAX_VALUE : 1L << (MIN_EXPONENT + bucket);
+    }
+
+    static int getBucketCount() {
+        return MAX_EXPONENT - MIN_EXPONENT + 2;
+    }
+
+    public void reset() {
+        for (LongAdder bucket : buckets) {
+            bucket.reset();
+        }
+        count.reset();
+        totalNanos.reset();
+        maxNanos.reset();
+    }
+}
@@ -0,0 +1,42 @@
+package org.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR event committed for every instrumented spin while a recording has it enabled, a stage which did not run has a
+ * duration of 0
+ */
+@Name("org.slot.Spin")
+@Label("Spin")
+@Category("Slot Game")
+@Description("One spin with the duration of its stages")
+class SpinEvent extends jdk.jfr.Event {
+
+    @Label("Bet")
+    double betAmount;
+
+    @Label("Reward")
+    double reward;
+
+    @Label("Winning Combinations")
+    int winCount;
+
+    @Label("Bonus Symbols")
+    int bonusCount;
+
+    @Label("Generate")
+    @Timespan(Timespan.NANOSECONDS)
+    long generateNanos;
+
+    @Label("Evaluate")
+    @Timespan(Timespan.NANOSECONDS)
+    long evaluateNanos;
+
+    @Label("Reward Calculation")
+    @Timespan(Timespan.NANOSECONDS)
+    long rewardNanos;
+}
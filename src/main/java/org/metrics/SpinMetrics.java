@@ -0,0 +1,241 @@
+package org.metrics;
+
+import org.generator.SpinContext;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process wide spin instrumentation: a {@link LatencyHistogram} per {@link Stage}, win counts per combination,
+ * applied bonus symbols per symbol, and a {@link SpinEvent} per spin for JFR. Readable through JMX and as Prometheus text.
+ * <p>
+ * Metrics are switched on with {@code -Dslot.metrics=true}. Callers guard every recording with {@link #ENABLED}, a
+ * constant the JIT folds away, so a disabled build pays neither the clock reads nor the counters.
+ */
+public final class SpinMetrics implements SpinMetricsMXBean {
+
+    public static final boolean ENABLED = Boolean.getBoolean("slot.metrics");
+
+    static final String OBJECT_NAME = "org.slot:type=SpinMetrics";
+
+    private static final SpinMetrics INSTANCE = new SpinMetrics();
+
+    private final LatencyHistogram[] stages = new LatencyHistogram[Stage.values().length];
+    private final LongAdder spins = new LongAdder();
+    private final LongAdder winningSpins = new LongAdder();
+    private final DoubleAdder totalBet = new DoubleAdder();
+    private final DoubleAdder totalReward = new DoubleAdder();
+    private final ConcurrentMap<String, LongAdder> combinationWins = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LongAdder> bonusSymbolHits = new ConcurrentHashMap<>();
+
+    SpinMetrics() {
+        for (int stage = 0; stage < stages.length; stage++) {
+            stages[stage] = new LatencyHistogram();
+        }
+    }
+
+    public static SpinMetrics get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Makes the metrics visible as {@value #OBJECT_NAME}, repeated calls keep the first registration
+     */
+    public static synchronized void registerMBean() {
+        try {
+            var server = ManagementFactory.getPlatformMBeanServer();
+            var name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(INSTANCE, name);
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException("Cannot register " + OBJECT_NAME, e);
+        }
+    }
+
+    public LatencyHistogram getStage(Stage stage) {
+        return stages[stage.ordinal()];
+    }
+
+    /**
+     * Records the duration since {@code startNanos}, a {@link System#nanoTime()} reading
+     */
+    public void recordSince(Stage stage, long startNanos) {
+        stages[stage.ordinal()].record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Records a spin played into {@code context} with the duration of its stages, a negative duration marks a stage
+     * which did not run, e.g. generation of a board taken from a batch. Such a stage gets no sample, and its field of
+     * the {@link SpinEvent} stays 0
+     */
+    public void recordSpin(SpinContext context, double betAmount, long generateNanos, long evaluateNanos, long rewardNanos) {
+        if (generateNanos >= 0) {
+            stages[Stage.GENERATE.ordinal()].record(generateNanos);
+        }
+        if (evaluateNanos >= 0) {
+            stages[Stage.EVALUATE.ordinal()].record(evaluateNanos);
+        }
+        if (rewardNanos >= 0) {
+            stages[Stage.REWARD.ordinal()].record(rewardNanos);
+        }
+
+        var game = context.getGame();
+        var winCount = context.getWinCount();
+        spins.increment();
+        totalBet.add(betAmount);
+        totalReward.add(context.getReward());
+        if (winCount > 0) {
+            winningSpins.increment();
+            for (int win = 0; win < winCount; win++) {
+                increment(combinationWins, game.getCombinationName(context.getWinCombination(win)));
+            }
+            // Bonus symbols are only applied to spins with a win
+            for (int i = 0; i < context.getBonusCount(); i++) {
+                increment(bonusSymbolHits, game.getSymbolName(context.getBonusSymbol(i)));
+            }
+        }
+
+        var event = new SpinEvent();
+        if (event.shouldCommit()) {
+            event.betAmount = betAmount;
+            event.reward = context.getReward();
+            event.winCount = winCount;
+            event.bonusCount = context.getBonusCount();
+            event.generateNanos = Math.max(generateNanos, 0);
+            event.evaluateNanos = Math.max(evaluateNanos, 0);
+            event.rewardNanos = Math.max(rewardNanos, 0);
+            event.commit();
+        }
+    }
+
+    private static void increment(ConcurrentMap<String, LongAdder> counters, String name) {
+        var counter = counters.get(name);
+        if (counter == null) {
+            counter = counters.computeIfAbsent(name, key -> new LongAdder());
+        }
+        counter.increment();
+    }
+
+    @Override
+    public long getSpins() {
+        return spins.sum();
+    }
+
+    @Override
+    public long getWinningSpins() {
+        return winningSpins.sum();
+    }
+
+    @Override
+    public double getRtp() {
+        var bet = totalBet.sum();
+        return bet == 0 ? 0 : totalReward.sum() / bet;
+    }
+
+    @Override
+    public Map<String, Double> getStageMeanNanos() {
+        var means = new TreeMap<String, Double>();
+        for (Stage stage : Stage.values()) {
+            means.put(stage.label(), getStage(stage).getMeanNanos());
+        }
+        return means;
+    }
+
+    @Override
+    public Map<String, Long> getStageP99Nanos() {
+        var p99 = new TreeMap<String, Long>();
+        for (Stage stage : Stage.values()) {
+            p99.put(stage.label(), getStage(stage).getValueAtQuantile(0.99));
+        }
+        return p99;
+    }
+
+    @Override
+    public Map<String, Long> getStageMaxNanos() {
+        var max = new TreeMap<String, Long>();
+        for (Stage stage : Stage.values()) {
+            max.put(stage.label(), getStage(stage).getMaxNanos());
+        }
+        return max;
+    }
+
+    @Override
+    public Map<String, Long> getCombinationWins() {
+        return sums(combinationWins);
+    }
+
+    @Override
+    public Map<String, Long> getBonusSymbolHits() {
+        return sums(bonusSymbolHits);
+    }
+
+    private static Map<String, Long> sums(ConcurrentMap<String, LongAdder> counters) {
+        var sums = new TreeMap<String, Long>();
+        counters.forEach((name, counter) -> sums.put(name, counter.sum()));
+        return sums;
+    }
+
+    @Override
+    public void reset() {
+        for (LatencyHistogram stage : stages) {
+            stage.reset();
+        }
+        spins.reset();
+        winningSpins.reset();
+        totalBet.reset();
+        totalReward.reset();
+        combinationWins.clear();
+        bonusSymbolHits.clear();
+    }
+
+    /**
+     * Prometheus text exposition format 0.0.4, durations in seconds
+     */
+    public String toPrometheus() {
+        var out = new StringBuilder();
+        out.append("# HELP slot_spins_total Spins played\n# TYPE slot_spins_total counter\n");
+        out.append("slot_spins_total ").append(getSpins()).append('\n');
+        out.append("# HELP slot_winning_spins_total Spins with at least one winning combination\n# TYPE slot_winning_spins_total counter\n");
+        out.append("slot_winning_spins_total ").append(getWinningSpins()).append('\n');
+        out.append("# HELP slot_bet_total Sum of the bets\n# TYPE slot_bet_total counter\n");
+        out.append("slot_bet_total ").append(totalBet.sum()).append('\n');
+        out.append("# HELP slot_reward_total Sum of the rewards\n# TYPE slot_reward_total counter\n");
+        out.append("slot_reward_total ").append(totalReward.sum()).append('\n');
+
+        out.append("# HELP slot_stage_duration_seconds Duration of the spin stages\n# TYPE slot_stage_duration_seconds histogram\n");
+        for (Stage stage : Stage.values()) {
+            var histogram = getStage(stage);
+            var counts = histogram.getBucketCounts();
+            var label = "stage=\"" + stage.label() + "\"";
+            long cumulative = 0;
+            for (int bucket = 0; bucket < counts.length; bucket++) {
+                cumulative += counts[bucket];
+                var bound = bucket == counts.length - 1 ? "+Inf" : String.valueOf(LatencyHistogram.getUpperBound(bucket) / 1e9);
+                out.append("slot_stage_duration_seconds_bucket{").append(label).append(",le=\"").append(bound).append("\"} ")
+                        .append(cumulative).append('\n');
+            }
+            out.append("slot_stage_duration_seconds_sum{").append(label).append("} ").append(histogram.getTotalNanos() / 1e9).append('\n');
+            out.append("slot_stage_duration_seconds_count{").append(label).append("} ").append(cumulative).append('\n');
+        }
+
+        out.append("# HELP slot_combination_wins_total Winning combinations\n# TYPE slot_combination_wins_total counter\n");
+        getCombinationWins().forEach((name, count) ->
+                out.append("slot_combination_wins_total{combination=\"").append(escape(name)).append("\"} ").append(count).append('\n'));
+        out.append("# HELP slot_bonus_symbols_total Bonus symbols applied to a winning spin\n# TYPE slot_bonus_symbols_total counter\n");
+        getBonusSymbolHits().forEach((name, count) ->
+                out.append("slot_bonus_symbols_total{symbol=\"").append(escape(name)).append("\"} ").append(count).append('\n'));
+        return out.toString();
+    }
+
+    private static String escape(String labelValue) {
+        return labelValue.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
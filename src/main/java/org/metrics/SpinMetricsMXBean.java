@@ -0,0 +1,30 @@
+package org.metrics;
+
+import java.util.Map;
+
+/**
+ * JMX view of {@link SpinMetrics}, registered as {@value SpinMetrics#OBJECT_NAME}
+ */
+public interface SpinMetricsMXBean {
+
+    long getSpins();
+
+    long getWinningSpins();
+
+    /**
+     * Total reward over total bet of the recorded spins
+     */
+    double getRtp();
+
+    Map<String, Double> getStageMeanNanos();
+
+    Map<String, Long> getStageP99Nanos();
+
+    Map<String, Long> getStageMaxNanos();
+
+    Map<String, Long> getCombinationWins();
+
+    Map<String, Long> getBonusSymbolHits();
+
+    void reset();
+}
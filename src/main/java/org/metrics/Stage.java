@@ -0,0 +1,15 @@
+package org.metrics;
+
+/**
+ * Timed steps of a spin, {@link #SERIALIZE} covers writing the result JSON
+ */
+public enum Stage {
+    GENERATE,
+    EVALUATE,
+    REWARD,
+    SERIALIZE;
+
+    String label() {
+        return name().toLowerCase();
+    }
+}
@@ -0,0 +1,72 @@
+package org.money;
+
+import org.config.compiled.CompiledGame;
+import org.config.compiled.Impact;
+import org.generator.SpinContext;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+
+/**
+ * Verification path of {@link FixedPointRewards}: the same steps and rounding in {@link BigDecimal}, with the
+ * multipliers taken from the config values directly instead of the scaled tables. Slow, meant for audits and tests
+ */
+public final class DecimalRewards {
+
+    private final CompiledGame game;
+    private final MoneyScale scale;
+
+    public DecimalRewards(CompiledGame game, MoneyScale scale) {
+        this.game = game;
+        this.scale = scale;
+    }
+
+    public BigDecimal calculate(SpinContext context, BigDecimal betAmount) {
+        if (betAmount.signum() <= 0) {
+            throw new IllegalArgumentException("Bet amount must be greater than zero.");
+        }
+
+        var symbolRewards = new LinkedHashMap<Integer, BigDecimal>();
+        for (int i = 0; i < context.getWinCount(); i++) {
+            var symbol = context.getWinSymbol(i);
+            if (!symbolRewards.containsKey(symbol)) {
+                var multiplier = symbol < game.getSymbolCount() && game.isDeclared(symbol)
+                        ? BigDecimal.valueOf(game.getRewardMultiplier(symbol))
+                        : BigDecimal.ZERO;
+                symbolRewards.put(symbol, scale.round(betAmount.multiply(multiplier)));
+            }
+        }
+        for (int i = 0; i < context.getWinCount(); i++) {
+            var multiplier = BigDecimal.valueOf(game.getCombinationMultiplier(context.getWinCombination(i)));
+            var ways = BigDecimal.valueOf(context.getWinWays(i));
+            symbolRewards.computeIfPresent(context.getWinSymbol(i), (symbol, reward) -> scale.round(reward.multiply(ways).multiply(multiplier)));
+        }
+
+        var reward = scale.round(BigDecimal.ZERO);
+        for (BigDecimal symbolReward : symbolRewards.values()) {
+            reward = reward.add(symbolReward);
+        }
+        if (context.getWinCount() > 0) {
+            for (int i = 0; i < context.getEffectCount(); i++) {
+                var symbol = context.getEffectSymbol(i);
+                reward = game.getImpact(symbol) == Impact.MULTIPLY_REWARD
+                        ? scale.round(reward.multiply(BigDecimal.valueOf(game.getRewardMultiplier(symbol))))
+                        : reward.add(BigDecimal.valueOf(game.getExtra(symbol)));
+            }
+        }
+        return reward;
+    }
+
+    /**
+     * Recomputes the reward in {@link BigDecimal} and compares it with the fixed point one
+     *
+     * @throws IllegalStateException if they differ
+     */
+    public void verify(SpinContext context, long betMinor, long rewardMinor) {
+        var expected = calculate(context, scale.toDecimal(betMinor));
+        var actual = scale.toDecimal(rewardMinor);
+        if (expected.compareTo(actual) != 0) {
+            throw new IllegalStateException("Fixed point reward " + actual.toPlainString() + " differs from " + expected.toPlainString());
+        }
+    }
+}
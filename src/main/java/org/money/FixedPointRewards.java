@@ -0,0 +1,110 @@
+package org.money;
+
+import org.config.compiled.CompiledGame;
+import org.config.compiled.Impact;
+import org.generator.SpinContext;
+
+/**
+ * Reward of an evaluated {@link SpinContext} in minor units, with the same steps as
+ * {@link org.generator.GameProcessor#calculateReward(SpinContext, double)}: the bet times the symbol multiplier, times
+ * every won combination multiplier in evaluation order, summed over the winning symbols, then the bonus effects in
+ * board order. Multipliers are scaled once per game and the scratch space is reused, so a reward only takes long
+ * arithmetic. Like a context, an instance belongs to one thread.
+ */
+public final class FixedPointRewards {
+
+    private final CompiledGame game;
+    private final MoneyScale scale;
+    private final long[] symbolMultipliers;
+    private final long[] combinationMultipliers;
+    private final long[] extras;
+
+    private final long[] symbolRewards;
+    private final boolean[] counted;
+
+    /**
+     * @throws IllegalArgumentException if a multiplier has more than {@value MoneyScale#MULTIPLIER_DECIMALS} decimals,
+     *                                  and for cascade and free spins games, their rounds are rewarded in {@code double} only
+     */
+    public FixedPointRewards(CompiledGame game, MoneyScale scale) {
+        if (game.isCascade()) {
+            throw new IllegalArgumentException("Money mode does not support cascade games");
+        }
+        if (game.hasFreeSpins()) {
+            throw new IllegalArgumentException("Money mode does not support free spins");
+        }
+        this.game = game;
+        this.scale = scale;
+        var symbolCount = game.getSymbolCount();
+        this.symbolMultipliers = new long[symbolCount];
+        this.extras = new long[symbolCount];
+        for (int symbol = 0; symbol < symbolCount; symbol++) {
+            if (game.isDeclared(symbol)) {
+                symbolMultipliers[symbol] = MoneyScale.toMultiplier(game.getRewardMultiplier(symbol));
+            }
+            if (game.hasBonusEffect(symbol) && game.getImpact(symbol) == Impact.EXTRA_BONUS) {
+                extras[symbol] = scale.toMinor(game.getExtra(symbol));
+            }
+        }
+        this.combinationMultipliers = new long[game.getCombinationCount()];
+        for (int combination = 0; combination < combinationMultipliers.length; combination++) {
+            combinationMultipliers[combination] = MoneyScale.toMultiplier(game.getCombinationMultiplier(combination));
+        }
+        // unknown symbols of a loaded matrix get ids past the symbol table, one per cell at most
+        this.symbolRewards = new long[symbolCount + game.getCellCount()];
+        this.counted = new boolean[symbolRewards.length];
+    }
+
+    public MoneyScale getScale() {
+        return scale;
+    }
+
+    /**
+     * @param betMinor bet in minor units, see {@link MoneyScale#parse(String)}
+     * @throws ArithmeticException if the reward leaves the long range
+     */
+    public long calculate(SpinContext context, long betMinor) {
+        if (context.getGame() != game) {
+            throw new IllegalArgumentException("Spin was played with another config");
+        }
+        if (betMinor <= 0) {
+            throw new IllegalArgumentException("Bet amount must be greater than zero.");
+        }
+
+        var winCount = context.getWinCount();
+        var symbolCount = symbolMultipliers.length;
+        for (int i = 0; i < winCount; i++) {
+            var symbol = context.getWinSymbol(i);
+            symbolRewards[symbol] = symbol < symbolCount ? MoneyScale.multiply(betMinor, symbolMultipliers[symbol]) : 0;
+        }
+        for (int i = 0; i < winCount; i++) {
+            var symbol = context.getWinSymbol(i);
+            // ways are taken before the multiplier, so its rounding is not multiplied by them
+            var paid = Math.multiplyExact(symbolRewards[symbol], context.getWinWays(i));
+            symbolRewards[symbol] = MoneyScale.multiply(paid, combinationMultipliers[context.getWinCombination(i)]);
+        }
+
+        long reward = 0;
+        for (int i = 0; i < winCount; i++) {
+            var symbol = context.getWinSymbol(i);
+            if (!counted[symbol]) {
+                counted[symbol] = true;
+                reward = Math.addExact(reward, symbolRewards[symbol]);
+            }
+        }
+        for (int i = 0; i < winCount; i++) {
+            counted[context.getWinSymbol(i)] = false;
+        }
+
+        // Bonus symbols are only effective when there are at least one winning combinations matches with the generated matrix
+        if (winCount > 0) {
+            for (int i = 0; i < context.getEffectCount(); i++) {
+                var symbol = context.getEffectSymbol(i);
+                reward = game.getImpact(symbol) == Impact.MULTIPLY_REWARD
+                        ? MoneyScale.multiply(reward, symbolMultipliers[symbol])
+                        : Math.addExact(reward, extras[symbol]);
+            }
+        }
+        return reward;
+    }
+}
@@ -0,0 +1,90 @@
+package org.money;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Fixed point money: amounts are longs in minor units, {@code decimals} digits after the point, and multipliers are
+ * longs with {@value #MULTIPLIER_DECIMALS} digits after the point. Every multiplication is rounded to the minor unit
+ * half even, additions are exact, and leaving the long range throws {@link ArithmeticException}
+ */
+public final class MoneyScale {
+
+    public static final int MULTIPLIER_DECIMALS = 6;
+    static final long MULTIPLIER_ONE = 1_000_000L;
+
+    private final int decimals;
+    private final long minorPerUnit;
+
+    public MoneyScale(int decimals) {
+        if (decimals < 0 || decimals > 9) {
+            throw new IllegalArgumentException("Money decimals must be between 0 and 9: " + decimals);
+        }
+        this.decimals = decimals;
+        this.minorPerUnit = BigDecimal.ONE.movePointRight(decimals).longValueExact();
+    }
+
+    public int getDecimals() {
+        return decimals;
+    }
+
+    /**
+     * Parses an amount such as {@code "12.50"}, more decimals than the scale has are rejected instead of rounded
+     */
+    public long parse(String amount) {
+        BigDecimal value;
+        try {
+            value = new BigDecimal(amount.strip());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Amount must be a valid number: " + amount);
+        }
+        return toMinor(value);
+    }
+
+    public long toMinor(BigDecimal amount) {
+        try {
+            return amount.movePointRight(decimals).longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Amount " + amount.toPlainString() + " does not fit " + decimals + " decimals");
+        }
+    }
+
+    public long toMinor(long units) {
+        return Math.multiplyExact(units, minorPerUnit);
+    }
+
+    public BigDecimal toDecimal(long minor) {
+        return BigDecimal.valueOf(minor, decimals);
+    }
+
+    /**
+     * Scales a config multiplier, which must have at most {@value #MULTIPLIER_DECIMALS} decimals to stay exact
+     */
+    public static long toMultiplier(double multiplier) {
+        try {
+            return BigDecimal.valueOf(multiplier).movePointRight(MULTIPLIER_DECIMALS).longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Multiplier " + multiplier + " has more than " + MULTIPLIER_DECIMALS + " decimals");
+        }
+    }
+
+    /**
+     * {@code amount * multiplier}, rounded half even to the minor unit
+     */
+    public static long multiply(long amount, long multiplier) {
+        var product = Math.multiplyExact(amount, multiplier);
+        var quotient = Math.floorDiv(product, MULTIPLIER_ONE);
+        var twiceRemainder = 2 * Math.floorMod(product, MULTIPLIER_ONE);
+        if (twiceRemainder > MULTIPLIER_ONE || (twiceRemainder == MULTIPLIER_ONE && (quotient & 1) != 0)) {
+            quotient++;
+        }
+        return quotient;
+    }
+
+    /**
+     * The rounding {@link #multiply(long, long)} applies, for the {@link BigDecimal} path
+     */
+    BigDecimal round(BigDecimal amount) {
+        return amount.setScale(decimals, RoundingMode.HALF_EVEN);
+    }
+}
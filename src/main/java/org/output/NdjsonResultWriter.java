@@ -0,0 +1,201 @@
+package org.output;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.config.compiled.CompiledGame;
+import org.generator.Result;
+import org.generator.SpinContext;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+
+/**
+ * Streams spins as newline delimited JSON, one compact {@link Result} per line.
+ * <p>
+ * Records are written straight from the {@link SpinContext} buffers through one generator, symbol and combination
+ * names are escaped once per game, so no matrix, map or {@link Result} is built per spin.
+ */
+public class NdjsonResultWriter implements Closeable, Flushable {
+    /**
+     * Lines are ended by the writer itself, so no separator between root values
+     */
+    private static final ObjectWriter WRITER = new ObjectMapper().writer().withRootValueSeparator("");
+
+    private static final SerializableString MATRIX = new SerializedString("matrix");
+    private static final SerializableString REWARD = new SerializedString("reward");
+    private static final SerializableString APPLIED_WINNING_COMBINATIONS = new SerializedString("applied_winning_combinations");
+    private static final SerializableString APPLIED_BONUS_SYMBOLS = new SerializedString("applied_bonus_symbols");
+    private static final SerializableString CASCADES = new SerializedString("cascades");
+    private static final SerializableString FREE_SPINS = new SerializedString("free_spins");
+    private static final SerializableString SPINS = new SerializedString("spins");
+    private static final SerializableString WINNING_SPINS = new SerializedString("winning_spins");
+    private static final SerializableString RNG = new SerializedString("rng");
+    private static final SerializableString SEED = new SerializedString("seed");
+
+    private final CompiledGame game;
+    private final JsonGenerator generator;
+    private final SerializableString[] symbolNames;
+    private final SerializableString[] combinationNames;
+
+    public NdjsonResultWriter(CompiledGame game, OutputStream out) throws IOException {
+        this.game = game;
+        this.generator = WRITER.createGenerator(out);
+        this.symbolNames = new SerializableString[game.getSymbolCount()];
+        for (int symbol = 0; symbol < symbolNames.length; symbol++) {
+            symbolNames[symbol] = new SerializedString(game.getSymbolName(symbol));
+        }
+        this.combinationNames = new SerializableString[game.getCombinationCount()];
+        for (int combination = 0; combination < combinationNames.length; combination++) {
+            combinationNames[combination] = new SerializedString(game.getCombinationName(combination));
+        }
+    }
+
+    /**
+     * Writes the spin of {@code context} as one line, with the same fields as a single spin of the command line
+     */
+    public void write(SpinContext context, String rng, long seed) throws IOException {
+        write(context, null, rng, seed);
+    }
+
+    /**
+     * Writes the spin with an exact reward, computed in money mode, instead of the one of the context
+     */
+    public void write(SpinContext context, BigDecimal reward, String rng, long seed) throws IOException {
+        if (context.getGame() != game) {
+            throw new IllegalArgumentException("Spin was played with another config");
+        }
+
+        generator.writeStartObject();
+
+        // A cascade spin starts with its first board, as Result does
+        var steps = context.getStepCount();
+        writeMatrix(context, steps > 0 ? 0 : -1);
+
+        generator.writeFieldName(REWARD);
+        if (reward == null) {
+            generator.writeNumber(context.getReward());
+        } else {
+            generator.writeNumber(reward);
+        }
+
+        writeWins(context, 0, context.getWinCount());
+
+        // Bonus symbols are only applied to winning spins
+        generator.writeFieldName(APPLIED_BONUS_SYMBOLS);
+        generator.writeStartArray();
+        if (reward == null ? context.getReward() != 0 : reward.signum() != 0) {
+            for (int i = 0; i < context.getBonusCount(); i++) {
+                writeSymbol(context, context.getBonusSymbol(i));
+            }
+        }
+        generator.writeEndArray();
+
+        if (steps > 0) {
+            generator.writeFieldName(CASCADES);
+            generator.writeStartArray();
+            for (int step = 0; step < steps; step++) {
+                generator.writeStartObject();
+                writeMatrix(context, step);
+                generator.writeFieldName(REWARD);
+                generator.writeNumber(context.getStepReward(step));
+                writeWins(context, step == 0 ? 0 : context.getStepWinEnd(step - 1), context.getStepWinEnd(step));
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+        }
+
+        if (context.getFreeSpinCount() > 0) {
+            generator.writeFieldName(FREE_SPINS);
+            generator.writeStartObject();
+            generator.writeFieldName(SPINS);
+            generator.writeNumber(context.getFreeSpinCount());
+            generator.writeFieldName(WINNING_SPINS);
+            generator.writeNumber(context.getWinningFreeSpinCount());
+            generator.writeFieldName(REWARD);
+            generator.writeNumber(context.getFreeSpinsReward());
+            generator.writeEndObject();
+        }
+
+        generator.writeFieldName(RNG);
+        generator.writeString(rng);
+        generator.writeFieldName(SEED);
+        generator.writeNumber(seed);
+
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    @Override
+    public void flush() throws IOException {
+        generator.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.close();
+    }
+
+    /**
+     * Writes the board of a cascade step, or the current board for step -1
+     */
+    private void writeMatrix(SpinContext context, int step) throws IOException {
+        generator.writeFieldName(MATRIX);
+        generator.writeStartArray();
+        var columns = game.getColumns();
+        for (int row = 0; row < game.getRows(); row++) {
+            generator.writeStartArray();
+            for (int col = 0; col < columns; col++) {
+                var cell = row * columns + col;
+                writeSymbol(context, step < 0 ? context.getSymbolAt(cell) : context.getStepSymbolAt(step, cell));
+            }
+            generator.writeEndArray();
+        }
+        generator.writeEndArray();
+    }
+
+    /**
+     * Wins of one symbol are grouped under its first win, as Result keeps one list per symbol
+     */
+    private void writeWins(SpinContext context, int from, int to) throws IOException {
+        generator.writeFieldName(APPLIED_WINNING_COMBINATIONS);
+        generator.writeStartObject();
+        for (int i = from; i < to; i++) {
+            var symbol = context.getWinSymbol(i);
+            if (isWrittenBefore(context, from, i, symbol)) {
+                continue;
+            }
+            generator.writeFieldName(symbol < symbolNames.length ? symbolNames[symbol] : new SerializedString(context.getSymbolName(symbol)));
+            generator.writeStartArray();
+            for (int j = i; j < to; j++) {
+                if (context.getWinSymbol(j) == symbol) {
+                    generator.writeString(combinationNames[context.getWinCombination(j)]);
+                }
+            }
+            generator.writeEndArray();
+        }
+        generator.writeEndObject();
+    }
+
+    private void writeSymbol(SpinContext context, int symbol) throws IOException {
+        if (symbol < symbolNames.length) {
+            generator.writeString(symbolNames[symbol]);
+        } else {
+            generator.writeString(context.getSymbolName(symbol));
+        }
+    }
+
+    private static boolean isWrittenBefore(SpinContext context, int from, int win, int symbol) {
+        for (int i = from; i < win; i++) {
+            if (context.getWinSymbol(i) == symbol) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
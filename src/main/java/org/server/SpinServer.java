@@ -0,0 +1,293 @@
+package org.server;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.config.compiled.CompiledGame;
+import org.config.model.GameConfig;
+import org.config.registry.ConfigRegistry;
+import org.config.registry.GameRegistry;
+import org.config.registry.InvalidConfigException;
+import org.generator.GameProcessor;
+import org.generator.Result;
+import org.generator.SpinContext;
+import org.generator.random.RandomSource;
+import org.metrics.SpinMetrics;
+import org.metrics.Stage;
+import org.simulation.SimulationReport;
+import org.simulation.StripedAccumulator;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Long-running spin service: {@code POST /spin} with {@code {"betting_amount": 100}} returns the same
+ * {@link Result} JSON as a single spin of the command line.
+ * <p>
+ * The config is compiled once and shared read only. With a {@link ConfigRegistry} every spin takes the current
+ * snapshot of the config. Every request runs on its own virtual thread with its own {@link SpinContext} and a random
+ * stream seeded from the root source; the seed is part of the response, so {@code --seed} on the command line replays
+ * the spin.
+ * <p>
+ * {@code GET /stats} returns the RTP, its confidence interval and the payout percentiles of the spins served since the
+ * config was last loaded, recording them never blocks a spin.
+ * <p>
+ * With a {@link GameRegistry} every registered game is served on {@code POST /games/<id>/spin} and
+ * {@code GET /games/<id>/stats}, games are loaded on their first spin. Statistics belong to the loaded game, a game
+ * evicted from the registry starts new ones when it is loaded again.
+ * <p>
+ * {@code GET /metrics} returns the {@link SpinMetrics} in the Prometheus text format, they are only recorded with
+ * {@code -Dslot.metrics=true}.
+ */
+public class SpinServer {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private static final String GAMES_PATH = "/games/";
+
+    /**
+     * Current game of an id, {@link #defaultGame} is served on the paths without an id
+     */
+    private final Function<String, CompiledGame> games;
+    private final String defaultGame;
+    private final RandomSource randomSource;
+    private final Map<String, AtomicReference<StripedAccumulator>> statistics = new ConcurrentHashMap<>();
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public SpinServer(GameConfig config, RandomSource randomSource) {
+        var game = CompiledGame.compile(config);
+        this.games = gameId -> game;
+        this.defaultGame = "";
+        this.randomSource = randomSource;
+    }
+
+    public SpinServer(ConfigRegistry registry, String name, RandomSource randomSource) {
+        registry.get(name);
+        this.games = gameId -> registry.get(gameId).getGame();
+        this.defaultGame = name;
+        this.randomSource = randomSource;
+    }
+
+    public SpinServer(GameRegistry registry, RandomSource randomSource) {
+        this.games = registry::get;
+        this.defaultGame = null;
+        this.randomSource = randomSource;
+    }
+
+    /**
+     * @param port 0 picks a free port, see {@link #getPort()}
+     */
+    public synchronized void start(int port) throws IOException {
+        if (server != null) {
+            throw new IllegalStateException("Server is already running");
+        }
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.createContext("/spin", this::handleSpin);
+        server.createContext("/stats", this::handleStats);
+        server.createContext("/metrics", this::handleMetrics);
+        server.createContext(GAMES_PATH, this::handleGame);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    public synchronized int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public synchronized void stop() {
+        if (server != null) {
+            server.stop(0);
+            executor.close();
+            server = null;
+        }
+    }
+
+    public Result spin(double betAmount) {
+        return spin(requireDefaultGame(), betAmount);
+    }
+
+    /**
+     * @throws IllegalArgumentException when the game is not known or the bet is not positive
+     */
+    public Result spin(String gameId, double betAmount) {
+        if (betAmount <= 0) {
+            throw new IllegalArgumentException("Bet amount must be greater than zero.");
+        }
+
+        var seed = randomSource.nextSeed();
+        var algorithm = randomSource.getAlgorithm();
+        var gameProcessor = new GameProcessor(RandomSource.of(algorithm, seed).split());
+        var game = games.apply(gameId);
+        var spinContext = new SpinContext(game);
+        var reward = gameProcessor.spin(spinContext, betAmount);
+        statisticsOf(gameId, game).addSpin(spinContext, betAmount);
+
+        var gameResult = spinContext.toResult(new Result());
+        gameResult.setRandomSource(algorithm.getAlgorithmName(), seed);
+        if (reward == 0) {
+            gameResult.clearBonusSymbols();
+        }
+        return gameResult;
+    }
+
+    /**
+     * Statistics of the spins served with the current config
+     */
+    public SimulationReport getStatistics() {
+        return getStatistics(requireDefaultGame());
+    }
+
+    public SimulationReport getStatistics(String gameId) {
+        return statisticsOf(gameId, games.apply(gameId)).snapshot();
+    }
+
+    private String requireDefaultGame() {
+        if (defaultGame == null) {
+            throw new IllegalArgumentException("No default game, spins need a game id");
+        }
+        return defaultGame;
+    }
+
+    /**
+     * A reloaded config starts new statistics, its combinations and payouts are not comparable with the previous one
+     */
+    private StripedAccumulator statisticsOf(String gameId, CompiledGame game) {
+        var statistics = this.statistics.computeIfAbsent(gameId, key -> new AtomicReference<>());
+        var current = statistics.get();
+        while (current == null || current.getGame() != game) {
+            var fresh = new StripedAccumulator(game);
+            if (statistics.compareAndSet(current, fresh)) {
+                return fresh;
+            }
+            current = statistics.get();
+        }
+        return current;
+    }
+
+    private void handleStats(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (defaultGame == null) {
+                respond(exchange, 404, Map.of("error", "Statistics are served on " + GAMES_PATH + "<id>/stats"));
+                return;
+            }
+            stats(exchange, defaultGame);
+        }
+    }
+
+    private void stats(HttpExchange exchange, String gameId) throws IOException {
+        if (!"GET".equals(exchange.getRequestMethod())) {
+            exchange.getResponseHeaders().set("Allow", "GET");
+            respond(exchange, 405, Map.of("error", "Only GET is supported"));
+            return;
+        }
+        respond(exchange, 200, getStatistics(gameId));
+    }
+
+    /**
+     * {@code /games/<id>/spin} and {@code /games/<id>/stats}, the game is loaded before the request is looked at
+     */
+    private void handleGame(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            var parts = exchange.getRequestURI().getPath().substring(GAMES_PATH.length()).split("/");
+            if (parts.length != 2 || parts[0].isEmpty()) {
+                respond(exchange, 404, Map.of("error", "Use " + GAMES_PATH + "<id>/spin or " + GAMES_PATH + "<id>/stats"));
+                return;
+            }
+            var gameId = parts[0];
+            try {
+                games.apply(gameId);
+            } catch (InvalidConfigException e) {
+                respond(exchange, 500, Map.of("error", e.getMessage()));
+                return;
+            } catch (IllegalArgumentException e) {
+                respond(exchange, 404, Map.of("error", "Unknown game: " + gameId));
+                return;
+            }
+            switch (parts[1]) {
+                case "spin" -> spin(exchange, gameId);
+                case "stats" -> stats(exchange, gameId);
+                default -> respond(exchange, 404, Map.of("error", "Unknown action: " + parts[1]));
+            }
+        }
+    }
+
+    private void handleMetrics(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.getResponseHeaders().set("Allow", "GET");
+                respond(exchange, 405, Map.of("error", "Only GET is supported"));
+                return;
+            }
+            var bytes = SpinMetrics.get().toPrometheus().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+            exchange.sendResponseHeaders(200, bytes.length);
+            exchange.getResponseBody().write(bytes);
+        }
+    }
+
+    private void handleSpin(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (defaultGame == null) {
+                respond(exchange, 404, Map.of("error", "Spins are served on " + GAMES_PATH + "<id>/spin"));
+                return;
+            }
+            spin(exchange, defaultGame);
+        }
+    }
+
+    private void spin(HttpExchange exchange, String gameId) throws IOException {
+        if (!"POST".equals(exchange.getRequestMethod())) {
+            exchange.getResponseHeaders().set("Allow", "POST");
+            respond(exchange, 405, Map.of("error", "Only POST is supported"));
+            return;
+        }
+
+        SpinRequest request;
+        try {
+            request = OBJECT_MAPPER.readValue(exchange.getRequestBody(), SpinRequest.class);
+        } catch (JsonProcessingException e) {
+            respond(exchange, 400, Map.of("error", "Request body must be {\"betting_amount\": <number>}"));
+            return;
+        }
+        if (request.bettingAmount() == null) {
+            respond(exchange, 400, Map.of("error", "betting_amount is required"));
+            return;
+        }
+
+        Result gameResult;
+        try {
+            gameResult = spin(gameId, request.bettingAmount());
+        } catch (IllegalArgumentException e) {
+            respond(exchange, 400, Map.of("error", e.getMessage()));
+            return;
+        }
+        if (SpinMetrics.ENABLED) {
+            var start = System.nanoTime();
+            respond(exchange, 200, gameResult);
+            SpinMetrics.get().recordSince(Stage.SERIALIZE, start);
+            return;
+        }
+        respond(exchange, 200, gameResult);
+    }
+
+    private static void respond(HttpExchange exchange, int status, Object body) throws IOException {
+        var bytes = OBJECT_MAPPER.writeValueAsBytes(body);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    private record SpinRequest(@JsonProperty("betting_amount") Double bettingAmount) {
+    }
+}
@@ -0,0 +1,372 @@
+package org.simulation;
+
+import org.config.compiled.CompiledGame;
+import org.config.compiled.Impact;
+import org.config.compiled.WinKind;
+import org.config.model.GameConfig;
+
+import java.util.*;
+
+/**
+ * Computes the theoretical return of a game without playing it.
+ * <p>
+ * Cells are drawn independently, so the final reward {@code 1{win} * (A * R + B)} can be taken apart:
+ * {@code A} is the product of all multiply_reward bonuses, {@code B} the extra bonuses passed through the multipliers
+ * after them, and {@code R = sum of R(s)} where {@code R(s)} only depends on the cells holding symbol {@code s}.
+ * <ul>
+ *     <li>{@code E[A * R(s)]} comes from a per symbol pass over the cells keeping (capped count, dead areas) states</li>
+ *     <li>{@code E[B]} is a product of per cell expectations</li>
+ *     <li>{@code E[1{no win} * B]} comes from a joint pass which keeps only states without any win yet</li>
+ * </ul>
+ * States reached in several ways are merged, and symbols with the same per cell odds share one pass.
+ */
+public class ExactRtpCalculator {
+
+    /**
+     * Guards against configs whose state space cannot be enumerated, those need a simulation
+     */
+    private static final int MAX_STATES = 4_000_000;
+    private static final int UNTOUCHED = -1;
+    private static final int DEAD = -2;
+
+    private final CompiledGame game;
+    private final int cells;
+    private final int symbols;
+    private final double[][] probabilities;
+    private final double[] multipliers;
+    private final double[] extras;
+    private final int[][] cellAreas;
+    private final int[] areaLastCells;
+
+    public ExactRtpCalculator(GameConfig config) {
+        this(CompiledGame.compile(config));
+    }
+
+    /**
+     * @throws IllegalArgumentException for reel strip, cascade, free spins and cluster games, their boards are not drawn
+     *                                  or evaluated cell by cell
+     */
+    public ExactRtpCalculator(CompiledGame game) {
+        if (game.isReelStrips()) {
+            throw new IllegalArgumentException("Exact RTP is not available for reel strips, use --simulate");
+        }
+        if (game.isCascade()) {
+            throw new IllegalArgumentException("Exact RTP is not available for cascades, use --simulate");
+        }
+        if (game.hasFreeSpins()) {
+            throw new IllegalArgumentException("Exact RTP is not available for free spins, use --simulate");
+        }
+        if (game.hasClusters()) {
+            throw new IllegalArgumentException("Exact RTP is not available for cluster wins, use --simulate");
+        }
+        if (game.hasWays()) {
+            throw new IllegalArgumentException("Exact RTP is not available for ways wins, use --simulate");
+        }
+        this.game = game;
+        this.cells = game.getCellCount();
+        this.symbols = game.getSymbolCount();
+
+        this.multipliers = new double[symbols];
+        this.extras = new double[symbols];
+        for (int symbol = 0; symbol < symbols; symbol++) {
+            multipliers[symbol] = game.isBonus(symbol) && game.getImpact(symbol) == Impact.MULTIPLY_REWARD ? game.getRewardMultiplier(symbol) : 1;
+            extras[symbol] = game.isBonus(symbol) && game.getImpact(symbol) == Impact.EXTRA_BONUS ? game.getExtra(symbol) : 0;
+        }
+
+        var bonusPossibility = game.getBonusPossibility() / 100.0;
+        this.probabilities = new double[cells][symbols];
+        for (int cell = 0; cell < cells; cell++) {
+            var sampler = game.getCellSampler(cell);
+            for (int i = 0; i < sampler.size(); i++) {
+                probabilities[cell][sampler.getSymbol(i)] += (1 - bonusPossibility) * sampler.getWeight(i) / sampler.getTotalWeight();
+            }
+            var bonusSampler = game.getBonusSampler();
+            if (bonusSampler == null) {
+                probabilities[cell][game.getMissSymbol()] += bonusPossibility;
+                continue;
+            }
+            for (int i = 0; i < bonusSampler.size(); i++) {
+                probabilities[cell][bonusSampler.getSymbol(i)] += bonusPossibility * bonusSampler.getWeight(i) / bonusSampler.getTotalWeight();
+            }
+        }
+
+        var areas = game.getAreaCount();
+        this.areaLastCells = new int[areas];
+        List<List<Integer>> areasOfCells = new ArrayList<>();
+        for (int cell = 0; cell < cells; cell++) {
+            areasOfCells.add(new ArrayList<>());
+        }
+        for (int area = 0; area < areas; area++) {
+            for (int cell : game.getAreaCells(area)) {
+                areasOfCells.get(cell).add(area);
+                areaLastCells[area] = Math.max(areaLastCells[area], cell);
+            }
+        }
+        this.cellAreas = areasOfCells.stream().map(list -> list.stream().distinct().mapToInt(Integer::intValue).toArray()).toArray(int[][]::new);
+    }
+
+    public ExactRtpReport calculate(double betAmount) {
+        if (betAmount <= 0) {
+            throw new IllegalArgumentException("Bet amount must be greater than zero.");
+        }
+
+        var report = new ExactRtpReport();
+        var combinationPairs = new double[game.getCombinationCount()];
+        var combinationReturns = new double[game.getCombinationCount()];
+        var boostedReturn = 0.0;
+
+        Map<List<Double>, Map<SymbolState, double[]>> passes = new HashMap<>();
+        for (int symbol = 0; symbol < symbols; symbol++) {
+            var finalStates = passes.computeIfAbsent(symbolProfile(symbol), key -> symbolPass(key));
+
+            var symbolMultiplier = game.isDeclared(symbol) ? game.getRewardMultiplier(symbol) : 0;
+            var winProbability = 0.0;
+            var symbolReturn = 0.0;
+            for (Map.Entry<SymbolState, double[]> entry : finalStates.entrySet()) {
+                var state = entry.getKey();
+                var mass = entry.getValue();
+                var same = state.count == 0 ? -1 : game.getSameSymbolsCombination(state.count);
+                var completed = new BitSet();
+                completed.set(0, game.getAreaCount());
+                completed.andNot(state.dead);
+                if (same < 0 && completed.isEmpty()) {
+                    continue;
+                }
+
+                var reward = betAmount * symbolMultiplier;
+                if (same >= 0) {
+                    reward *= game.getCombinationMultiplier(same);
+                }
+                for (int area = completed.nextSetBit(0); area >= 0; area = completed.nextSetBit(area + 1)) {
+                    reward *= game.getCombinationMultiplier(game.getAreaCombination(area));
+                }
+
+                winProbability += mass[0];
+                symbolReturn += mass[0] * reward;
+                boostedReturn += mass[1] * reward;
+                if (same >= 0) {
+                    combinationPairs[same] += mass[0];
+                    combinationReturns[same] += mass[0] * reward;
+                }
+                // a symbol counts once for a combination it wins in several areas
+                var areaCombinations = new BitSet();
+                for (int area = completed.nextSetBit(0); area >= 0; area = completed.nextSetBit(area + 1)) {
+                    areaCombinations.set(game.getAreaCombination(area));
+                }
+                for (int combination = areaCombinations.nextSetBit(0); combination >= 0; combination = areaCombinations.nextSetBit(combination + 1)) {
+                    combinationPairs[combination] += mass[0];
+                    combinationReturns[combination] += mass[0] * reward;
+                }
+            }
+            if (winProbability > 0) {
+                report.addSymbol(game.getSymbolName(symbol), winProbability, symbolReturn / betAmount);
+            }
+        }
+        for (int combination = 0; combination < combinationPairs.length; combination++) {
+            if (combinationPairs[combination] > 0) {
+                report.addCombination(game.getCombinationName(combination), combinationPairs[combination], combinationReturns[combination] / betAmount);
+            }
+        }
+
+        var expectedExtra = expectedExtra();
+        var noWin = noWinPass();
+        var totalReturn = boostedReturn + expectedExtra - noWin[1];
+        report.setTotals(totalReturn / betAmount, 1 - noWin[0]);
+        return report;
+    }
+
+    /**
+     * Everything a per symbol pass depends on: for every cell the chance to hold the symbol, with and without multipliers
+     */
+    private List<Double> symbolProfile(int symbol) {
+        var profile = new ArrayList<Double>(cells * 3);
+        for (int cell = 0; cell < cells; cell++) {
+            var boostedTotal = 0.0;
+            for (int other = 0; other < symbols; other++) {
+                boostedTotal += probabilities[cell][other] * multipliers[other];
+            }
+            var in = probabilities[cell][symbol];
+            profile.add(in);
+            profile.add(in * multipliers[symbol]);
+            profile.add(boostedTotal - in * multipliers[symbol]);
+        }
+        return profile;
+    }
+
+    /**
+     * Distribution of (count, dead areas) of one symbol over the whole board. Masses are the plain probability
+     * and the probability weighted by the product of all multiply_reward bonuses
+     */
+    private Map<SymbolState, double[]> symbolPass(List<Double> profile) {
+        var cap = 1;
+        for (int combination = 0; combination < game.getCombinationCount(); combination++) {
+            cap = Math.max(cap, game.getRequiredCount(combination));
+        }
+        cap = Math.min(cap, cells);
+
+        Map<SymbolState, double[]> states = new HashMap<>();
+        states.put(new SymbolState(0, new BitSet()), new double[]{1, 1});
+        for (int cell = 0; cell < cells; cell++) {
+            var in = profile.get(cell * 3);
+            var boostedIn = profile.get(cell * 3 + 1);
+            var boostedOut = profile.get(cell * 3 + 2);
+            var out = 1 - in;
+
+            Map<SymbolState, double[]> next = new HashMap<>();
+            for (Map.Entry<SymbolState, double[]> entry : states.entrySet()) {
+                var state = entry.getKey();
+                var mass = entry.getValue();
+                if (in > 0) {
+                    add(next, new SymbolState(Math.min(state.count + 1, cap), state.dead), mass[0] * in, mass[1] * boostedIn);
+                }
+                if (out > 0) {
+                    var dead = (BitSet) state.dead.clone();
+                    for (int area : cellAreas[cell]) {
+                        dead.set(area);
+                    }
+                    add(next, new SymbolState(state.count, dead), mass[0] * out, mass[1] * boostedOut);
+                }
+            }
+            states = next;
+            checkStateCount(states.size());
+        }
+        return states;
+    }
+
+    /**
+     * Expected extra bonus passed through the multipliers which follow it, as applied when the spin wins
+     */
+    private double expectedExtra() {
+        var expected = 0.0;
+        for (int cell = 0; cell < cells; cell++) {
+            var multiplier = 0.0;
+            var extra = 0.0;
+            for (int symbol = 0; symbol < symbols; symbol++) {
+                multiplier += probabilities[cell][symbol] * multipliers[symbol];
+                extra += probabilities[cell][symbol] * extras[symbol];
+            }
+            expected = expected * multiplier + extra;
+        }
+        return expected;
+    }
+
+    /**
+     * Probability of a spin without any winning combination and the expected extra bonus on such spins,
+     * the latter is never paid and has to be taken out of {@link #expectedExtra()}
+     */
+    private double[] noWinPass() {
+        var minimumCount = Integer.MAX_VALUE;
+        for (int combination = 0; combination < game.getCombinationCount(); combination++) {
+            var required = game.getRequiredCount(combination);
+            if (game.getCombinationKind(combination) == WinKind.SAME_SYMBOLS && required <= cells) {
+                minimumCount = Math.min(minimumCount, Math.max(1, required));
+            }
+        }
+        var trackCounts = minimumCount != Integer.MAX_VALUE;
+        var areas = new int[game.getAreaCount()];
+        Arrays.fill(areas, UNTOUCHED);
+
+        Map<NoWinState, double[]> states = new HashMap<>();
+        states.put(new NoWinState(new int[trackCounts ? symbols : 0], areas), new double[]{1, 0});
+        for (int cell = 0; cell < cells; cell++) {
+            Map<NoWinState, double[]> next = new HashMap<>();
+            for (Map.Entry<NoWinState, double[]> entry : states.entrySet()) {
+                var state = entry.getKey();
+                var mass = entry.getValue();
+                for (int symbol = 0; symbol < symbols; symbol++) {
+                    var probability = probabilities[cell][symbol];
+                    if (probability == 0) {
+                        continue;
+                    }
+                    var nextState = advance(state, cell, symbol, trackCounts, minimumCount);
+                    if (nextState != null) {
+                        add(next, nextState, mass[0] * probability, probability * (mass[1] * multipliers[symbol] + mass[0] * extras[symbol]));
+                    }
+                }
+            }
+            states = next;
+            checkStateCount(states.size());
+        }
+
+        var result = new double[2];
+        for (double[] mass : states.values()) {
+            result[0] += mass[0];
+            result[1] += mass[1];
+        }
+        return result;
+    }
+
+    /**
+     * Returns null once the symbol on the cell makes the spin win
+     */
+    private NoWinState advance(NoWinState state, int cell, int symbol, boolean trackCounts, int minimumCount) {
+        var counts = state.counts;
+        if (trackCounts) {
+            if (counts[symbol] + 1 >= minimumCount) {
+                return null;
+            }
+            counts = counts.clone();
+            counts[symbol]++;
+        }
+
+        var areas = state.areas;
+        if (cellAreas[cell].length > 0) {
+            areas = areas.clone();
+            for (int area : cellAreas[cell]) {
+                var status = areas[area];
+                if (status == UNTOUCHED || status == symbol) {
+                    if (areaLastCells[area] == cell) {
+                        return null;
+                    }
+                    areas[area] = symbol;
+                } else {
+                    areas[area] = DEAD;
+                }
+            }
+        }
+        return new NoWinState(counts, areas);
+    }
+
+    private static <K> void add(Map<K, double[]> states, K state, double mass, double weightedMass) {
+        var existing = states.computeIfAbsent(state, key -> new double[2]);
+        existing[0] += mass;
+        existing[1] += weightedMass;
+    }
+
+    private static void checkStateCount(int states) {
+        if (states > MAX_STATES) {
+            throw new IllegalStateException("Config is too large for an exact calculation (" + states + " states), use --simulate");
+        }
+    }
+
+    /**
+     * Count of one symbol, capped at the highest same symbols count, and the covered areas which got another symbol
+     */
+    private record SymbolState(int count, BitSet dead) {
+    }
+
+    /**
+     * Count of every symbol and, for every covered area, {@link #UNTOUCHED}, {@link #DEAD} or the symbol it was started with
+     */
+    private static final class NoWinState {
+        private final int[] counts;
+        private final int[] areas;
+        private final int hash;
+
+        private NoWinState(int[] counts, int[] areas) {
+            this.counts = counts;
+            this.areas = areas;
+            this.hash = 31 * Arrays.hashCode(counts) + Arrays.hashCode(areas);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof NoWinState state && Arrays.equals(counts, state.counts) && Arrays.equals(areas, state.areas);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package org.simulation;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Theoretical return of a game, with the same meaning of every figure as in {@link SimulationReport}
+ */
+public class ExactRtpReport {
+
+    @JsonProperty("rtp")
+    private double rtp;
+
+    @JsonProperty("hit_frequency")
+    private double hitFrequency;
+
+    @JsonProperty("symbols")
+    private final Map<String, SimulationReport.Contribution> symbols = new LinkedHashMap<>();
+
+    /**
+     * The hit frequency of a combination is the expected number of symbols winning it on a board, the share of spins
+     * it wins on as long as two symbols do not win it on the same board
+     */
+    @JsonProperty("combinations")
+    private final Map<String, SimulationReport.CombinationContribution> combinations = new LinkedHashMap<>();
+
+    @JsonProperty("bonus_rtp")
+    private double bonusRtp;
+
+    void addSymbol(String symbol, double hitFrequency, double symbolRtp) {
+        symbols.put(symbol, new SimulationReport.Contribution(hitFrequency, symbolRtp));
+        bonusRtp -= symbolRtp;
+    }
+
+    void addCombination(String combination, double hitFrequency, double involvedRtp) {
+        combinations.put(combination, new SimulationReport.CombinationContribution(hitFrequency, involvedRtp));
+    }
+
+    void setTotals(double rtp, double hitFrequency) {
+        this.rtp = rtp;
+        this.hitFrequency = hitFrequency;
+        this.bonusRtp += rtp;
+    }
+
+    public double getRtp() {
+        return rtp;
+    }
+
+    public double getHitFrequency() {
+        return hitFrequency;
+    }
+
+    public Map<String, SimulationReport.Contribution> getSymbols() {
+        return symbols;
+    }
+
+    public Map<String, SimulationReport.CombinationContribution> getCombinations() {
+        return combinations;
+    }
+
+    public double getBonusRtp() {
+        return bonusRtp;
+    }
+}
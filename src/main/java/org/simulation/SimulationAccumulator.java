@@ -0,0 +1,184 @@
+package org.simulation;
+
+import org.config.compiled.CompiledGame;
+import org.config.compiled.Impact;
+import org.generator.SpinContext;
+import org.stats.LogHistogram;
+import org.stats.RatioStats;
+import org.stats.RunningStats;
+
+/**
+ * Totals of the spins played by one worker. Not thread safe, every worker owns its accumulator and they are merged at the end
+ */
+public class SimulationAccumulator {
+
+    /**
+     * Lower bounds of the payout buckets, in multiples of the bet. A spin returning exactly 0 has its own bucket
+     */
+    static final double[] PAYOUT_BUCKETS = {0, 1, 2, 5, 10, 20, 50, 100, 500, 1000};
+
+    private final CompiledGame game;
+    private long spins;
+    private long hits;
+    private double totalBet;
+    private double totalReward;
+    private final RunningStats ratios = new RunningStats();
+    /**
+     * Rewards over bets, the RTP interval with varying bets
+     */
+    private final RatioStats returns = new RatioStats();
+    private final LogHistogram ratioHistogram = new LogHistogram();
+    private long zeroPayouts;
+    private final long[] payoutBuckets = new long[PAYOUT_BUCKETS.length];
+    /**
+     * Spins on which at least one bonus symbol of the impact was applied
+     */
+    private final long[] impactSpins = new long[Impact.values().length];
+
+    private final long[] symbolHits;
+    private final double[] symbolReturns;
+    /**
+     * Spins on which the combination won, and the rewards of the symbols which won it, each counted once per spin
+     */
+    private final long[] combinationHits;
+    private final double[] combinationReturns;
+
+    public SimulationAccumulator(CompiledGame game) {
+        this.game = game;
+        this.symbolHits = new long[game.getSymbolCount()];
+        this.symbolReturns = new double[game.getSymbolCount()];
+        this.combinationHits = new long[game.getCombinationCount()];
+        this.combinationReturns = new double[game.getCombinationCount()];
+    }
+
+    /**
+     * Records a spin played into {@code context}
+     */
+    public void addSpin(SpinContext context, double betAmount) {
+        for (int word = 0; word < (combinationHits.length + Long.SIZE - 1) / Long.SIZE; word++) {
+            for (long bits = context.getCombinationBits(word); bits != 0; bits &= bits - 1) {
+                combinationHits[word * Long.SIZE + Long.numberOfTrailingZeros(bits)]++;
+            }
+        }
+        for (int win = 0; win < context.getWinCount(); win++) {
+            var symbol = context.getWinSymbol(win);
+            var combination = context.getWinCombination(win);
+            if (!isWonBefore(context, win, symbol, combination)) {
+                combinationReturns[combination] += context.getSymbolReward(symbol);
+            }
+        }
+        for (int symbol = 0; symbol < symbolHits.length; symbol++) {
+            if (context.isWinning(symbol)) {
+                symbolHits[symbol]++;
+                symbolReturns[symbol] += context.getSymbolReward(symbol);
+            }
+        }
+        // Bonus symbols are only applied to spins with a win, free spins are triggered by any spin
+        var applied = context.getFreeSpinCount() > 0 ? 1 << Impact.FREE_SPINS.ordinal() : 0;
+        if (context.getWinCount() > 0) {
+            for (int i = 0; i < context.getBonusCount(); i++) {
+                applied |= 1 << game.getImpact(context.getBonusSymbol(i)).ordinal();
+            }
+        }
+        for (int impact = 0; applied != 0; impact++, applied >>>= 1) {
+            if ((applied & 1) != 0) {
+                impactSpins[impact]++;
+            }
+        }
+        addSpin(betAmount, context.getReward(), context.getWinCount() > 0 || context.getWinningFreeSpinCount() > 0);
+    }
+
+    /**
+     * Whether the symbol won the combination in an earlier win of the spin, e.g. in another covered area
+     */
+    private static boolean isWonBefore(SpinContext context, int win, int symbol, int combination) {
+        for (int i = 0; i < win; i++) {
+            if (context.getWinSymbol(i) == symbol && context.getWinCombination(i) == combination) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Records one spin
+     *
+     * @param reward final reward with bonus symbols applied
+     * @param hit    whether the spin or one of its free spins had at least one winning combination
+     */
+    public void addSpin(double betAmount, double reward, boolean hit) {
+        var ratio = reward / betAmount;
+        spins++;
+        totalBet += betAmount;
+        totalReward += reward;
+        ratios.add(ratio);
+        returns.add(betAmount, reward);
+        ratioHistogram.record(ratio);
+        if (hit) {
+            hits++;
+        }
+
+        if (ratio == 0) {
+            zeroPayouts++;
+            return;
+        }
+        for (int bucket = PAYOUT_BUCKETS.length - 1; bucket >= 0; bucket--) {
+            if (ratio >= PAYOUT_BUCKETS[bucket]) {
+                payoutBuckets[bucket]++;
+                return;
+            }
+        }
+        // negative payouts cannot happen, count them as zero to keep the totals consistent
+        zeroPayouts++;
+    }
+
+    public void merge(SimulationAccumulator other) {
+        spins += other.spins;
+        hits += other.hits;
+        totalBet += other.totalBet;
+        totalReward += other.totalReward;
+        ratios.merge(other.ratios);
+        returns.merge(other.returns);
+        ratioHistogram.merge(other.ratioHistogram);
+        zeroPayouts += other.zeroPayouts;
+        for (int bucket = 0; bucket < payoutBuckets.length; bucket++) {
+            payoutBuckets[bucket] += other.payoutBuckets[bucket];
+        }
+        for (int symbol = 0; symbol < symbolHits.length; symbol++) {
+            symbolHits[symbol] += other.symbolHits[symbol];
+            symbolReturns[symbol] += other.symbolReturns[symbol];
+        }
+        for (int combination = 0; combination < combinationHits.length; combination++) {
+            combinationHits[combination] += other.combinationHits[combination];
+            combinationReturns[combination] += other.combinationReturns[combination];
+        }
+        for (int impact = 0; impact < impactSpins.length; impact++) {
+            impactSpins[impact] += other.impactSpins[impact];
+        }
+    }
+
+    public long getSpins() {
+        return spins;
+    }
+
+    public SimulationReport toReport() {
+        var report = new SimulationReport(spins, hits, totalBet, totalReward, ratios, returns, ratioHistogram, zeroPayouts,
+                payoutBuckets);
+        for (int symbol = 0; symbol < symbolHits.length; symbol++) {
+            if (symbolHits[symbol] > 0) {
+                report.addSymbol(game.getSymbolName(symbol), symbolHits[symbol], symbolReturns[symbol]);
+            }
+        }
+        for (int combination = 0; combination < combinationHits.length; combination++) {
+            if (combinationHits[combination] > 0) {
+                report.addCombination(game.getCombinationName(combination), combinationHits[combination], combinationReturns[combination]);
+            }
+        }
+        for (Impact impact : Impact.values()) {
+            if (impactSpins[impact.ordinal()] > 0) {
+                report.addImpact(impact.name().toLowerCase(), impactSpins[impact.ordinal()]);
+            }
+        }
+        return report;
+    }
+}
@@ -0,0 +1,237 @@
+package org.simulation;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.stats.LogHistogram;
+import org.stats.RatioStats;
+import org.stats.RunningStats;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Aggregated outcome of a simulation run. Returns are expressed as a fraction of the total bet
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SimulationReport {
+    private static final double[] PERCENTILES = {0.5, 0.9, 0.99, 0.999, 0.9999};
+    private static final String[] PERCENTILE_LABELS = {"p50", "p90", "p99", "p99.9", "p99.99"};
+
+    @JsonProperty("spins")
+    private final long spins;
+
+    @JsonProperty("rtp")
+    private final double rtp;
+
+    private final double totalBet;
+
+    /**
+     * Half width of the 95% confidence interval of the RTP, sized for total reward over total bet so it also holds
+     * when the bets of the spins differ
+     */
+    @JsonProperty("rtp_confidence_95")
+    private final double rtpConfidence;
+
+    @JsonProperty("rtp_interval_95")
+    private final double[] rtpInterval;
+
+    /**
+     * Share of spins with at least one winning combination
+     */
+    @JsonProperty("hit_frequency")
+    private final double hitFrequency;
+
+    /**
+     * Standard deviation of the reward to bet ratio of a single spin
+     */
+    @JsonProperty("volatility")
+    private final double volatility;
+
+    @JsonProperty("max_win")
+    private final double maxWin;
+
+    /**
+     * Return of the winning symbols before bonus symbols are applied
+     */
+    @JsonProperty("symbols")
+    private final Map<String, Contribution> symbols = new LinkedHashMap<>();
+
+    /**
+     * Share of spins every combination won on, and the return of the symbol rewards it took part in. A symbol reward
+     * counts once for each of its combinations, so the returns overlap and add up to more than the RTP
+     */
+    @JsonProperty("combinations")
+    private final Map<String, CombinationContribution> combinations = new LinkedHashMap<>();
+
+    /**
+     * What bonus symbols added on top of the symbol rewards
+     */
+    @JsonProperty("bonus_rtp")
+    private double bonusRtp;
+
+    /**
+     * Share of spins per payout range, in multiples of the bet
+     */
+    @JsonProperty("payout_distribution")
+    private final Map<String, Double> payoutDistribution = new LinkedHashMap<>();
+
+    /**
+     * Reward to bet ratio percentiles, known within about 1%
+     */
+    @JsonProperty("payout_percentiles")
+    private final Map<String, Double> payoutPercentiles = new LinkedHashMap<>();
+
+    /**
+     * Share of spins on which a bonus symbol of the impact was applied
+     */
+    @JsonProperty("bonus_impacts")
+    private final Map<String, Double> bonusImpacts = new LinkedHashMap<>();
+
+    SimulationReport(long spins, long hits, double totalBet, double totalReward, RunningStats ratios, RatioStats returns,
+                     LogHistogram ratioHistogram, long zeroPayouts, long[] payoutBuckets) {
+        this.spins = spins;
+        this.totalBet = totalBet;
+        this.rtp = spins == 0 ? 0 : totalReward / totalBet;
+        this.hitFrequency = spins == 0 ? 0 : (double) hits / spins;
+        this.volatility = ratios.getStandardDeviation();
+        this.rtpConfidence = returns.getConfidenceHalfWidth(1.96);
+        this.rtpInterval = new double[]{rtp - rtpConfidence, rtp + rtpConfidence};
+        this.maxWin = ratioHistogram.getMaxValue();
+        this.bonusRtp = rtp;
+
+        for (int i = 0; i < PERCENTILES.length; i++) {
+            payoutPercentiles.put(PERCENTILE_LABELS[i], ratioHistogram.getValueAtQuantile(PERCENTILES[i]));
+        }
+
+        if (spins > 0) {
+            payoutDistribution.put("0", (double) zeroPayouts / spins);
+            var buckets = SimulationAccumulator.PAYOUT_BUCKETS;
+            for (int bucket = 0; bucket < buckets.length; bucket++) {
+                var label = bucket + 1 < buckets.length
+                        ? "[" + format(buckets[bucket]) + ", " + format(buckets[bucket + 1]) + ")"
+                        : "[" + format(buckets[bucket]) + ", inf)";
+                payoutDistribution.put(label, (double) payoutBuckets[bucket] / spins);
+            }
+        }
+    }
+
+    /**
+     * Adds the return of a winning symbol, what is left of the total after all symbols is the bonus share
+     */
+    void addSymbol(String symbol, long hits, double symbolReturn) {
+        symbols.put(symbol, new Contribution(hits, symbolReturn, spins, totalBet));
+        bonusRtp -= symbolReturn / totalBet;
+    }
+
+    void addCombination(String combination, long hits, double involvedReturn) {
+        combinations.put(combination, new CombinationContribution((double) hits / spins, involvedReturn / totalBet));
+    }
+
+    void addImpact(String impact, long impactSpins) {
+        bonusImpacts.put(impact, (double) impactSpins / spins);
+    }
+
+    private static String format(double bound) {
+        return bound == Math.rint(bound) ? String.valueOf((long) bound) : String.valueOf(bound);
+    }
+
+    public long getSpins() {
+        return spins;
+    }
+
+    public double getRtp() {
+        return rtp;
+    }
+
+    public double getRtpConfidence() {
+        return rtpConfidence;
+    }
+
+    public double[] getRtpInterval() {
+        return rtpInterval;
+    }
+
+    public double getHitFrequency() {
+        return hitFrequency;
+    }
+
+    public double getVolatility() {
+        return volatility;
+    }
+
+    public Map<String, Contribution> getSymbols() {
+        return symbols;
+    }
+
+    public Map<String, CombinationContribution> getCombinations() {
+        return combinations;
+    }
+
+    public double getBonusRtp() {
+        return bonusRtp;
+    }
+
+    public Map<String, Double> getPayoutDistribution() {
+        return payoutDistribution;
+    }
+
+    public Map<String, Double> getPayoutPercentiles() {
+        return payoutPercentiles;
+    }
+
+    public Map<String, Double> getBonusImpacts() {
+        return bonusImpacts;
+    }
+
+    public static class Contribution {
+        @JsonProperty("hit_frequency")
+        private final double hitFrequency;
+
+        @JsonProperty("rtp")
+        private final double rtp;
+
+        Contribution(long hits, double totalReturn, long spins, double totalBet) {
+            this((double) hits / spins, totalReturn / totalBet);
+        }
+
+        Contribution(double hitFrequency, double rtp) {
+            this.hitFrequency = hitFrequency;
+            this.rtp = rtp;
+        }
+
+        public double getHitFrequency() {
+            return hitFrequency;
+        }
+
+        public double getRtp() {
+            return rtp;
+        }
+    }
+
+    /**
+     * Figures of a win combination, see {@link #getCombinations()}
+     */
+    public static class CombinationContribution {
+        @JsonProperty("hit_frequency")
+        private final double hitFrequency;
+
+        /**
+         * Return of the rewards of the symbols which won the combination, shared with their other combinations
+         */
+        @JsonProperty("involved_rtp")
+        private final double involvedRtp;
+
+        CombinationContribution(double hitFrequency, double involvedRtp) {
+            this.hitFrequency = hitFrequency;
+            this.involvedRtp = involvedRtp;
+        }
+
+        public double getHitFrequency() {
+            return hitFrequency;
+        }
+
+        public double getInvolvedRtp() {
+            return involvedRtp;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package org.simulation;
+
+import org.config.compiled.CompiledGame;
+import org.config.model.GameConfig;
+import org.generator.GameProcessor;
+import org.generator.SpinContext;
+import org.generator.batch.BatchBoardGenerator;
+import org.generator.batch.BoardBatch;
+import org.generator.random.RandomSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.random.RandomGenerator;
+
+/**
+ * Monte Carlo simulation of a game: plays spins on all workers and merges their totals into one report
+ */
+public class Simulator {
+    /**
+     * Boards generated per batch, small enough for a batch of a large board to stay in L1/L2
+     */
+    private static final int BATCH_SIZE = 256;
+    /**
+     * Spins between two checks of the confidence interval when a run may stop early
+     */
+    static final long ROUND_SPINS = 1 << 20;
+
+    private final CompiledGame game;
+    private final RandomSource randomSource;
+    private final int threads;
+
+    public Simulator(GameConfig config, RandomSource randomSource, int threads) {
+        this(CompiledGame.compile(config), randomSource, threads);
+    }
+
+    public Simulator(CompiledGame game, RandomSource randomSource, int threads) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Thread count must be greater than zero.");
+        }
+        this.game = game;
+        this.randomSource = randomSource;
+        this.threads = threads;
+    }
+
+    public Simulator(GameConfig config, RandomSource randomSource) {
+        this(config, randomSource, Runtime.getRuntime().availableProcessors());
+    }
+
+    public SimulationReport run(long spins, double betAmount) {
+        return run(spins, betAmount, 0);
+    }
+
+    /**
+     * Plays up to {@code maxSpins} spins and stops early once the half width of the 95% RTP interval is at most
+     * {@code targetConfidence}. The interval is checked after every round of {@link #ROUND_SPINS} spins; rounds are
+     * split between workers the same way every time, so a seeded run stops after the same spin.
+     *
+     * @param targetConfidence 0 plays all spins
+     */
+    public SimulationReport run(long maxSpins, double betAmount, double targetConfidence) {
+        if (maxSpins <= 0) {
+            throw new IllegalArgumentException("Spin count must be greater than zero.");
+        }
+        if (betAmount <= 0) {
+            throw new IllegalArgumentException("Bet amount must be greater than zero.");
+        }
+        if (targetConfidence < 0) {
+            throw new IllegalArgumentException("Target confidence must not be negative.");
+        }
+
+        // Streams are split up front and in worker order, so a seeded run is reproducible whatever the scheduling is
+        var workers = new ArrayList<Worker>();
+        for (int worker = 0; worker < Math.min(threads, maxSpins); worker++) {
+            workers.add(new Worker(randomSource.split()));
+        }
+
+        try (var executor = Executors.newFixedThreadPool(workers.size())) {
+            var played = 0L;
+            while (true) {
+                var roundSpins = targetConfidence > 0 ? Math.min(ROUND_SPINS, maxSpins - played) : maxSpins;
+                List<Callable<Void>> tasks = new ArrayList<>();
+                for (int worker = 0; worker < workers.size(); worker++) {
+                    var workerSpins = roundSpins / workers.size() + (worker < roundSpins % workers.size() ? 1 : 0);
+                    var current = workers.get(worker);
+                    tasks.add(() -> current.play(workerSpins, betAmount));
+                }
+                for (Future<Void> result : executor.invokeAll(tasks)) {
+                    result.get();
+                }
+                played += roundSpins;
+
+                var total = new SimulationAccumulator(game);
+                workers.forEach(worker -> total.merge(worker.accumulator));
+                var report = total.toReport();
+                if (played >= maxSpins || report.getRtpConfidence() <= targetConfidence) {
+                    return report;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Simulation was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Simulation failed", e.getCause());
+        }
+    }
+
+    /**
+     * State one worker keeps across rounds
+     */
+    private final class Worker {
+        private final BatchBoardGenerator generator;
+        private final GameProcessor processor;
+        private final SpinContext context = new SpinContext(game);
+        private final BoardBatch batch = new BoardBatch(game.getCellCount(), BATCH_SIZE);
+        private final SimulationAccumulator accumulator = new SimulationAccumulator(game);
+
+        private Worker(RandomGenerator random) {
+            // boards come from the generator, the processor only evaluates them and never draws, except for the
+            // refills of cascade games which are played spin by spin
+            this.generator = game.isCascade() ? null : BatchBoardGenerator.create(game, random);
+            this.processor = new GameProcessor(random);
+        }
+
+        private Void play(long spins, double betAmount) {
+            if (generator == null) {
+                for (long spin = 0; spin < spins; spin++) {
+                    processor.spin(context, betAmount);
+                    accumulator.addSpin(context, betAmount);
+                }
+                return null;
+            }
+            for (long spin = 0; spin < spins; spin += BATCH_SIZE) {
+                generator.generate(batch);
+                var boards = (int) Math.min(BATCH_SIZE, spins - spin);
+                for (int board = 0; board < boards; board++) {
+                    processor.play(context, batch, board, betAmount);
+                    accumulator.addSpin(context, betAmount);
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package org.simulation;
+
+import org.config.compiled.CompiledGame;
+import org.generator.SpinContext;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Thread safe {@link SimulationAccumulator} for spins recorded from many threads, e.g. by the spin server.
+ * <p>
+ * Spins go to one of several stripes picked by thread id. A stripe is claimed with a single compare-and-set; when
+ * it is taken the spin moves on to the next stripe instead of waiting, so recording never blocks on a lock.
+ * {@link #snapshot()} claims every stripe in turn and merges them, spins recorded meanwhile go to the other stripes.
+ */
+public class StripedAccumulator {
+    private final CompiledGame game;
+    private final SimulationAccumulator[] stripes;
+    private final AtomicIntegerArray claimed;
+    private final int mask;
+
+    public StripedAccumulator(CompiledGame game) {
+        this(game, Runtime.getRuntime().availableProcessors() * 2);
+    }
+
+    public StripedAccumulator(CompiledGame game, int stripeCount) {
+        if (stripeCount <= 0) {
+            throw new IllegalArgumentException("Stripe count must be greater than zero.");
+        }
+        var size = stripeCount == 1 ? 1 : Integer.highestOneBit(stripeCount - 1) << 1;
+        this.game = game;
+        this.stripes = new SimulationAccumulator[size];
+        for (int stripe = 0; stripe < size; stripe++) {
+            stripes[stripe] = new SimulationAccumulator(game);
+        }
+        this.claimed = new AtomicIntegerArray(size);
+        this.mask = size - 1;
+    }
+
+    public CompiledGame getGame() {
+        return game;
+    }
+
+    public void addSpin(SpinContext context, double betAmount) {
+        var stripe = claim((int) Thread.currentThread().threadId());
+        try {
+            stripes[stripe].addSpin(context, betAmount);
+        } finally {
+            claimed.set(stripe, 0);
+        }
+    }
+
+    /**
+     * Totals of every spin recorded so far, recording goes on while the snapshot is taken
+     */
+    public SimulationReport snapshot() {
+        var total = new SimulationAccumulator(game);
+        for (int stripe = 0; stripe < stripes.length; stripe++) {
+            while (!claimed.compareAndSet(stripe, 0, 1)) {
+                Thread.onSpinWait();
+            }
+            try {
+                total.merge(stripes[stripe]);
+            } finally {
+                claimed.set(stripe, 0);
+            }
+        }
+        return total.toReport();
+    }
+
+    private int claim(int hint) {
+        for (int attempt = 0; ; attempt++) {
+            var stripe = (hint + attempt) & mask;
+            if (claimed.get(stripe) == 0 && claimed.compareAndSet(stripe, 0, 1)) {
+                return stripe;
+            }
+            if (attempt > mask) {
+                Thread.onSpinWait();
+            }
+        }
+    }
+}
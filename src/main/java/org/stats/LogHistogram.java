@@ -0,0 +1,102 @@
+package org.stats;
+
+import java.util.Arrays;
+
+/**
+ * HDR style histogram of non-negative values: buckets are a power of two wide, split into {@link #SUB_BUCKETS}
+ * linear sub buckets, so every recorded value is known within 1/{@value #SUB_BUCKETS} of itself whatever its magnitude.
+ * Zero has its own bucket. Values outside of {@code [2^MIN_EXPONENT, 2^(MAX_EXPONENT + 1))} land in the first or the last bucket.
+ * <p>
+ * Not thread safe; histograms of several threads are combined with {@link #merge(LogHistogram)}.
+ */
+public final class LogHistogram {
+    private static final int SUB_BITS = 6;
+    static final int SUB_BUCKETS = 1 << SUB_BITS;
+    static final int MIN_EXPONENT = -20;
+    static final int MAX_EXPONENT = 40;
+    private static final int BUCKETS = 1 + (MAX_EXPONENT - MIN_EXPONENT + 1) * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKETS];
+    private long totalCount;
+    private double maxValue;
+
+    public void record(double value) {
+        counts[indexOf(value)]++;
+        totalCount++;
+        maxValue = Math.max(maxValue, value);
+    }
+
+    public void merge(LogHistogram other) {
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            counts[bucket] += other.counts[bucket];
+        }
+        totalCount += other.totalCount;
+        maxValue = Math.max(maxValue, other.maxValue);
+    }
+
+    public void clear() {
+        Arrays.fill(counts, 0);
+        totalCount = 0;
+        maxValue = 0;
+    }
+
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    public double getMaxValue() {
+        return maxValue;
+    }
+
+    /**
+     * Value below which {@code quantile} of the recorded values fall, as the middle of its bucket and capped by the
+     * largest recorded value, which is returned exactly for quantile 1
+     *
+     * @param quantile in {@code [0, 1]}
+     */
+    public double getValueAtQuantile(double quantile) {
+        if (quantile < 0 || quantile > 1) {
+            throw new IllegalArgumentException("Quantile must be within [0, 1]: " + quantile);
+        }
+        if (totalCount == 0) {
+            return 0;
+        }
+        var rank = Math.max(1, (long) Math.ceil(quantile * totalCount));
+        if (rank == totalCount) {
+            return maxValue;
+        }
+        var seen = 0L;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += counts[bucket];
+            if (seen >= rank) {
+                return Math.min(middleOf(bucket), maxValue);
+            }
+        }
+        return maxValue;
+    }
+
+    static int indexOf(double value) {
+        if (!(value > 0)) {
+            return 0;
+        }
+        var exponent = Math.getExponent(value);
+        if (exponent < MIN_EXPONENT) {
+            return 1;
+        }
+        if (exponent > MAX_EXPONENT) {
+            return BUCKETS - 1;
+        }
+        var mantissa = Double.doubleToRawLongBits(value) & 0x000FFFFFFFFFFFFFL;
+        var sub = (int) (mantissa >>> (52 - SUB_BITS));
+        return 1 + (exponent - MIN_EXPONENT) * SUB_BUCKETS + sub;
+    }
+
+    static double middleOf(int bucket) {
+        if (bucket == 0) {
+            return 0;
+        }
+        var exponent = (bucket - 1) / SUB_BUCKETS + MIN_EXPONENT;
+        var sub = (bucket - 1) % SUB_BUCKETS;
+        return Math.scalb(1 + (sub + 0.5) / SUB_BUCKETS, exponent);
+    }
+}
@@ -0,0 +1,70 @@
+package org.stats;
+
+/**
+ * Running confidence interval of a ratio of sums {@code sum(y) / sum(x)}, e.g. total reward over total bet. Keeps the
+ * Welford means and co-moments of x and y, so it is stable for long runs like {@link RunningStats}, and two instances
+ * combine exactly with {@link #merge(RatioStats)}. Not thread safe.
+ */
+public final class RatioStats {
+    private long count;
+    private double meanX;
+    private double meanY;
+    private double squaredDeviationsX;
+    private double squaredDeviationsY;
+    private double coDeviations;
+
+    public void add(double x, double y) {
+        count++;
+        var deltaX = x - meanX;
+        var deltaY = y - meanY;
+        meanX += deltaX / count;
+        meanY += deltaY / count;
+        squaredDeviationsX += deltaX * (x - meanX);
+        squaredDeviationsY += deltaY * (y - meanY);
+        coDeviations += deltaX * (y - meanY);
+    }
+
+    /**
+     * Chan et al. pairwise combination
+     */
+    public void merge(RatioStats other) {
+        if (other.count == 0) {
+            return;
+        }
+        var total = count + other.count;
+        var deltaX = other.meanX - meanX;
+        var deltaY = other.meanY - meanY;
+        var weight = (double) count * other.count / total;
+        meanX += deltaX * other.count / total;
+        meanY += deltaY * other.count / total;
+        squaredDeviationsX += other.squaredDeviationsX + deltaX * deltaX * weight;
+        squaredDeviationsY += other.squaredDeviationsY + deltaY * deltaY * weight;
+        coDeviations += other.coDeviations + deltaX * deltaY * weight;
+        count = total;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * {@code sum(y) / sum(x)}, 0 without values
+     */
+    public double getRatio() {
+        return meanX == 0 ? 0 : meanY / meanX;
+    }
+
+    /**
+     * Half width of the normal confidence interval of the ratio by the delta method, {@code z} is 1.96 for 95%.
+     * The variance is the one of {@code y - ratio * x} over the mean of x squared, with a constant x it is the
+     * interval of the mean of {@code y / x}. 0 below two values
+     */
+    public double getConfidenceHalfWidth(double z) {
+        if (count < 2 || meanX == 0) {
+            return 0;
+        }
+        var ratio = getRatio();
+        var residualVariance = (squaredDeviationsY - 2 * ratio * coDeviations + ratio * ratio * squaredDeviationsX) / (count - 1);
+        return z * Math.sqrt(Math.max(residualVariance, 0) / count) / Math.abs(meanX);
+    }
+}
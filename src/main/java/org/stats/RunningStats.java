@@ -0,0 +1,58 @@
+package org.stats;
+
+/**
+ * Welford running mean and variance. Numerically stable for long runs, where a sum of squares loses the variance
+ * to cancellation; two instances combine exactly with {@link #merge(RunningStats)}. Not thread safe.
+ */
+public final class RunningStats {
+    private long count;
+    private double mean;
+    private double squaredDeviations;
+
+    public void add(double value) {
+        count++;
+        var delta = value - mean;
+        mean += delta / count;
+        squaredDeviations += delta * (value - mean);
+    }
+
+    /**
+     * Chan et al. pairwise combination
+     */
+    public void merge(RunningStats other) {
+        if (other.count == 0) {
+            return;
+        }
+        var total = count + other.count;
+        var delta = other.mean - mean;
+        mean += delta * other.count / total;
+        squaredDeviations += other.squaredDeviations + delta * delta * ((double) count * other.count / total);
+        count = total;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMean() {
+        return mean;
+    }
+
+    /**
+     * Sample variance, 0 below two values
+     */
+    public double getVariance() {
+        return count < 2 ? 0 : squaredDeviations / (count - 1);
+    }
+
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+
+    /**
+     * Half width of the normal confidence interval of the mean, {@code z} is 1.96 for 95%
+     */
+    public double getConfidenceHalfWidth(double z) {
+        return count == 0 ? 0 : z * getStandardDeviation() / Math.sqrt(count);
+    }
+}
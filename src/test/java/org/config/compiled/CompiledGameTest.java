@@ -0,0 +1,315 @@
+package org.config.compiled;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.config.model.GameConfig;
+import org.config.parser.Parser;
+import org.generator.GameProcessor;
+import org.generator.SpinContext;
+import org.generator.random.RandomSource;
+import org.generator.random.RngAlgorithm;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompiledGameTest {
+
+    private GameConfig config;
+    private CompiledGame game;
+
+    @BeforeEach
+    void setUp() {
+        try {
+            config = Parser.parseConfig("config.json");
+            game = CompiledGame.compile(config);
+        } catch (IOException err) {
+            throw new RuntimeException(err);
+        }
+    }
+
+    @Test
+    void testSymbolTable() {
+        assertEquals(11, game.getSymbolCount(), "");
+        assertEquals("A", game.getSymbolName(0), "");
+        assertEquals(-1, game.getSymbolId("Z"), "");
+
+        var tenX = game.getSymbolId("10x");
+        assertTrue(game.isBonus(tenX), "");
+        assertEquals(Impact.MULTIPLY_REWARD, game.getImpact(tenX), "");
+        assertEquals(10, game.getRewardMultiplier(tenX), "");
+
+        var plus500 = game.getSymbolId("+500");
+        assertEquals(Impact.EXTRA_BONUS, game.getImpact(plus500), "");
+        assertEquals(500, game.getExtra(plus500), "");
+
+        assertEquals(game.getSymbolId("MISS"), game.getMissSymbol(), "");
+        assertEquals(Impact.NONE, game.getImpact(game.getSymbolId("A")), "");
+    }
+
+    @Test
+    void testCellWeightTables() {
+        for (int cell = 0; cell < game.getCellCount(); cell++) {
+            var sampler = game.getCellSampler(cell);
+            assertEquals(21, sampler.getTotalWeight(), "");
+            assertEquals(6, sampler.size(), "");
+            assertEquals(game.getSymbolId("F"), sampler.getSymbol(5), "");
+            assertEquals(6, sampler.getWeight(5), "");
+        }
+        assertEquals(15, game.getBonusSampler().getTotalWeight(), "");
+    }
+
+    @Test
+    void testSameSymbolsByCount() {
+        assertEquals(-1, game.getSameSymbolsCombination(2), "");
+        assertEquals("same_symbol_3_times", game.getCombinationName(game.getSameSymbolsCombination(3)), "");
+        assertEquals("same_symbol_9_times", game.getCombinationName(game.getSameSymbolsCombination(9)), "");
+    }
+
+    @Test
+    void testCoveredAreasAreIndexed() {
+        assertEquals(8, game.getAreaCount(), "");
+        assertArrayEquals(new int[]{0, 1, 2}, game.getAreaCells(0));
+        assertArrayEquals(new int[]{0, 3, 6}, game.getAreaCells(3));
+        assertEquals("same_symbols_diagonally_right_to_left", game.getCombinationName(game.getAreaCombination(7)), "");
+        assertEquals(WinKind.LINEAR_SYMBOLS, game.getCombinationKind(game.getAreaCombination(0)), "");
+    }
+
+    @Test
+    void testAreaOutsideOfBoardIsRejected() {
+        var combinations = new LinkedHashMap<>(config.getWinCombinations());
+        combinations.put("broken", new GameConfig.WinCombination(2.0, "linear_symbols", null, "broken", List.of(List.of("0:0", "3:0"))));
+        config.setWinCombinations(combinations);
+
+        assertThrows(IllegalArgumentException.class, () -> CompiledGame.compile(config));
+    }
+
+    @Test
+    void testCompiledFileRoundTrip() throws IOException {
+        var file = Files.createTempFile("config", ".bin");
+        game.write(file);
+        assertTrue(CompiledGame.isCompiledFile(file), "");
+        assertFalse(CompiledGame.isCompiledFile(Path.of("config.json")), "");
+
+        var loaded = CompiledGame.load(file);
+        assertNull(loaded.getSource(), "");
+        assertEquals(game.getCellCount(), loaded.getCellCount(), "");
+        assertEquals(game.getSymbolCount(), loaded.getSymbolCount(), "");
+        for (int symbol = 0; symbol < game.getSymbolCount(); symbol++) {
+            assertEquals(game.getSymbolName(symbol), loaded.getSymbolName(symbol), "");
+            assertEquals(symbol, loaded.getSymbolId(game.getSymbolName(symbol)), "");
+            assertEquals(game.getImpact(symbol), loaded.getImpact(symbol), "");
+            assertEquals(game.getRewardMultiplier(symbol), loaded.getRewardMultiplier(symbol), "");
+        }
+        for (int area = 0; area < game.getAreaCount(); area++) {
+            assertArrayEquals(game.getAreaCells(area), loaded.getAreaCells(area));
+            assertEquals(game.getAreaMask(area), loaded.getAreaMask(area), "");
+        }
+
+        // Alias tables are stored as built, so seeded spins replay exactly
+        var original = new SpinContext(game);
+        var restored = new SpinContext(loaded);
+        var originalProcessor = new GameProcessor(RandomSource.of(RngAlgorithm.DEFAULT, 17).split());
+        var restoredProcessor = new GameProcessor(RandomSource.of(RngAlgorithm.DEFAULT, 17).split());
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals(originalProcessor.spin(original, 10), restoredProcessor.spin(restored, 10), "");
+            assertArrayEquals(original.toMatrix(), restored.toMatrix());
+        }
+
+        // a loaded game takes the tables of a compiled one with the same weights
+        var tables = new SharedTables();
+        var compiled = CompiledGame.compile(game.getSource(), tables);
+        var shared = CompiledGame.load(file, tables);
+        assertSame(compiled.getCellSampler(0), shared.getCellSampler(0), "");
+        assertSame(compiled.getBonusSampler(), shared.getBonusSampler(), "");
+        Files.delete(file);
+    }
+
+    @Test
+    void testBonusPossibilityIsConfigurable() throws IOException {
+        assertEquals(10, game.getBonusPossibility(), "");
+
+        var mapper = new ObjectMapper();
+        var tree = (ObjectNode) mapper.readTree(new File("config.json"));
+        tree.put("bonus_possibility", 25);
+        assertEquals(25, CompiledGame.compile(mapper.convertValue(tree, GameConfig.class)).getBonusPossibility(), "");
+        tree.put("bonus_possibility", 101);
+        assertThrows(IllegalArgumentException.class, () -> CompiledGame.compile(mapper.convertValue(tree, GameConfig.class)));
+    }
+
+    @Test
+    void testReelStripsRoundTrip() throws IOException {
+        var reels = CompiledGame.compile(Parser.parseConfig("src/test/resources/reel_config.json"));
+        assertTrue(reels.isReelStrips(), "");
+        assertFalse(game.isReelStrips(), "");
+        assertEquals(0, reels.getBonusPossibility(), "");
+        assertEquals(10, reels.getReelStrip(0).length, "");
+        assertEquals(reels.getSymbolId("10x"), reels.getReelStrip(0)[3], "");
+
+        var file = Files.createTempFile("reels", ".bin");
+        reels.write(file);
+        var loaded = CompiledGame.load(file);
+        assertTrue(loaded.isReelStrips(), "");
+        for (int col = 0; col < reels.getColumns(); col++) {
+            assertArrayEquals(reels.getReelStrip(col), loaded.getReelStrip(col));
+        }
+
+        var original = new SpinContext(reels);
+        var restored = new SpinContext(loaded);
+        var originalProcessor = new GameProcessor(RandomSource.of(RngAlgorithm.DEFAULT, 23).split());
+        var restoredProcessor = new GameProcessor(RandomSource.of(RngAlgorithm.DEFAULT, 23).split());
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals(originalProcessor.spin(original, 10), restoredProcessor.spin(restored, 10), "");
+            assertArrayEquals(original.toMatrix(), restored.toMatrix());
+        }
+        Files.delete(file);
+    }
+
+    @Test
+    void testInvalidReelStripsAreRejected() throws IOException {
+        var mapper = new ObjectMapper();
+        var reels = (ObjectNode) mapper.readTree(new File("src/test/resources/reel_config.json"));
+
+        var possibility = reels.deepCopy().put("bonus_possibility", 10);
+        assertThrows(IllegalArgumentException.class, () -> CompiledGame.compile(mapper.convertValue(possibility, GameConfig.class)));
+
+        var missingColumn = reels.deepCopy();
+        ((ArrayNode) missingColumn.get("reel_strips")).remove(2);
+        assertThrows(IllegalArgumentException.class, () -> CompiledGame.compile(mapper.convertValue(missingColumn, GameConfig.class)));
+
+        var emptyStrip = reels.deepCopy();
+        ((ArrayNode) emptyStrip.get("reel_strips")).set(1, mapper.createArrayNode());
+        assertThrows(IllegalArgumentException.class, () -> CompiledGame.compile(mapper.convertValue(emptyStrip, GameConfig.class)));
+    }
+
+    @Test
+    void testCascadeRoundTrip() throws IOException {
+        var cascade = CompiledGame.compile(Parser.parseConfig("src/test/resources/cascade_config.json"));
+        assertTrue(cascade.isCascade(), "");
+        assertFalse(game.isCascade(), "");
+        assertEquals(20, cascade.getCascadeSteps(), "");
+        // the center cell lies on the middle row, the middle column and both diagonals
+        assertEquals(4, cascade.getCellAreas(4).length, "");
+        for (int area : cascade.getCellAreas(4)) {
+            assertTrue(Arrays.stream(cascade.getAreaCells(area)).anyMatch(cell -> cell == 4), "");
+        }
+
+        var file = Files.createTempFile("cascade", ".bin");
+        cascade.write(file);
+        var loaded = CompiledGame.load(file);
+        assertEquals(20, loaded.getCascadeSteps(), "");
+        assertArrayEquals(cascade.getCellAreas(4), loaded.getCellAreas(4));
+        Files.delete(file);
+
+        var mapper = new ObjectMapper();
+        var tree = (ObjectNode) mapper.readTree(new File("src/test/resources/cascade_config.json"));
+        ((ObjectNode) tree.get("cascade")).put("max_steps", 0);
+        assertThrows(IllegalArgumentException.class, () -> CompiledGame.compile(mapper.convertValue(tree, GameConfig.class)));
+    }
+
+    @Test
+    void testFreeSpinsRoundTrip() throws IOException {
+        var freeSpins = CompiledGame.compile(Parser.parseConfig("src/test/resources/free_spins_config.json"));
+        assertTrue(freeSpins.hasFreeSpins(), "");
+        assertFalse(game.hasFreeSpins(), "");
+        var trigger = freeSpins.getSymbolId("FS");
+        assertEquals(Impact.FREE_SPINS, freeSpins.getImpact(trigger));
+        assertEquals(10, freeSpins.getFreeSpins(trigger), "");
+
+        // the round has its own tables and does not trigger further rounds
+        var round = freeSpins.getFreeSpinsGame();
+        assertEquals(20, round.getBonusPossibility(), "");
+        assertEquals(3, round.getCellSampler(0).getWeight(0), "");
+        assertFalse(round.hasFreeSpins(), "");
+        assertEquals(freeSpins.getCombinationCount(), round.getCombinationCount(), "");
+
+        var file = Files.createTempFile("free_spins", ".bin");
+        freeSpins.write(file);
+        var loaded = CompiledGame.load(file);
+        assertTrue(loaded.hasFreeSpins(), "");
+        assertEquals(10, loaded.getFreeSpins(trigger), "");
+        assertEquals(20, loaded.getFreeSpinsGame().getBonusPossibility(), "");
+
+        var original = new SpinContext(freeSpins);
+        var restored = new SpinContext(loaded);
+        var originalProcessor = new GameProcessor(RandomSource.of(RngAlgorithm.DEFAULT, 29).split());
+        var restoredProcessor = new GameProcessor(RandomSource.of(RngAlgorithm.DEFAULT, 29).split());
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals(originalProcessor.spin(original, 10), restoredProcessor.spin(restored, 10), "");
+        }
+        Files.delete(file);
+    }
+
+    @Test
+    void testInvalidFreeSpinsAreRejected() throws IOException {
+        var mapper = new ObjectMapper();
+        var freeSpins = (ObjectNode) mapper.readTree(new File("src/test/resources/free_spins_config.json"));
+
+        var noSpins = freeSpins.deepCopy();
+        ((ObjectNode) noSpins.get("symbols").get("FS")).remove("spins");
+        assertThrows(IllegalArgumentException.class, () -> CompiledGame.compile(mapper.convertValue(noSpins, GameConfig.class)));
+
+        var noTrigger = freeSpins.deepCopy();
+        ((ObjectNode) noTrigger.get("symbols").get("FS")).put("impact", "multiply_reward");
+        assertThrows(IllegalArgumentException.class, () -> CompiledGame.compile(mapper.convertValue(noTrigger, GameConfig.class)));
+    }
+
+    @Test
+    void testClusterCombinationsBySize() throws IOException {
+        var clusters = CompiledGame.compile(Parser.parseConfig("src/test/resources/cluster_config.json"));
+        assertTrue(clusters.hasClusters(), "");
+        assertFalse(game.hasClusters(), "");
+        // cluster combinations get the ids after the linear ones
+        assertEquals(WinKind.LINEAR_SYMBOLS, clusters.getCombinationKind(0));
+        assertEquals(-1, clusters.getClusterCombination(3), "");
+        assertEquals(clusters.getCombinationId("cluster_of_4"), clusters.getClusterCombination(5), "");
+        assertEquals(clusters.getCombinationId("cluster_of_6"), clusters.getClusterCombination(8), "");
+        assertEquals(clusters.getCombinationId("cluster_of_9"), clusters.getClusterCombination(25), "");
+
+        var file = Files.createTempFile("clusters", ".bin");
+        clusters.write(file);
+        var loaded = CompiledGame.load(file);
+        for (int size = 1; size <= loaded.getCellCount(); size++) {
+            assertEquals(clusters.getClusterCombination(size), loaded.getClusterCombination(size), "");
+        }
+        Files.delete(file);
+    }
+
+    @Test
+    void testWaysCombinationsByLengthAndWilds() throws IOException {
+        var ways = CompiledGame.compile(Parser.parseConfig("src/test/resources/ways_config.json"));
+        assertTrue(ways.hasWays(), "");
+        assertFalse(game.hasWays(), "");
+        assertEquals(-1, ways.getWaysCombination(2), "");
+        assertEquals(ways.getCombinationId("ways_3"), ways.getWaysCombination(3), "");
+        assertEquals(ways.getCombinationId("ways_5"), ways.getWaysCombination(5), "");
+        assertTrue(ways.isWild(ways.getSymbolId("W")), "");
+        assertFalse(ways.isWild(ways.getSymbolId("A")), "");
+
+        var file = Files.createTempFile("ways", ".bin");
+        ways.write(file);
+        var loaded = CompiledGame.load(file);
+        for (int length = 0; length <= loaded.getColumns(); length++) {
+            assertEquals(ways.getWaysCombination(length), loaded.getWaysCombination(length), "");
+        }
+        for (int symbol = 0; symbol < loaded.getSymbolCount(); symbol++) {
+            assertEquals(ways.isWild(symbol), loaded.isWild(symbol), "");
+        }
+        Files.delete(file);
+
+        // only standard symbols stand in for others
+        var mapper = new ObjectMapper();
+        var tree = mapper.readTree(new File("src/test/resources/ways_config.json"));
+        ((ObjectNode) tree.get("symbols").get("10x")).put("wild", true);
+        assertThrows(IllegalArgumentException.class, () -> CompiledGame.compile(mapper.convertValue(tree, GameConfig.class)));
+    }
+}
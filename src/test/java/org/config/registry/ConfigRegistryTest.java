@@ -0,0 +1,84 @@
+package org.config.registry;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConfigRegistryTest {
+
+    private String validConfig;
+    private Path directory;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        validConfig = Files.readString(Path.of("config.json"));
+        directory = Files.createTempDirectory("config-registry");
+    }
+
+    private Path write(String name, String content) throws IOException {
+        return Files.writeString(directory.resolve(name), content);
+    }
+
+    @Test
+    void testInvalidConfigsAreRejectedAtLoad() throws IOException {
+        var registry = new ConfigRegistry();
+
+        var outOfBounds = write("area.json", validConfig.replace("\"2:2\"", "\"3:2\""));
+        var error = assertThrows(InvalidConfigException.class, () -> registry.register("area", outOfBounds));
+        assertTrue(error.getMessage().contains("outside of 3x3 board"), error.getMessage());
+
+        var unknownImpact = write("impact.json", validConfig.replace("\"extra_bonus\"", "\"extra_bonsu\""));
+        error = assertThrows(InvalidConfigException.class, () -> registry.register("impact", unknownImpact));
+        assertTrue(error.getMessage().contains("unknown impact: extra_bonsu"), error.getMessage());
+
+        var missingCell = write("cell.json", validConfig.replaceFirst("\"column\": 0,\\s*\"row\": 0", "\"column\": 1, \"row\": 7"));
+        error = assertThrows(InvalidConfigException.class, () -> registry.register("cell", missingCell));
+        assertTrue(error.getMessage().contains("Missing standard symbol probabilities for cell 0:0"), error.getMessage());
+
+        assertTrue(registry.getNames().isEmpty(), "");
+    }
+
+    @Test
+    void testReloadPublishesNewVersionAndKeepsLastValidOne() throws IOException {
+        var registry = new ConfigRegistry();
+        var path = write("game.json", validConfig);
+        var first = registry.register("game", path);
+        assertEquals(1, first.getVersion(), "");
+        assertEquals(3, first.getGame().getRows(), "");
+
+        write("game.json", validConfig.replace("\"rows\": 3", "\"rows\": 4").replace("\"2:2\"", "\"3:2\""));
+        assertThrows(InvalidConfigException.class, () -> registry.reload("game"));
+        assertSame(first, registry.get("game"), "");
+
+        write("game.json", validConfig.replace("\"reward_multiplier\": 5,\n      \"type\": \"standard\"", "\"reward_multiplier\": 7,\n      \"type\": \"standard\""));
+        var second = registry.reload("game");
+        assertEquals(2, second.getVersion(), "");
+        assertSame(second, registry.get("game"), "");
+        assertEquals(7.0, second.getGame().getRewardMultiplier(second.getGame().getSymbolId("A")), "");
+        assertEquals(5.0, first.getGame().getRewardMultiplier(first.getGame().getSymbolId("A")), "");
+    }
+
+    @Test
+    void testWatcherReloadsModifiedFile() throws Exception {
+        // editors may write a file in several steps, partial contents are rejected until the last write
+        try (var registry = new ConfigRegistry(error -> {
+        })) {
+            var path = write("watched.json", validConfig);
+            registry.register("watched", path);
+            registry.watch();
+
+            write("watched.json", validConfig.replace("\"extra\": 500", "\"extra\": 700"));
+            var deadline = System.nanoTime() + 20_000_000_000L;
+            while (registry.get("watched").getVersion() == 1 && System.nanoTime() < deadline) {
+                Thread.sleep(20);
+            }
+            var game = registry.get("watched").getGame();
+            assertEquals(700, game.getExtra(game.getSymbolId("+500")), "");
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package org.config.registry;
+
+import org.config.compiled.CompiledGame;
+import org.config.parser.Parser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameRegistryTest {
+
+    private String validConfig;
+    private Path directory;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        validConfig = Files.readString(Path.of("config.json"));
+        directory = Files.createTempDirectory("game-registry");
+    }
+
+    private Path write(String name, String content) throws IOException {
+        return Files.writeString(directory.resolve(name), content);
+    }
+
+    @Test
+    void testGamesAreLoadedOnFirstLookup() throws IOException {
+        write("alpha.json", validConfig);
+        write("broken.json", "{");
+        var registry = new GameRegistry(1L << 30);
+
+        assertEquals(Set.of("alpha", "broken"), registry.registerDirectory(directory), "");
+        assertTrue(registry.getResidentGameIds().isEmpty(), "");
+
+        assertEquals(3, registry.get("alpha").getRows(), "");
+        assertEquals(List.of("alpha"), registry.getResidentGameIds(), "");
+        assertThrows(InvalidConfigException.class, () -> registry.get("broken"));
+        assertThrows(IllegalArgumentException.class, () -> registry.get("missing"));
+    }
+
+    @Test
+    void testOnlyConfigFilesOfDirectoryAreRegistered() throws IOException {
+        write("alpha.json", validConfig);
+        write("README.md", "# games");
+        write("notes.txt", "{}");
+        CompiledGame.compile(Parser.parseConfig("config.json")).write(directory.resolve("gamma.bin"));
+        var registry = new GameRegistry(1L << 30);
+
+        assertEquals(Set.of("alpha", "gamma"), registry.registerDirectory(directory), "");
+        assertEquals(3, registry.get("gamma").getRows(), "");
+        assertThrows(IllegalArgumentException.class, () -> registry.get("README"));
+    }
+
+    @Test
+    void testEqualTablesAreSharedBetweenGames() throws IOException {
+        var registry = new GameRegistry(1L << 30);
+        registry.register("alpha", write("alpha.json", validConfig));
+        registry.register("beta", write("beta.json", validConfig.replace("\"reward_multiplier\": 5,\n      \"type\": \"standard\"",
+                "\"reward_multiplier\": 7,\n      \"type\": \"standard\"")));
+
+        var alpha = registry.get("alpha");
+        var beta = registry.get("beta");
+
+        assertSame(alpha.getCellSampler(0), beta.getCellSampler(0), "");
+        assertSame(alpha.getBonusSampler(), beta.getBonusSampler(), "");
+        assertNotEquals(alpha.getRewardMultiplier(0), beta.getRewardMultiplier(0), "");
+        assertTrue(registry.getResidentBytes() < alpha.estimateBytes() + beta.estimateBytes(), "");
+    }
+
+    @Test
+    void testLeastRecentlyUsedGameIsEvictedOverBudget() throws IOException {
+        var probe = new GameRegistry(1L << 30);
+        probe.register("probe", write("probe.json", validConfig));
+        var gameBytes = probe.get("probe").estimateBytes();
+
+        // room for two games, their shared tables make a third one just too much
+        var registry = new GameRegistry(2 * gameBytes);
+        for (String gameId : List.of("alpha", "beta", "gamma")) {
+            registry.register(gameId, write(gameId + ".json", validConfig));
+        }
+        var alpha = registry.get("alpha");
+        registry.get("beta");
+        registry.get("alpha");
+        registry.get("gamma");
+        registry.get("gamma");
+        registry.get("alpha");
+
+        assertFalse(registry.getResidentGameIds().contains("beta"), registry.getResidentGameIds().toString());
+        assertTrue(registry.getResidentBytes() <= registry.getMemoryBudget(), "");
+        assertSame(alpha, registry.get("alpha"), "");
+
+        // an evicted game is compiled again on its next lookup
+        assertEquals(3, registry.get("beta").getColumns(), "");
+    }
+}
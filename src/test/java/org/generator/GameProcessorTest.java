@@ -1,16 +1,27 @@
 package org.generator;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.config.compiled.CompiledGame;
 import org.config.model.GameConfig;
 import org.config.parser.Parser;
+import org.generator.random.RandomSource;
+import org.generator.random.RngAlgorithm;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.random.RandomGenerator;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class GameProcessorTest {
 
@@ -45,6 +56,20 @@ class GameProcessorTest {
         assertEquals(10000, actualReward, "");
     }
 
+    @Test
+    void testChangedConfigIsCompiledAgain() {
+        String[][] matrix = {
+                {"A", "A", "A"},
+                {"B", "C", "D"},
+                {"E", "F", "G"}
+        };
+        assertEquals(Map.of("A", List.of("same_symbol_3_times", "same_symbols_horizontally")),
+                processor.checkWinningCombinations(matrix, config), "");
+
+        config.getWinCombinations().remove("same_symbols_horizontally");
+        assertEquals(Map.of("A", List.of("same_symbol_3_times")), processor.checkWinningCombinations(matrix, config), "");
+    }
+
     @Test
     void testCheckWinningCombinationsNoMatches() {
         String[][] matrix = {
@@ -196,4 +221,313 @@ class GameProcessorTest {
         var actualReward = processor.calculateReward(matrix, betAmount, expectedCombinations, config);
         assertEquals(120000, actualReward, "");
     }
+
+    @Test
+    void testSeededSpinsReplayExactly() {
+        for (RngAlgorithm algorithm : RngAlgorithm.values()) {
+            var first = RandomSource.of(algorithm, 2025);
+            var second = RandomSource.of(algorithm, 2025);
+            var firstProcessor = new GameProcessor(first.split());
+            var secondProcessor = new GameProcessor(second.split());
+
+            for (int spin = 0; spin < 100; spin++) {
+                assertArrayEquals(
+                        firstProcessor.generateMatrix(config, new Result()),
+                        secondProcessor.generateMatrix(config, new Result())
+                );
+            }
+        }
+    }
+
+    @Test
+    void testSpinContextMatchesMatrixPipeline() {
+        var matrixProcessor = new GameProcessor(RngAlgorithm.DEFAULT.create(77));
+        var contextProcessor = new GameProcessor(RngAlgorithm.DEFAULT.create(77));
+        var context = contextProcessor.createContext(config);
+
+        for (int spin = 0; spin < 1000; spin++) {
+            var matrix = matrixProcessor.generateMatrix(config, new Result());
+            var winCombinations = matrixProcessor.checkWinningCombinations(matrix, config);
+            var reward = matrixProcessor.calculateReward(matrix, betAmount, winCombinations, config);
+
+            var contextReward = contextProcessor.spin(context, betAmount);
+
+            assertArrayEquals(matrix, context.toMatrix());
+            assertEquals(winCombinations, context.toWinningCombinations(), "");
+            assertEquals(reward, contextReward, 1e-9, "");
+        }
+    }
+
+    @Test
+    void testRewardMatchesStringLookups() {
+        // a bonus symbol among the standard probabilities takes effect as well
+        config.getProbabilities().getStandardSymbols().getFirst().getSymbols().put("10x", 3);
+        var processor = new GameProcessor(RngAlgorithm.DEFAULT.create(5));
+        var context = processor.createContext(config);
+        var game = context.getGame();
+
+        for (int spin = 0; spin < 20_000; spin++) {
+            var reward = processor.spin(context, 7.3);
+            // the string based implementation summed the symbol rewards in hash map order, not in the order the symbols
+            // first won, so the sums may differ in the last bits
+            Map<String, List<String>> winningCombinations = new HashMap<>();
+            for (int win = 0; win < context.getWinCount(); win++) {
+                winningCombinations.computeIfAbsent(context.getSymbolName(context.getWinSymbol(win)), key -> new ArrayList<>())
+                        .add(game.getCombinationName(context.getWinCombination(win)));
+            }
+
+            var expected = referenceReward(context.toMatrix(), 7.3, winningCombinations);
+            assertEquals(expected, reward, Math.abs(expected) * 1e-12, "");
+            for (int combination = 0; combination < game.getCombinationCount(); combination++) {
+                var name = game.getCombinationName(combination);
+                var won = winningCombinations.values().stream().anyMatch(names -> names.contains(name));
+                assertEquals(won, context.isCombinationWinning(combination), name);
+            }
+        }
+    }
+
+    /**
+     * Reward as the string based implementation computed it before the config was compiled
+     */
+    private double referenceReward(String[][] matrix, double betAmount, Map<String, List<String>> winningCombinations) {
+        double totalReward = 0;
+        for (Map.Entry<String, List<String>> entry : winningCombinations.entrySet()) {
+            var configSymbol = config.getSymbols().get(entry.getKey());
+            if (configSymbol == null) {
+                continue;
+            }
+            var symbolReward = betAmount * configSymbol.getRewardMultiplier();
+            for (String combinationName : entry.getValue()) {
+                symbolReward *= config.getWinCombinations().get(combinationName).getRewardMultiplier();
+            }
+            totalReward += symbolReward;
+        }
+        if (winningCombinations.isEmpty()) {
+            return totalReward;
+        }
+        for (String[] row : matrix) {
+            for (String cell : row) {
+                var symbol = config.getSymbols().get(cell);
+                if (symbol != null && "bonus".equals(symbol.getType())) {
+                    switch (symbol.getImpact()) {
+                        case "multiply_reward" -> totalReward *= symbol.getRewardMultiplier();
+                        case "extra_bonus" -> totalReward += symbol.getExtra();
+                        default -> {
+                        }
+                    }
+                }
+            }
+        }
+        return totalReward;
+    }
+
+    @Test
+    void testReelStripsShowOneWindowPerColumn() throws IOException {
+        var game = CompiledGame.compile(Parser.parseConfig("src/test/resources/reel_config.json"));
+        var random = RngAlgorithm.DEFAULT.create(11);
+        var draws = new int[1];
+        var counting = new RandomGenerator() {
+            @Override
+            public long nextLong() {
+                return random.nextLong();
+            }
+
+            @Override
+            public int nextInt(int bound) {
+                draws[0]++;
+                return random.nextInt(bound);
+            }
+        };
+        var processor = new GameProcessor(counting);
+        var context = new SpinContext(game);
+
+        var landedTenX = false;
+        for (int spin = 0; spin < 500; spin++) {
+            draws[0] = 0;
+            processor.spin(context, betAmount);
+            assertEquals(game.getColumns(), draws[0], "");
+            for (int col = 0; col < game.getColumns(); col++) {
+                assertTrue(isWindow(game.getReelStrip(col), context.board, col, game.getColumns()), "column " + col);
+            }
+            // bonus symbols land from the strips, only the first column holds 10x
+            var tenX = game.getSymbolId("10x");
+            for (int cell = 0; cell < context.board.length; cell++) {
+                if (context.board[cell] == tenX) {
+                    landedTenX = true;
+                    assertEquals(0, cell % game.getColumns(), "");
+                }
+            }
+        }
+        assertTrue(landedTenX, "");
+    }
+
+    @Test
+    void testCascadeStepsMatchFullEvaluation() throws IOException {
+        assertCascadeStepsMatchFullEvaluation(CompiledGame.compile(Parser.parseConfig("src/test/resources/cascade_config.json")));
+    }
+
+    @Test
+    void testCascadingClustersMatchFullEvaluation() throws IOException {
+        var mapper = new ObjectMapper();
+        var tree = (ObjectNode) mapper.readTree(new File("src/test/resources/cluster_config.json"));
+        tree.putObject("cascade");
+        var game = CompiledGame.compile(mapper.convertValue(tree, GameConfig.class));
+        assertTrue(game.hasClusters() && game.isCascade(), "");
+        assertCascadeStepsMatchFullEvaluation(game);
+    }
+
+    @Test
+    void testCascadingWaysMatchFullEvaluation() throws IOException {
+        var mapper = new ObjectMapper();
+        var tree = (ObjectNode) mapper.readTree(new File("src/test/resources/ways_config.json"));
+        tree.putObject("cascade");
+        var game = CompiledGame.compile(mapper.convertValue(tree, GameConfig.class));
+        assertTrue(game.hasWays() && game.isCascade(), "");
+        assertCascadeStepsMatchFullEvaluation(game);
+    }
+
+    @Test
+    void testWaysRewardMatchesMatrixPipeline() throws IOException {
+        var ways = Parser.parseConfig("src/test/resources/ways_config.json");
+        var matrixProcessor = new GameProcessor(RngAlgorithm.DEFAULT.create(41));
+        var contextProcessor = new GameProcessor(RngAlgorithm.DEFAULT.create(41));
+        var context = contextProcessor.createContext(ways);
+
+        long mostWays = 0;
+        for (int spin = 0; spin < 2000; spin++) {
+            var matrix = matrixProcessor.generateMatrix(ways, new Result());
+            var winCombinations = matrixProcessor.checkWinningCombinations(matrix, ways);
+            var reward = matrixProcessor.calculateReward(matrix, betAmount, winCombinations, ways);
+
+            var contextReward = contextProcessor.spin(context, betAmount);
+
+            assertArrayEquals(matrix, context.toMatrix());
+            assertEquals(winCombinations, context.toWinningCombinations(), "");
+            assertEquals(reward, contextReward, 1e-9, "");
+            for (int win = 0; win < context.getWinCount(); win++) {
+                mostWays = Math.max(mostWays, context.getWinWays(win));
+            }
+        }
+        // wins are paid per way, not once per symbol
+        assertTrue(mostWays > 1, "");
+    }
+
+    private void assertCascadeStepsMatchFullEvaluation(CompiledGame game) {
+        var processor = new GameProcessor(RandomSource.of(RngAlgorithm.DEFAULT, 31).split());
+        var context = new SpinContext(game);
+        var reference = new SpinContext(game);
+
+        var longest = 0;
+        for (int spin = 0; spin < 5_000; spin++) {
+            var reward = processor.spin(context, betAmount);
+            var steps = context.getStepCount();
+            longest = Math.max(longest, steps);
+            assertTrue(steps >= 1 && steps <= game.getCascadeSteps() + 1, "");
+
+            double stepRewards = 0;
+            var from = 0;
+            for (int step = 0; step < steps; step++) {
+                // every step wins exactly what a full evaluation of its board wins, in the same order
+                for (int cell = 0; cell < reference.board.length; cell++) {
+                    reference.board[cell] = context.getStepSymbolAt(step, cell);
+                }
+                processor.checkWinningCombinations(reference);
+                var end = context.getStepWinEnd(step);
+                assertEquals(reference.getWinCount(), end - from, "step " + step);
+                for (int win = 0; win < reference.getWinCount(); win++) {
+                    assertEquals(reference.getWinSymbol(win), context.getWinSymbol(from + win), "");
+                    assertEquals(reference.getWinCombination(win), context.getWinCombination(from + win), "");
+                    assertEquals(reference.getWinWays(win), context.getWinWays(from + win), "");
+                }
+                assertEquals(processor.calculateReward(reference, betAmount), context.getStepReward(step), 0, "");
+                stepRewards += context.getStepReward(step);
+                // only the last step may stop without a win
+                assertTrue(end > from || step == steps - 1, "");
+                from = end;
+            }
+            if (context.getWinCount() == 0) {
+                assertEquals(0, reward, 0, "");
+            } else if (context.getBonusCount() == 0) {
+                assertEquals(stepRewards, reward, 1e-9, "");
+            }
+        }
+        assertTrue(longest > 2, "");
+    }
+
+    @Test
+    void testCascadeSpinsReplayExactly() throws IOException {
+        var game = CompiledGame.compile(Parser.parseConfig("src/test/resources/cascade_config.json"));
+        var first = new SpinContext(game);
+        var second = new SpinContext(game);
+        var firstProcessor = new GameProcessor(RandomSource.of(RngAlgorithm.DEFAULT, 9).split());
+        var secondProcessor = new GameProcessor(RandomSource.of(RngAlgorithm.DEFAULT, 9).split());
+        var mapper = new ObjectMapper();
+
+        for (int spin = 0; spin < 1_000; spin++) {
+            assertEquals(firstProcessor.spin(first, betAmount), secondProcessor.spin(second, betAmount), 0, "");
+            assertEquals(mapper.writeValueAsString(first.toResult(new Result())), mapper.writeValueAsString(second.toResult(new Result())), "");
+        }
+    }
+
+    @Test
+    void testFreeSpinsAddTheirRoundToTheReward() throws IOException {
+        var game = CompiledGame.compile(Parser.parseConfig("src/test/resources/free_spins_config.json"));
+        var processor = new GameProcessor(RandomSource.of(RngAlgorithm.DEFAULT, 12).split());
+        var context = new SpinContext(game);
+        var reference = new SpinContext(game);
+        var trigger = game.getSymbolId("FS");
+
+        var rounds = 0;
+        for (int spin = 0; spin < 5_000; spin++) {
+            var reward = processor.spin(context, betAmount);
+            var triggers = 0;
+            for (int i = 0; i < context.getBonusCount(); i++) {
+                if (context.getBonusSymbol(i) == trigger) {
+                    triggers++;
+                }
+            }
+            // every trigger plays its spins, whether or not the board won
+            assertEquals(10 * triggers, context.getFreeSpinCount(), "");
+            assertTrue(context.getWinningFreeSpinCount() <= context.getFreeSpinCount(), "");
+            if (triggers == 0) {
+                assertEquals(0, context.getFreeSpinsReward(), 0, "");
+            } else {
+                rounds++;
+            }
+
+            reference.load(context.toMatrix());
+            processor.checkWinningCombinations(reference);
+            var boardReward = processor.calculateReward(reference, betAmount);
+            assertEquals(boardReward + context.getFreeSpinsReward(), reward, 0, "");
+        }
+        assertTrue(rounds > 100, "");
+    }
+
+    @Test
+    void testFreeSpinsReplayExactly() throws IOException {
+        var game = CompiledGame.compile(Parser.parseConfig("src/test/resources/free_spins_config.json"));
+        var reused = new SpinContext(game);
+        var firstProcessor = new GameProcessor(RandomSource.of(RngAlgorithm.DEFAULT, 13).split());
+        var secondProcessor = new GameProcessor(RandomSource.of(RngAlgorithm.DEFAULT, 13).split());
+
+        for (int spin = 0; spin < 2_000; spin++) {
+            // a fresh context builds its round generator, a reused one reseeds it: both play the same boards
+            var fresh = new SpinContext(game);
+            assertEquals(firstProcessor.spin(reused, betAmount), secondProcessor.spin(fresh, betAmount), 0, "");
+            assertEquals(reused.getFreeSpinsReward(), fresh.getFreeSpinsReward(), 0, "");
+        }
+    }
+
+    private static boolean isWindow(int[] strip, int[] board, int col, int columns) {
+        for (int stop = 0; stop < strip.length; stop++) {
+            var matches = true;
+            for (int cell = col, position = stop; cell < board.length && matches; cell += columns, position++) {
+                matches = board[cell] == strip[position % strip.length];
+            }
+            if (matches) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
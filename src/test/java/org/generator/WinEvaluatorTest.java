@@ -0,0 +1,345 @@
+package org.generator;
+
+import org.config.compiled.CompiledGame;
+import org.config.compiled.WinKind;
+import org.config.parser.Parser;
+import org.generator.random.RngAlgorithm;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WinEvaluatorTest {
+
+    private CompiledGame game;
+
+    @BeforeEach
+    void setUp() {
+        try {
+            game = CompiledGame.compile(Parser.parseConfig("config.json"));
+        } catch (IOException err) {
+            throw new RuntimeException(err);
+        }
+    }
+
+    @Test
+    void testBitboardMatchesArrayEvaluationOnRandomBoards() {
+        assertTrue(game.isBitboard(), "");
+        var random = RngAlgorithm.DEFAULT.create(7);
+        var bitboard = new SpinContext(game);
+        var array = new SpinContext(game);
+
+        // Few symbols per board make same symbols and line wins frequent
+        for (int round = 0; round < 20_000; round++) {
+            var symbols = 1 + random.nextInt(4);
+            for (int cell = 0; cell < game.getCellCount(); cell++) {
+                var symbol = random.nextInt(symbols);
+                bitboard.board[cell] = symbol;
+                array.board[cell] = symbol;
+            }
+
+            bitboard.clearWins();
+            BitboardWinEvaluator.INSTANCE.evaluate(bitboard);
+            array.clearWins();
+            ArrayWinEvaluator.INSTANCE.evaluate(array);
+
+            assertEquals(array.getWinCount(), bitboard.getWinCount(), "");
+            for (int win = 0; win < array.getWinCount(); win++) {
+                assertEquals(array.getWinSymbol(win), bitboard.getWinSymbol(win), "");
+                assertEquals(array.getWinCombination(win), bitboard.getWinCombination(win), "");
+            }
+        }
+    }
+
+    @Test
+    void testBitboardScratchSpaceIsClearedAfterEvaluation() {
+        var context = new SpinContext(game);
+        new GameProcessor(RngAlgorithm.DEFAULT.create(3)).spin(context, 1);
+
+        for (long bits : context.symbolBits) {
+            assertEquals(0L, bits, "");
+        }
+    }
+
+    @Test
+    void testParallelMatchesSerialEvaluationWhateverTheSplit() {
+        var random = RngAlgorithm.DEFAULT.create(11);
+        var serial = new SpinContext(game, ArrayWinEvaluator.INSTANCE);
+        var evaluators = new ParallelWinEvaluator[]{new ParallelWinEvaluator(1), new ParallelWinEvaluator(3)};
+
+        for (int round = 0; round < 2_000; round++) {
+            var symbols = 1 + random.nextInt(3);
+            for (int cell = 0; cell < game.getCellCount(); cell++) {
+                serial.board[cell] = random.nextInt(symbols);
+            }
+            serial.clearWins();
+            ArrayWinEvaluator.INSTANCE.evaluate(serial);
+
+            for (var evaluator : evaluators) {
+                var parallel = new SpinContext(game, evaluator);
+                System.arraycopy(serial.board, 0, parallel.board, 0, serial.board.length);
+                evaluator.evaluate(parallel);
+
+                assertEquals(serial.getWinCount(), parallel.getWinCount(), "");
+                for (int win = 0; win < serial.getWinCount(); win++) {
+                    assertEquals(serial.getWinSymbol(win), parallel.getWinSymbol(win), "");
+                    assertEquals(serial.getWinCombination(win), parallel.getWinCombination(win), "");
+                }
+                for (boolean areaWin : parallel.areaWins) {
+                    assertFalse(areaWin, "");
+                }
+            }
+        }
+    }
+
+    @Test
+    void testClustersOfAdjacentCells() throws IOException {
+        var clusters = CompiledGame.compile(Parser.parseConfig("src/test/resources/cluster_config.json"));
+        String[][] matrix = {
+                {"A", "A", "B", "B", "B"},
+                {"A", "C", "C", "C", "B"},
+                {"A", "C", "D", "E", "F"},
+                {"F", "F", "F", "F", "F"},
+                {"D", "E", "D", "E", "D"}
+        };
+        WinEvaluator[] evaluators = {ArrayWinEvaluator.INSTANCE, BitboardWinEvaluator.INSTANCE, new ParallelWinEvaluator(1)};
+        for (WinEvaluator evaluator : evaluators) {
+            var context = new SpinContext(clusters, evaluator);
+            context.load(matrix);
+            evaluator.evaluate(context);
+
+            // the full row comes first, then the clusters by their first cell; diagonal cells are not adjacent
+            String[][] expected = {
+                    {"F", "same_symbols_horizontally"},
+                    {"A", "cluster_of_4"},
+                    {"B", "cluster_of_4"},
+                    {"C", "cluster_of_4"},
+                    {"F", "cluster_of_6"}
+            };
+            assertEquals(expected.length, context.getWinCount(), "");
+            for (int win = 0; win < expected.length; win++) {
+                assertEquals(expected[win][0], context.getSymbolName(context.getWinSymbol(win)), "");
+                assertEquals(expected[win][1], clusters.getCombinationName(context.getWinCombination(win)), "");
+            }
+        }
+    }
+
+    @Test
+    void testClustersMatchBreadthFirstSearchOnRandomBoards() throws IOException {
+        var clusters = CompiledGame.compile(Parser.parseConfig("src/test/resources/cluster_config.json"));
+        var random = RngAlgorithm.DEFAULT.create(17);
+        var bitboard = new SpinContext(clusters, BitboardWinEvaluator.INSTANCE);
+        var array = new SpinContext(clusters, ArrayWinEvaluator.INSTANCE);
+
+        for (int round = 0; round < 5_000; round++) {
+            var symbols = 1 + random.nextInt(4);
+            for (int cell = 0; cell < clusters.getCellCount(); cell++) {
+                var symbol = random.nextInt(symbols);
+                bitboard.board[cell] = symbol;
+                array.board[cell] = symbol;
+            }
+            bitboard.clearWins();
+            BitboardWinEvaluator.INSTANCE.evaluate(bitboard);
+            array.clearWins();
+            ArrayWinEvaluator.INSTANCE.evaluate(array);
+
+            var expected = referenceClusters(clusters, array.board);
+            var first = array.getWinCount() - expected.size();
+            assertEquals(array.getWinCount(), bitboard.getWinCount(), "");
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i)[0], array.getWinSymbol(first + i), "");
+                assertEquals(expected.get(i)[1], array.getWinCombination(first + i), "");
+                assertEquals(array.getWinCombination(first + i), bitboard.getWinCombination(first + i), "");
+            }
+            for (boolean flag : array.clustered) {
+                assertFalse(flag, "");
+            }
+        }
+    }
+
+    @Test
+    void testWaysAreCountedPerReel() throws IOException {
+        var ways = CompiledGame.compile(Parser.parseConfig("src/test/resources/ways_config.json"));
+        assertTrue(ways.isWild(ways.getSymbolId("W")), "");
+        String[][] matrix = {
+                {"A", "B", "W", "C", "D"},
+                {"A", "A", "C", "C", "E"},
+                {"B", "E", "W", "F", "F"},
+                {"F", "D", "A", "B", "F"}
+        };
+        WinEvaluator[] evaluators = {ArrayWinEvaluator.INSTANCE, BitboardWinEvaluator.INSTANCE, new ParallelWinEvaluator(1)};
+        for (WinEvaluator evaluator : evaluators) {
+            var context = new SpinContext(ways, evaluator);
+            context.load(matrix);
+            evaluator.evaluate(context);
+
+            // A: 2 * 1 * (1 + 2 wilds) ways on three reels, B: 1 * 1 * 2 wilds * 1 on four reels; F stops on the second reel
+            assertEquals(2, context.getWinCount(), "");
+            assertEquals("A", context.getSymbolName(context.getWinSymbol(0)), "");
+            assertEquals("ways_3", ways.getCombinationName(context.getWinCombination(0)), "");
+            assertEquals(6, context.getWinWays(0), "");
+            assertEquals("B", context.getSymbolName(context.getWinSymbol(1)), "");
+            assertEquals("ways_4", ways.getCombinationName(context.getWinCombination(1)), "");
+            assertEquals(2, context.getWinWays(1), "");
+        }
+    }
+
+    @Test
+    void testWildsDoNotMakeWaysForBonusSymbols() throws IOException {
+        var ways = CompiledGame.compile(Parser.parseConfig("src/test/resources/ways_config.json"));
+        String[][] matrix = {
+                {"10x", "W", "W", "C", "D"},
+                {"MISS", "W", "B", "C", "E"},
+                {"A", "E", "F", "F", "F"},
+                {"B", "D", "A", "B", "F"}
+        };
+        WinEvaluator[] evaluators = {ArrayWinEvaluator.INSTANCE, BitboardWinEvaluator.INSTANCE, new ParallelWinEvaluator(1)};
+        for (WinEvaluator evaluator : evaluators) {
+            var context = new SpinContext(ways, evaluator);
+            context.load(matrix);
+            evaluator.evaluate(context);
+
+            // 10x and MISS lead the wild reels but win nothing, B: 1 * 2 wilds * (1 + 1 wild) * 1, A: 1 * 2 wilds * (1 + 1 wild)
+            assertEquals(2, context.getWinCount(), "");
+            assertEquals("B", context.getSymbolName(context.getWinSymbol(0)), "");
+            assertEquals("ways_4", ways.getCombinationName(context.getWinCombination(0)), "");
+            assertEquals(4, context.getWinWays(0), "");
+            assertEquals("A", context.getSymbolName(context.getWinSymbol(1)), "");
+            assertEquals("ways_3", ways.getCombinationName(context.getWinCombination(1)), "");
+            assertEquals(4, context.getWinWays(1), "");
+        }
+    }
+
+    @Test
+    void testWaysMatchPathEnumerationOnRandomBoards() throws IOException {
+        var ways = CompiledGame.compile(Parser.parseConfig("src/test/resources/ways_config.json"));
+        var random = RngAlgorithm.DEFAULT.create(23);
+        var context = new SpinContext(ways, ArrayWinEvaluator.INSTANCE);
+        int[] pool = {ways.getSymbolId("A"), ways.getSymbolId("B"), ways.getSymbolId("C"), ways.getSymbolId("W"), ways.getSymbolId("10x")};
+
+        for (int round = 0; round < 5_000; round++) {
+            for (int cell = 0; cell < ways.getCellCount(); cell++) {
+                context.board[cell] = pool[random.nextInt(pool.length)];
+            }
+            context.clearWins();
+            ArrayWinEvaluator.INSTANCE.evaluate(context);
+
+            var expected = referenceWays(ways, context.board);
+            assertEquals(expected.size(), context.getWinCount(), "");
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i)[0], context.getWinSymbol(i), "");
+                assertEquals(expected.get(i)[1], context.getWinCombination(i), "");
+                assertEquals(expected.get(i)[2], context.getWinWays(i), "");
+            }
+            for (int count : context.waysCounts) {
+                assertEquals(0, count, "");
+            }
+        }
+    }
+
+    /**
+     * (symbol, combination, ways) of every symbol winning ways, found by walking every path of one cell per reel
+     */
+    private static List<long[]> referenceWays(CompiledGame game, int[] board) {
+        var columns = game.getColumns();
+        var wins = new ArrayList<long[]>();
+        var seen = new HashSet<Integer>();
+        for (int symbol : board) {
+            if (game.isWild(symbol) || game.isBonus(symbol) || !seen.add(symbol)) {
+                continue;
+            }
+            var length = 0;
+            while (length < columns && reelHolds(game, board, symbol, length)) {
+                length++;
+            }
+            var combination = game.getWaysCombination(length);
+            var paths = countPaths(game, board, symbol, length, 0, false);
+            if (combination >= 0 && paths > 0) {
+                wins.add(new long[]{symbol, combination, paths});
+            }
+        }
+        return wins;
+    }
+
+    private static boolean reelHolds(CompiledGame game, int[] board, int symbol, int col) {
+        for (int cell = col; cell < board.length; cell += game.getColumns()) {
+            if (board[cell] == symbol || game.isWild(board[cell])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Paths over the reels from {@code col} up to {@code length} which hold the symbol at least once
+     */
+    private static long countPaths(CompiledGame game, int[] board, int symbol, int length, int col, boolean real) {
+        if (col == length) {
+            return real ? 1 : 0;
+        }
+        long paths = 0;
+        for (int cell = col; cell < board.length; cell += game.getColumns()) {
+            if (board[cell] == symbol || game.isWild(board[cell])) {
+                paths += countPaths(game, board, symbol, length, col + 1, real || board[cell] == symbol);
+            }
+        }
+        return paths;
+    }
+
+    /**
+     * (symbol, combination) of every winning cluster, found by a breadth first search over boxed collections
+     */
+    private static List<int[]> referenceClusters(CompiledGame game, int[] board) {
+        var columns = game.getColumns();
+        var seen = new HashSet<Integer>();
+        var wins = new ArrayList<int[]>();
+        for (int start = 0; start < board.length; start++) {
+            if (!seen.add(start)) {
+                continue;
+            }
+            var queue = new ArrayDeque<Integer>(List.of(start));
+            var size = 0;
+            while (!queue.isEmpty()) {
+                int cell = queue.poll();
+                size++;
+                var neighbours = new ArrayList<Integer>();
+                if (cell % columns > 0) {
+                    neighbours.add(cell - 1);
+                }
+                if (cell % columns < columns - 1) {
+                    neighbours.add(cell + 1);
+                }
+                if (cell >= columns) {
+                    neighbours.add(cell - columns);
+                }
+                if (cell + columns < board.length) {
+                    neighbours.add(cell + columns);
+                }
+                for (int neighbour : neighbours) {
+                    if (board[neighbour] == board[start] && seen.add(neighbour)) {
+                        queue.add(neighbour);
+                    }
+                }
+            }
+            var combination = -1;
+            for (int id = 0; id < game.getCombinationCount(); id++) {
+                if (game.getCombinationKind(id) == WinKind.CLUSTER && size >= game.getRequiredCount(id)
+                        && (combination < 0 || game.getRequiredCount(id) > game.getRequiredCount(combination))) {
+                    combination = id;
+                }
+            }
+            if (combination >= 0) {
+                wins.add(new int[]{board[start], combination});
+            }
+        }
+        return wins;
+    }
+}
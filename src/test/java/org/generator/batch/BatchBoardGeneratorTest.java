@@ -0,0 +1,114 @@
+package org.generator.batch;
+
+import org.config.compiled.CompiledGame;
+import org.config.parser.Parser;
+import org.generator.random.RandomSource;
+import org.generator.random.RngAlgorithm;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchBoardGeneratorTest {
+
+    private CompiledGame game;
+
+    @BeforeEach
+    void setUp() {
+        try {
+            game = CompiledGame.compile(Parser.parseConfig("config.json"));
+        } catch (IOException err) {
+            throw new RuntimeException(err);
+        }
+    }
+
+    @Test
+    void testVectorAndScalarFillIdenticalBoards() {
+        var vector = BatchBoardGenerator.create(game, RandomSource.of(RngAlgorithm.DEFAULT, 9).split());
+        var scalar = BatchBoardGenerator.scalar(game, RandomSource.of(RngAlgorithm.DEFAULT, 9).split());
+        // an odd size exercises the scalar tail of the vector loops
+        var vectorBatch = new BoardBatch(game.getCellCount(), 77);
+        var scalarBatch = new BoardBatch(game.getCellCount(), 77);
+
+        for (int round = 0; round < 20; round++) {
+            vector.generate(vectorBatch);
+            scalar.generate(scalarBatch);
+            assertArrayEquals(scalarBatch.symbols, vectorBatch.symbols);
+        }
+    }
+
+    @Test
+    void testSymbolFrequenciesFollowWeights() {
+        var generator = BatchBoardGenerator.create(game, RandomSource.of(RngAlgorithm.SPLITTABLE, 2).split());
+        var batch = new BoardBatch(game.getCellCount(), 1024);
+        var rounds = 200;
+        var cell = 4;
+        var hits = new int[game.getSymbolCount()];
+        for (int round = 0; round < rounds; round++) {
+            generator.generate(batch);
+            for (int board = 0; board < batch.getSize(); board++) {
+                hits[batch.getSymbol(board, cell)]++;
+            }
+        }
+
+        var draws = (double) rounds * batch.getSize();
+        var bonus = game.getBonusPossibility() / 100.0;
+        var cellSampler = game.getCellSampler(cell);
+        var bonusSampler = game.getBonusSampler();
+        var expected = new double[game.getSymbolCount()];
+        for (int i = 0; i < cellSampler.size(); i++) {
+            expected[cellSampler.getSymbol(i)] += (1 - bonus) * cellSampler.getWeight(i) / cellSampler.getTotalWeight();
+        }
+        for (int i = 0; i < bonusSampler.size(); i++) {
+            expected[bonusSampler.getSymbol(i)] += bonus * bonusSampler.getWeight(i) / bonusSampler.getTotalWeight();
+        }
+        for (int symbol = 0; symbol < expected.length; symbol++) {
+            var sigma = Math.sqrt(expected[symbol] * (1 - expected[symbol]) / draws);
+            assertEquals(expected[symbol], hits[symbol] / draws, 5 * sigma + 1e-9, game.getSymbolName(symbol));
+        }
+    }
+
+    @Test
+    void testReelStripBoardsAreStripWindows() throws IOException {
+        var reels = CompiledGame.compile(Parser.parseConfig("src/test/resources/reel_config.json"));
+        var generator = BatchBoardGenerator.create(reels, RandomSource.of(RngAlgorithm.DEFAULT, 4).split());
+        var batch = new BoardBatch(reels.getCellCount(), 256);
+        var columns = reels.getColumns();
+        var stops = new int[reels.getReelStrip(0).length];
+
+        for (int round = 0; round < 20; round++) {
+            generator.generate(batch);
+            for (int board = 0; board < batch.getSize(); board++) {
+                for (int col = 0; col < columns; col++) {
+                    var strip = reels.getReelStrip(col);
+                    var stop = stopOf(strip, batch, board, col, columns);
+                    assertTrue(stop >= 0, "column " + col);
+                    if (col == 0) {
+                        stops[stop]++;
+                    }
+                }
+            }
+        }
+        // every stop of the first strip is distinct, so its stops are uniform
+        var draws = 20.0 * batch.getSize();
+        for (int count : stops) {
+            var expected = 1.0 / stops.length;
+            assertEquals(expected, count / draws, 5 * Math.sqrt(expected * (1 - expected) / draws), "");
+        }
+    }
+
+    private static int stopOf(int[] strip, BoardBatch batch, int board, int col, int columns) {
+        for (int stop = 0; stop < strip.length; stop++) {
+            var matches = true;
+            for (int cell = col, position = stop; cell < batch.getCells() && matches; cell += columns, position++) {
+                matches = batch.getSymbol(board, cell) == strip[position % strip.length];
+            }
+            if (matches) {
+                return stop;
+            }
+        }
+        return -1;
+    }
+}
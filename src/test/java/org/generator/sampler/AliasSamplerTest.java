@@ -0,0 +1,69 @@
+package org.generator.sampler;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AliasSamplerTest {
+
+    private static final int[] SYMBOLS = {10, 11, 12, 13, 14, 15};
+    private static final int[] WEIGHTS = {1, 2, 3, 4, 5, 6};
+
+    @Test
+    void testAliasTableIsExact() {
+        var sampler = new AliasSampler(SYMBOLS, WEIGHTS);
+        var hits = new long[16];
+
+        // Every uniform value maps to exactly one symbol, so enumerating them gives the exact distribution
+        for (long value = 0; value < sampler.getBound(); value++) {
+            hits[sampler.sampleAt(value)]++;
+        }
+
+        for (int i = 0; i < SYMBOLS.length; i++) {
+            assertEquals((long) WEIGHTS[i] * SYMBOLS.length, hits[SYMBOLS[i]], "symbol " + SYMBOLS[i]);
+        }
+    }
+
+    @Test
+    void testZeroWeightIsNeverDrawn() {
+        var sampler = new AliasSampler(new int[]{0, 1, 2}, new int[]{3, 0, 7});
+        for (long value = 0; value < sampler.getBound(); value++) {
+            assertNotEquals(1, sampler.sampleAt(value), "");
+        }
+    }
+
+    @Test
+    void testMatchesReferenceSamplerDistribution() {
+        var alias = new AliasSampler(SYMBOLS, WEIGHTS);
+        var reference = new CumulativeSampler(SYMBOLS, WEIGHTS);
+        var draws = 210_000;
+
+        var aliasHits = histogram(alias, new Random(42), draws);
+        var referenceHits = histogram(reference, new Random(43), draws);
+
+        // Two sample chi-square with 5 degrees of freedom, 20.5 is the 0.999 quantile
+        var chiSquare = 0.0;
+        for (int i = 0; i < SYMBOLS.length; i++) {
+            var a = aliasHits[SYMBOLS[i]];
+            var r = referenceHits[SYMBOLS[i]];
+            chiSquare += Math.pow(a - r, 2) / (a + r);
+        }
+        assertTrue(chiSquare < 20.5, "chi-square " + chiSquare);
+    }
+
+    @Test
+    void testInvalidWeightsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new AliasSampler(new int[]{1}, new int[]{0}));
+        assertThrows(IllegalArgumentException.class, () -> new AliasSampler(new int[]{1, 2}, new int[]{1, -1}));
+    }
+
+    private static long[] histogram(WeightedSampler sampler, Random random, int draws) {
+        var hits = new long[16];
+        for (int i = 0; i < draws; i++) {
+            hits[sampler.sample(random)]++;
+        }
+        return hits;
+    }
+}
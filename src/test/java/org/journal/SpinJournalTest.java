@@ -0,0 +1,185 @@
+package org.journal;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.config.compiled.CompiledGame;
+import org.config.model.GameConfig;
+import org.config.parser.Parser;
+import org.generator.GameProcessor;
+import org.generator.SpinContext;
+import org.generator.random.RandomSource;
+import org.generator.random.RngAlgorithm;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpinJournalTest {
+
+    private static final RngAlgorithm ALGORITHM = RngAlgorithm.DEFAULT;
+
+    private CompiledGame game;
+    private Path directory;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        game = CompiledGame.compile(Parser.parseConfig("config.json"));
+        directory = Files.createTempDirectory("journal");
+    }
+
+    private void deleteJournal() throws IOException {
+        try (var files = Files.walk(directory)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    /**
+     * Plays and journals {@code spins} seeded spins, returning the rewards
+     */
+    private List<Double> play(SpinJournal journal, RandomSource source, int spins) throws IOException {
+        return play(journal, source, spins, new SpinContext(game));
+    }
+
+    private List<Double> play(SpinJournal journal, RandomSource source, int spins, SpinContext context) throws IOException {
+        var rewards = new ArrayList<Double>();
+        long last = -1;
+        for (int i = 0; i < spins; i++) {
+            var seed = source.nextSeed();
+            var reward = new GameProcessor(RandomSource.of(ALGORITHM, seed).split()).spin(context, 10);
+            last = journal.append(context, seed, 10);
+            rewards.add(reward);
+        }
+        journal.awaitDurable(last);
+        return rewards;
+    }
+
+    @Test
+    void testRecordsRollOverSegmentsAndReplay() throws IOException {
+        List<Double> rewards;
+        try (var journal = SpinJournal.open(directory, game, ALGORITHM, 4096)) {
+            rewards = play(journal, RandomSource.of(ALGORITHM, 8), 1_000);
+            assertEquals(1_000, journal.getNextSequence(), "");
+        }
+        assertTrue(SpinJournalReader.segments(directory).size() > 1, "");
+
+        var reader = new SpinJournalReader(directory);
+        var read = new ArrayList<Double>();
+        var count = reader.read(record -> {
+            assertEquals(read.size(), record.getSequence(), "");
+            assertEquals(10, record.getBetAmount(), "");
+            read.add(record.getReward());
+        });
+        assertEquals(1_000, count, "");
+        assertEquals(rewards, read, "");
+
+        var verification = reader.verify(game);
+        assertEquals(1_000, verification.records(), "");
+        assertEquals(0, verification.mismatches(), "");
+        assertEquals(-1, verification.firstMismatch(), "");
+        deleteJournal();
+    }
+
+    @Test
+    void testReopenedJournalContinuesAfterTornRecord() throws IOException {
+        try (var journal = SpinJournal.open(directory, game, ALGORITHM, 1 << 20)) {
+            play(journal, RandomSource.of(ALGORITHM, 3), 20);
+        }
+        // a crash in the middle of the last record leaves a record with a wrong checksum
+        var segment = SpinJournalReader.segments(directory).getFirst();
+        var layout = JournalLayout.of(game, ALGORITHM);
+        try (var channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{1, 2, 3}), JournalLayout.HEADER_BYTES + 19L * layout.recordBytes + 40);
+        }
+        assertEquals(19, new SpinJournalReader(directory).read(record -> {
+        }), "");
+
+        try (var journal = SpinJournal.open(directory, game, ALGORITHM, 1 << 20)) {
+            assertEquals(19, journal.getNextSequence(), "");
+            play(journal, RandomSource.of(ALGORITHM, 4), 5);
+        }
+        var verification = new SpinJournalReader(directory).verify(game);
+        assertEquals(24, verification.records(), "");
+        assertEquals(0, verification.mismatches(), "");
+        deleteJournal();
+    }
+
+    @Test
+    void testReopenedJournalReplacesSegmentWithoutRecords() throws IOException {
+        try (var journal = SpinJournal.open(directory, game, ALGORITHM, 1 << 20)) {
+            play(journal, RandomSource.of(ALGORITHM, 5), 10);
+        }
+        // a crash after the next segment was created, before its first record was written
+        var layout = JournalLayout.of(game, ALGORITHM);
+        try (var channel = FileChannel.open(directory.resolve(JournalLayout.fileName(10)), StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            var segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, JournalLayout.HEADER_BYTES + 4L * layout.recordBytes);
+            segment.order(ByteOrder.LITTLE_ENDIAN);
+            layout.writeHeader(segment, 10, 4);
+        }
+        assertEquals(2, SpinJournalReader.segments(directory).size(), "");
+
+        try (var journal = SpinJournal.open(directory, game, ALGORITHM, 1 << 20)) {
+            assertEquals(10, journal.getNextSequence(), "");
+            play(journal, RandomSource.of(ALGORITHM, 6), 5);
+        }
+        var verification = new SpinJournalReader(directory).verify(game);
+        assertEquals(15, verification.records(), "");
+        assertEquals(0, verification.mismatches(), "");
+        deleteJournal();
+    }
+
+    @Test
+    void testCascadeSpinsKeepTheBonusSymbolsOfEveryRefill() throws IOException {
+        var mapper = new ObjectMapper();
+        var tree = (ObjectNode) mapper.readTree(new File("src/test/resources/cascade_config.json"));
+        tree.put("bonus_possibility", 60);
+        game = CompiledGame.compile(mapper.convertValue(tree, GameConfig.class));
+        var context = new SpinContext(game);
+        var mostBonusSymbols = 0;
+        try (var journal = SpinJournal.open(directory, game, ALGORITHM, 1 << 20)) {
+            var source = RandomSource.of(ALGORITHM, 12);
+            for (int i = 0; i < 200; i++) {
+                play(journal, source, 1, context);
+                mostBonusSymbols = Math.max(mostBonusSymbols, context.getBonusCount());
+            }
+        }
+        // refills landed more bonus symbols than one board has cells
+        assertTrue(mostBonusSymbols > game.getCellCount(), "bonus symbols " + mostBonusSymbols);
+
+        var verification = new SpinJournalReader(directory).verify(game);
+        assertEquals(200, verification.records(), "");
+        assertEquals(0, verification.mismatches(), "");
+        deleteJournal();
+    }
+
+    @Test
+    void testVerifyFindsSpinsWhichDoNotReplay() throws IOException {
+        try (var journal = SpinJournal.open(directory, game, ALGORITHM)) {
+            var context = new SpinContext(game);
+            for (int i = 0; i < 50; i++) {
+                new GameProcessor(RandomSource.of(ALGORITHM, i).split()).spin(context, 10);
+                // the fifth spin is recorded with a seed it was not played with
+                journal.append(context, i == 4 ? 1_000 : i, 10);
+            }
+        }
+        var verification = new SpinJournalReader(directory).verify(game);
+        assertEquals(50, verification.records(), "");
+        assertEquals(1, verification.mismatches(), "");
+        assertEquals(4, verification.firstMismatch(), "");
+        deleteJournal();
+    }
+}
@@ -0,0 +1,94 @@
+package org.metrics;
+
+import org.config.compiled.CompiledGame;
+import org.config.parser.Parser;
+import org.generator.GameProcessor;
+import org.generator.SpinContext;
+import org.generator.random.RngAlgorithm;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SpinMetricsTest {
+
+    @Test
+    void testCountersMatchThePlayedSpins() throws IOException {
+        var game = CompiledGame.compile(Parser.parseConfig("config.json"));
+        var processor = new GameProcessor(RngAlgorithm.DEFAULT.create(21));
+        var context = new SpinContext(game);
+        var metrics = new SpinMetrics();
+
+        long winningSpins = 0;
+        double totalReward = 0;
+        Map<String, Long> combinationWins = new HashMap<>();
+        for (int spin = 0; spin < 5_000; spin++) {
+            processor.spin(context, 10);
+            metrics.recordSpin(context, 10, 100, 200, 50);
+            totalReward += context.getReward();
+            if (context.getWinCount() > 0) {
+                winningSpins++;
+            }
+            for (int win = 0; win < context.getWinCount(); win++) {
+                combinationWins.merge(game.getCombinationName(context.getWinCombination(win)), 1L, Long::sum);
+            }
+        }
+
+        assertEquals(5_000, metrics.getSpins(), "");
+        assertEquals(winningSpins, metrics.getWinningSpins(), "");
+        assertEquals(totalReward / 50_000, metrics.getRtp(), 1e-9, "");
+        assertEquals(combinationWins, metrics.getCombinationWins(), "");
+        assertEquals(5_000, metrics.getStage(Stage.GENERATE).getCount(), "");
+        assertEquals(200.0, metrics.getStage(Stage.EVALUATE).getMeanNanos(), "");
+    }
+
+    @Test
+    void testSkippedStageIsNotRecorded() throws IOException {
+        var game = CompiledGame.compile(Parser.parseConfig("config.json"));
+        var context = new SpinContext(game);
+        new GameProcessor(RngAlgorithm.DEFAULT.create(2)).spin(context, 1);
+        var metrics = new SpinMetrics();
+
+        metrics.recordSpin(context, 1, -1, 10, 10);
+        metrics.recordSpin(context, 1, 10, -1, -1);
+
+        assertEquals(1, metrics.getStage(Stage.GENERATE).getCount(), "");
+        assertEquals(1, metrics.getStage(Stage.EVALUATE).getCount(), "");
+        assertEquals(1, metrics.getStage(Stage.REWARD).getCount(), "");
+        assertEquals(10.0, metrics.getStage(Stage.REWARD).getMeanNanos(), "");
+    }
+
+    @Test
+    void testLatencyQuantilesWithinAFactorOfTwo() {
+        var histogram = new LatencyHistogram();
+        for (long nanos = 1; nanos <= 100_000; nanos++) {
+            histogram.record(nanos);
+        }
+
+        assertEquals(100_000, histogram.getCount(), "");
+        assertEquals(100_000, histogram.getMaxNanos(), "");
+        var median = histogram.getValueAtQuantile(0.5);
+        assertTrue(median >= 50_000 && median < 100_000, "median " + median);
+        assertEquals(100_000, histogram.getValueAtQuantile(1), "");
+    }
+
+    @Test
+    void testPrometheusHistogramIsCumulative() {
+        var metrics = new SpinMetrics();
+        metrics.getStage(Stage.SERIALIZE).record(50);
+        metrics.getStage(Stage.SERIALIZE).record(1_000);
+        metrics.getStage(Stage.SERIALIZE).record(5_000_000_000L);
+
+        var text = metrics.toPrometheus();
+
+        assertTrue(text.contains("slot_stage_duration_seconds_bucket{stage=\"serialize\",le=\"6.4E-8\"} 1\n"), text);
+        assertTrue(text.contains("slot_stage_duration_seconds_bucket{stage=\"serialize\",le=\"1.024E-6\"} 2\n"), text);
+        assertTrue(text.contains("slot_stage_duration_seconds_bucket{stage=\"serialize\",le=\"+Inf\"} 3\n"), text);
+        assertTrue(text.contains("slot_stage_duration_seconds_count{stage=\"serialize\"} 3\n"), text);
+        assertTrue(text.contains("# TYPE slot_spins_total counter\nslot_spins_total 0\n"), text);
+    }
+}
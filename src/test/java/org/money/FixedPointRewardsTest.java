@@ -0,0 +1,74 @@
+package org.money;
+
+import org.config.compiled.CompiledGame;
+import org.config.parser.Parser;
+import org.generator.GameProcessor;
+import org.generator.SpinContext;
+import org.generator.random.RngAlgorithm;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FixedPointRewardsTest {
+
+    @Test
+    void testFixedPointMatchesBigDecimalPath() throws IOException {
+        assertFixedPointMatchesBigDecimalPath("config.json");
+    }
+
+    @Test
+    void testWaysArePaidPerWay() throws IOException {
+        assertFixedPointMatchesBigDecimalPath("src/test/resources/ways_config.json");
+    }
+
+    private static void assertFixedPointMatchesBigDecimalPath(String configPath) throws IOException {
+        var game = CompiledGame.compile(Parser.parseConfig(configPath));
+        var scale = new MoneyScale(2);
+        var rewards = new FixedPointRewards(game, scale);
+        var verifier = new DecimalRewards(game, scale);
+        var processor = new GameProcessor(RngAlgorithm.DEFAULT.create(13));
+        var context = new SpinContext(game);
+        var bets = new long[]{1, 7, 133, 999_99};
+
+        var winning = 0;
+        for (int spin = 0; spin < 20_000; spin++) {
+            var bet = bets[spin % bets.length];
+            var doubleReward = processor.spin(context, bet / 100.0);
+            var reward = rewards.calculate(context, bet);
+
+            verifier.verify(context, bet, reward);
+            // a rounding step moves an amount of at least a unit by at most half a percent, later multipliers keep it relative
+            if (bet >= 100) {
+                assertEquals(doubleReward, reward / 100.0, doubleReward * 0.01 + 0.01, "");
+            }
+            if (reward > 0) {
+                winning++;
+            }
+        }
+        assertTrue(winning > 1000, "winning spins " + winning);
+    }
+
+    @Test
+    void testMultiplicationRoundsHalfEven() {
+        assertEquals(2, MoneyScale.multiply(5, 500_000), "");
+        assertEquals(4, MoneyScale.multiply(7, 500_000), "");
+        assertEquals(3, MoneyScale.multiply(5, 600_000), "");
+        assertEquals(-2, MoneyScale.multiply(-5, 500_000), "");
+        assertEquals(1_500, MoneyScale.multiply(1_000, MoneyScale.toMultiplier(1.5)), "");
+    }
+
+    @Test
+    void testAmountsAreNeverRoundedOnInput() {
+        var scale = new MoneyScale(2);
+
+        assertEquals(1_250, scale.parse("12.5"), "");
+        assertEquals("12.50", scale.toDecimal(1_250).toPlainString(), "");
+        assertThrows(IllegalArgumentException.class, () -> scale.parse("12.505"));
+        assertThrows(IllegalArgumentException.class, () -> MoneyScale.toMultiplier(1.0000001));
+        assertThrows(ArithmeticException.class, () -> MoneyScale.multiply(Long.MAX_VALUE / 2, 5_000_000));
+    }
+}
@@ -0,0 +1,96 @@
+package org.output;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.config.compiled.CompiledGame;
+import org.config.model.GameConfig;
+import org.config.parser.Parser;
+import org.generator.GameProcessor;
+import org.generator.Result;
+import org.generator.SpinContext;
+import org.generator.random.RandomSource;
+import org.generator.random.RngAlgorithm;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NdjsonResultWriterTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private GameConfig config;
+
+    @BeforeEach
+    void setUp() {
+        try {
+            config = Parser.parseConfig("config.json");
+        } catch (IOException err) {
+            throw new RuntimeException(err);
+        }
+    }
+
+    @Test
+    void testLinesMatchResultJson() throws IOException {
+        var processor = new GameProcessor(RandomSource.of(RngAlgorithm.DEFAULT, 4).split());
+        assertLinesMatchResultJson(processor, processor.createContext(config));
+    }
+
+    @Test
+    void testCascadeLinesMatchResultJson() throws IOException {
+        var game = CompiledGame.compile(Parser.parseConfig("src/test/resources/cascade_config.json"));
+        var lines = assertLinesMatchResultJson(new GameProcessor(RandomSource.of(RngAlgorithm.DEFAULT, 6).split()), new SpinContext(game));
+        for (String line : lines) {
+            assertEquals(game.getRows(), mapper.readTree(line).get("cascades").get(0).get("matrix").size(), "");
+        }
+    }
+
+    @Test
+    void testFreeSpinsLinesMatchResultJson() throws IOException {
+        var game = CompiledGame.compile(Parser.parseConfig("src/test/resources/free_spins_config.json"));
+        var lines = assertLinesMatchResultJson(new GameProcessor(RandomSource.of(RngAlgorithm.DEFAULT, 8).split()), new SpinContext(game));
+        var triggered = 0;
+        for (String line : lines) {
+            if (mapper.readTree(line).has("free_spins")) {
+                triggered++;
+            }
+        }
+        assertTrue(triggered > 0, "");
+    }
+
+    /**
+     * Writes 500 spins and compares every line with the JSON of the {@link Result} of the spin
+     *
+     * @return the lines
+     */
+    private String[] assertLinesMatchResultJson(GameProcessor processor, SpinContext context) throws IOException {
+        var bytes = new ByteArrayOutputStream();
+
+        var expected = new String[500];
+        try (var writer = new NdjsonResultWriter(context.getGame(), bytes)) {
+            for (int i = 0; i < expected.length; i++) {
+                var reward = processor.spin(context, 10);
+                writer.write(context, "L64X128MixRandom", i);
+
+                var gameResult = context.toResult(new Result());
+                gameResult.setRandomSource("L64X128MixRandom", i);
+                if (reward == 0) {
+                    gameResult.clearBonusSymbols();
+                }
+                expected[i] = mapper.writeValueAsString(gameResult);
+            }
+        }
+
+        var lines = bytes.toString(StandardCharsets.UTF_8).split("\n", -1);
+        assertEquals(expected.length + 1, lines.length, "");
+        assertEquals("", lines[expected.length], "");
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(mapper.readTree(expected[i]), mapper.readTree(lines[i]), "");
+        }
+        return Arrays.copyOf(lines, expected.length);
+    }
+}
@@ -0,0 +1,110 @@
+package org.server;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.config.model.GameConfig;
+import org.config.registry.GameRegistry;
+import org.config.parser.Parser;
+import org.generator.GameProcessor;
+import org.generator.random.RandomSource;
+import org.generator.random.RngAlgorithm;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SpinServerTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private GameConfig config;
+
+    @BeforeEach
+    void setUp() {
+        try {
+            config = Parser.parseConfig("config.json");
+        } catch (IOException err) {
+            throw new RuntimeException(err);
+        }
+    }
+
+    @Test
+    void testSpinEndpoint() throws Exception {
+        var server = new SpinServer(config, RandomSource.of(RngAlgorithm.DEFAULT, 21));
+        server.start(0);
+        try (var client = HttpClient.newHttpClient()) {
+            var uri = URI.create("http://localhost:" + server.getPort() + "/spin");
+
+            var ok = client.send(HttpRequest.newBuilder(uri).POST(HttpRequest.BodyPublishers.ofString("{\"betting_amount\": 100}")).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            assertEquals(200, ok.statusCode(), "");
+            JsonNode result = mapper.readTree(ok.body());
+            assertEquals(3, result.get("matrix").size(), "");
+            assertEquals("L64X128MixRandom", result.get("rng").asText(), "");
+
+            var badBet = client.send(HttpRequest.newBuilder(uri).POST(HttpRequest.BodyPublishers.ofString("{\"betting_amount\": -1}")).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            assertEquals(400, badBet.statusCode(), "");
+
+            var get = client.send(HttpRequest.newBuilder(uri).GET().build(), HttpResponse.BodyHandlers.ofString());
+            assertEquals(405, get.statusCode(), "");
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    void testSpinReplaysFromItsSeed() {
+        var server = new SpinServer(config, RandomSource.of(RngAlgorithm.XOSHIRO, 8));
+        var served = server.spin(50);
+        var json = mapper.valueToTree(served);
+
+        var processor = new GameProcessor(RandomSource.of(RngAlgorithm.XOSHIRO, json.get("seed").asLong()).split());
+        var context = processor.createContext(config);
+        var reward = processor.spin(context, 50);
+
+        assertEquals(json.get("reward").asDouble(), reward, "");
+        assertEquals(json.get("matrix"), mapper.valueToTree(context.toMatrix()), "");
+    }
+
+    @Test
+    void testGamesAreServedById() throws Exception {
+        var directory = Files.createTempDirectory("spin-server");
+        Files.copy(Path.of("config.json"), directory.resolve("classic.json"));
+        var registry = new GameRegistry(1L << 30);
+        registry.registerDirectory(directory);
+
+        var server = new SpinServer(registry, RandomSource.of(RngAlgorithm.DEFAULT, 4));
+        server.start(0);
+        try (var client = HttpClient.newHttpClient()) {
+            var base = "http://localhost:" + server.getPort();
+            var body = HttpRequest.BodyPublishers.ofString("{\"betting_amount\": 10}");
+
+            var ok = client.send(HttpRequest.newBuilder(URI.create(base + "/games/classic/spin")).POST(body).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            assertEquals(200, ok.statusCode(), ok.body());
+            assertEquals(3, mapper.readTree(ok.body()).get("matrix").size(), "");
+
+            var stats = client.send(HttpRequest.newBuilder(URI.create(base + "/games/classic/stats")).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+            assertEquals(1, mapper.readTree(stats.body()).get("spins").asLong(), stats.body());
+
+            var unknown = client.send(HttpRequest.newBuilder(URI.create(base + "/games/other/spin")).POST(body).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            assertEquals(404, unknown.statusCode(), "");
+
+            var noDefault = client.send(HttpRequest.newBuilder(URI.create(base + "/spin")).POST(body).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            assertEquals(404, noDefault.statusCode(), "");
+        } finally {
+            server.stop();
+        }
+    }
+}
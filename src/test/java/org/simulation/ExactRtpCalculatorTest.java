@@ -0,0 +1,122 @@
+package org.simulation;
+
+import org.config.compiled.CompiledGame;
+import org.config.model.GameConfig;
+import org.config.parser.Parser;
+import org.generator.GameProcessor;
+import org.generator.random.RandomSource;
+import org.generator.random.RngAlgorithm;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExactRtpCalculatorTest {
+
+    private static GameConfig parse(String path) {
+        try {
+            return Parser.parseConfig(path);
+        } catch (IOException err) {
+            throw new RuntimeException(err);
+        }
+    }
+
+    @Test
+    void testMatchesEnumerationOfAllBoards() {
+        var config = parse("src/test/resources/small_config.json");
+        var game = CompiledGame.compile(config);
+        var processor = new GameProcessor();
+
+        var cells = game.getCellCount();
+        var symbols = game.getSymbolCount();
+        var probabilities = new double[cells][symbols];
+        var bonus = game.getBonusPossibility() / 100.0;
+        for (int cell = 0; cell < cells; cell++) {
+            var sampler = game.getCellSampler(cell);
+            for (int i = 0; i < sampler.size(); i++) {
+                probabilities[cell][sampler.getSymbol(i)] += (1 - bonus) * sampler.getWeight(i) / sampler.getTotalWeight();
+            }
+            var bonusSampler = game.getBonusSampler();
+            for (int i = 0; i < bonusSampler.size(); i++) {
+                probabilities[cell][bonusSampler.getSymbol(i)] += bonus * bonusSampler.getWeight(i) / bonusSampler.getTotalWeight();
+            }
+        }
+
+        var expectedReturn = 0.0;
+        var expectedHits = 0.0;
+        var board = new int[cells];
+        var boards = (long) Math.pow(symbols, cells);
+        for (long index = 0; index < boards; index++) {
+            var probability = 1.0;
+            var rest = index;
+            for (int cell = 0; cell < cells; cell++) {
+                board[cell] = (int) (rest % symbols);
+                rest /= symbols;
+                probability *= probabilities[cell][board[cell]];
+            }
+            if (probability == 0) {
+                continue;
+            }
+            var matrix = new String[game.getRows()][game.getColumns()];
+            for (int cell = 0; cell < cells; cell++) {
+                matrix[cell / game.getColumns()][cell % game.getColumns()] = game.getSymbolName(board[cell]);
+            }
+            var wins = processor.checkWinningCombinations(matrix, config);
+            expectedReturn += probability * processor.calculateReward(matrix, 2, wins, config);
+            if (!wins.isEmpty()) {
+                expectedHits += probability;
+            }
+        }
+
+        var report = new ExactRtpCalculator(config).calculate(2);
+        assertEquals(expectedReturn / 2, report.getRtp(), 1e-9, "");
+        assertEquals(expectedHits, report.getHitFrequency(), 1e-12, "");
+
+        var symbolRtp = report.getSymbols().values().stream().mapToDouble(SimulationReport.Contribution::getRtp).sum();
+        assertEquals(report.getRtp(), symbolRtp + report.getBonusRtp(), 1e-9, "");
+    }
+
+    @Test
+    void testAgreesWithSimulation() {
+        var config = parse("config.json");
+        var exact = new ExactRtpCalculator(config).calculate(1);
+        var simulated = new Simulator(config, RandomSource.of(RngAlgorithm.DEFAULT, 3), 2).run(200_000, 1);
+
+        // 95% interval widened to about 4 sigma, so the seeded run stays well inside it
+        assertTrue(Math.abs(exact.getRtp() - simulated.getRtp()) < 2 * simulated.getRtpConfidence(), "");
+        assertEquals(exact.getHitFrequency(), simulated.getHitFrequency(), 0.01, "");
+    }
+
+    @Test
+    void testReelStripsAreRejected() {
+        var config = parse("src/test/resources/reel_config.json");
+        assertThrows(IllegalArgumentException.class, () -> new ExactRtpCalculator(config));
+    }
+
+    @Test
+    void testCascadesAreRejected() {
+        var config = parse("src/test/resources/cascade_config.json");
+        assertThrows(IllegalArgumentException.class, () -> new ExactRtpCalculator(config));
+    }
+
+    @Test
+    void testFreeSpinsAreRejected() {
+        var config = parse("src/test/resources/free_spins_config.json");
+        assertThrows(IllegalArgumentException.class, () -> new ExactRtpCalculator(config));
+    }
+
+    @Test
+    void testClustersAreRejected() {
+        var config = parse("src/test/resources/cluster_config.json");
+        assertThrows(IllegalArgumentException.class, () -> new ExactRtpCalculator(config));
+    }
+
+    @Test
+    void testWaysAreRejected() {
+        var config = parse("src/test/resources/ways_config.json");
+        assertThrows(IllegalArgumentException.class, () -> new ExactRtpCalculator(config));
+    }
+}
@@ -0,0 +1,54 @@
+package org.simulation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.config.model.GameConfig;
+import org.generator.random.RandomSource;
+import org.generator.random.RngAlgorithm;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SimulationAccumulatorTest {
+
+    /**
+     * Every cell only holds its symbol of {@code matrix} and bonus symbols never land, so every spin plays that board
+     */
+    private static GameConfig fixedBoard(String[][] matrix) throws IOException {
+        var mapper = new ObjectMapper();
+        var tree = (ObjectNode) mapper.readTree(new File("config.json"));
+        tree.put("bonus_possibility", 0);
+        for (JsonNode cell : tree.get("probabilities").get("standard_symbols")) {
+            var symbols = ((ObjectNode) cell).putObject("symbols");
+            symbols.put(matrix[cell.get("row").asInt()][cell.get("column").asInt()], 1);
+        }
+        return mapper.convertValue(tree, GameConfig.class);
+    }
+
+    @Test
+    void testCombinationsCountOncePerSpinAndSymbol() throws IOException {
+        var config = fixedBoard(new String[][]{
+                {"A", "A", "A"},
+                {"A", "A", "A"},
+                {"B", "B", "B"}
+        });
+        var report = new Simulator(config, RandomSource.of(RngAlgorithm.DEFAULT, 1), 1).run(1_000, 1);
+
+        // A: 5 * 3 (6 times) * 2 * 2 (two rows), B: 3 * 1 (3 times) * 2
+        assertEquals(66, report.getRtp(), 1e-9, "");
+        assertEquals(1, report.getHitFrequency(), "");
+        var combinations = report.getCombinations();
+        assertEquals(3, combinations.size(), "");
+        // both rows of A and the row of B win on every spin, the combination still only hits once per spin
+        assertEquals(1, combinations.get("same_symbols_horizontally").getHitFrequency(), "");
+        assertEquals(66, combinations.get("same_symbols_horizontally").getInvolvedRtp(), 1e-9, "");
+        assertEquals(1, combinations.get("same_symbol_6_times").getHitFrequency(), "");
+        assertEquals(60, combinations.get("same_symbol_6_times").getInvolvedRtp(), 1e-9, "");
+        assertEquals(1, combinations.get("same_symbol_3_times").getHitFrequency(), "");
+        assertEquals(6, combinations.get("same_symbol_3_times").getInvolvedRtp(), 1e-9, "");
+    }
+}
@@ -0,0 +1,65 @@
+package org.simulation;
+
+import org.config.model.GameConfig;
+import org.config.parser.Parser;
+import org.generator.random.RandomSource;
+import org.generator.random.RngAlgorithm;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SimulatorTest {
+
+    private GameConfig config;
+
+    @BeforeEach
+    void setUp() {
+        try {
+            config = Parser.parseConfig("config.json");
+        } catch (IOException err) {
+            throw new RuntimeException(err);
+        }
+    }
+
+    @Test
+    void testSeededRunIsReproducible() {
+        var first = new Simulator(config, RandomSource.of(RngAlgorithm.DEFAULT, 11), 3).run(30_000, 100);
+        var second = new Simulator(config, RandomSource.of(RngAlgorithm.DEFAULT, 11), 3).run(30_000, 100);
+
+        assertEquals(30_000, first.getSpins(), "");
+        assertEquals(first.getRtp(), second.getRtp(), "");
+        assertEquals(first.getHitFrequency(), second.getHitFrequency(), "");
+        assertEquals(first.getVolatility(), second.getVolatility(), "");
+    }
+
+    @Test
+    void testReportIsConsistent() {
+        var report = new Simulator(config, RandomSource.of(RngAlgorithm.SPLITTABLE, 5), 2).run(20_000, 10);
+
+        var distribution = report.getPayoutDistribution().values().stream().mapToDouble(Double::doubleValue).sum();
+        assertEquals(1.0, distribution, 1e-9, "");
+
+        var symbolRtp = report.getSymbols().values().stream().mapToDouble(SimulationReport.Contribution::getRtp).sum();
+        assertEquals(report.getRtp(), symbolRtp + report.getBonusRtp(), 1e-6, "");
+
+        assertTrue(report.getHitFrequency() > 0 && report.getHitFrequency() < 1, "");
+        assertTrue(report.getRtpConfidence() > 0, "");
+    }
+
+    @Test
+    void testRunStopsOnceIntervalIsTight() {
+        var first = new Simulator(config, RandomSource.of(RngAlgorithm.DEFAULT, 13), 2).run(100 * Simulator.ROUND_SPINS, 1, 10);
+        var second = new Simulator(config, RandomSource.of(RngAlgorithm.DEFAULT, 13), 2).run(100 * Simulator.ROUND_SPINS, 1, 10);
+
+        assertTrue(first.getSpins() < 100 * Simulator.ROUND_SPINS, "");
+        assertEquals(0, first.getSpins() % Simulator.ROUND_SPINS, "");
+        assertTrue(first.getRtpConfidence() <= 10, "");
+        assertEquals(first.getSpins(), second.getSpins(), "");
+        assertEquals(first.getRtp(), second.getRtp(), "");
+        assertEquals(first.getRtp() - first.getRtpConfidence(), first.getRtpInterval()[0], 1e-9, "");
+    }
+}
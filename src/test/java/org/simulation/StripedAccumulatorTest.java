@@ -0,0 +1,54 @@
+package org.simulation;
+
+import org.config.compiled.CompiledGame;
+import org.config.parser.Parser;
+import org.generator.GameProcessor;
+import org.generator.SpinContext;
+import org.generator.random.RandomSource;
+import org.generator.random.RngAlgorithm;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StripedAccumulatorTest {
+
+    @Test
+    void testConcurrentRecordingMatchesSequentialTotals() throws Exception {
+        var game = CompiledGame.compile(Parser.parseConfig("config.json"));
+        var striped = new StripedAccumulator(game, 3);
+        var sequential = new SimulationAccumulator(game);
+        var source = RandomSource.of(RngAlgorithm.DEFAULT, 1);
+
+        var threads = new ArrayList<Thread>();
+        for (int thread = 0; thread < 6; thread++) {
+            var processor = new GameProcessor(source.split());
+            var context = new SpinContext(game);
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int spin = 0; spin < 20_000; spin++) {
+                    processor.spin(context, 2);
+                    striped.addSpin(context, 2);
+                    synchronized (sequential) {
+                        sequential.addSpin(context, 2);
+                    }
+                }
+            }));
+        }
+        // snapshots taken while spins are recorded must not lose any of them
+        while (threads.stream().anyMatch(Thread::isAlive)) {
+            striped.snapshot();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        var expected = sequential.toReport();
+        var actual = striped.snapshot();
+        assertEquals(120_000, actual.getSpins(), "");
+        assertEquals(expected.getRtp(), actual.getRtp(), 1e-9, "");
+        assertEquals(expected.getHitFrequency(), actual.getHitFrequency(), "");
+        assertEquals(expected.getVolatility(), actual.getVolatility(), 1e-6, "");
+        assertEquals(expected.getPayoutPercentiles(), actual.getPayoutPercentiles(), "");
+    }
+}
@@ -0,0 +1,61 @@
+package org.stats;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LogHistogramTest {
+
+    @Test
+    void testQuantilesWithinBucketPrecision() {
+        var random = new SplittableRandom(3);
+        var histogram = new LogHistogram();
+        var values = new double[100_000];
+        for (int i = 0; i < values.length; i++) {
+            // heavy tailed like payouts, with a share of zeros
+            values[i] = i % 3 == 0 ? 0 : Math.exp(random.nextDouble() * 12) / 100;
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+
+        for (double quantile : new double[]{0.1, 0.5, 0.9, 0.99, 0.999}) {
+            var exact = values[(int) Math.ceil(quantile * values.length) - 1];
+            var estimate = histogram.getValueAtQuantile(quantile);
+            assertEquals(exact, estimate, exact / LogHistogram.SUB_BUCKETS + 1e-12, "quantile " + quantile);
+        }
+        assertEquals(values[values.length - 1], histogram.getValueAtQuantile(1), "");
+        assertEquals(0.0, histogram.getValueAtQuantile(0.2), "");
+    }
+
+    @Test
+    void testMergeEqualsSingleHistogram() {
+        var random = new SplittableRandom(5);
+        var whole = new LogHistogram();
+        var first = new LogHistogram();
+        var second = new LogHistogram();
+        var wholeStats = new RunningStats();
+        var firstStats = new RunningStats();
+        var secondStats = new RunningStats();
+        for (int i = 0; i < 50_000; i++) {
+            var value = random.nextDouble() * 1000;
+            whole.record(value);
+            wholeStats.add(value);
+            (i % 7 == 0 ? first : second).record(value);
+            (i % 7 == 0 ? firstStats : secondStats).add(value);
+        }
+        first.merge(second);
+        firstStats.merge(secondStats);
+
+        assertEquals(whole.getTotalCount(), first.getTotalCount(), "");
+        for (double quantile = 0; quantile <= 1; quantile += 0.05) {
+            assertEquals(whole.getValueAtQuantile(quantile), first.getValueAtQuantile(quantile), "");
+        }
+        assertEquals(wholeStats.getMean(), firstStats.getMean(), 1e-9, "");
+        assertEquals(wholeStats.getVariance(), firstStats.getVariance(), 1e-6, "");
+        assertTrue(firstStats.getConfidenceHalfWidth(1.96) > 0, "");
+    }
+}
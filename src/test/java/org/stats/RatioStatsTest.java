@@ -0,0 +1,62 @@
+package org.stats;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RatioStatsTest {
+
+    @Test
+    void testConstantDenominatorMatchesMeanOfRatios() {
+        var random = new SplittableRandom(7);
+        var ratio = new RatioStats();
+        var ratios = new RunningStats();
+        for (int i = 0; i < 10_000; i++) {
+            var reward = i % 4 == 0 ? random.nextDouble() * 50 : 0;
+            ratio.add(2.5, reward);
+            ratios.add(reward / 2.5);
+        }
+
+        assertEquals(ratios.getMean(), ratio.getRatio(), 1e-12, "");
+        assertEquals(ratios.getConfidenceHalfWidth(1.96), ratio.getConfidenceHalfWidth(1.96), 1e-12, "");
+    }
+
+    @Test
+    void testVaryingDenominatorsUseDeltaMethod() {
+        var random = new SplittableRandom(11);
+        var count = 20_000;
+        var bets = new double[count];
+        var rewards = new double[count];
+        double betSum = 0;
+        double rewardSum = 0;
+        var whole = new RatioStats();
+        var first = new RatioStats();
+        var second = new RatioStats();
+        for (int i = 0; i < count; i++) {
+            bets[i] = 1 + random.nextInt(100);
+            rewards[i] = random.nextInt(3) == 0 ? bets[i] * random.nextDouble() * 3 : 0;
+            betSum += bets[i];
+            rewardSum += rewards[i];
+            whole.add(bets[i], rewards[i]);
+            (i % 5 == 0 ? first : second).add(bets[i], rewards[i]);
+        }
+        first.merge(second);
+
+        // two pass variance of the residuals y - ratio * x
+        var expectedRatio = rewardSum / betSum;
+        double squaredResiduals = 0;
+        for (int i = 0; i < count; i++) {
+            var residual = rewards[i] - expectedRatio * bets[i];
+            squaredResiduals += residual * residual;
+        }
+        var expected = 1.96 * Math.sqrt(squaredResiduals / (count - 1) / count) / (betSum / count);
+
+        assertEquals(expectedRatio, whole.getRatio(), 1e-12, "");
+        assertEquals(expected, whole.getConfidenceHalfWidth(1.96), expected * 1e-9, "");
+        assertEquals(count, first.getCount(), "");
+        assertEquals(expectedRatio, first.getRatio(), 1e-12, "");
+        assertEquals(expected, first.getConfidenceHalfWidth(1.96), expected * 1e-9, "");
+    }
+}